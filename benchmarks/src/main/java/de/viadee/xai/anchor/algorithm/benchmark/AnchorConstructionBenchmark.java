@@ -0,0 +1,139 @@
+package de.viadee.xai.anchor.algorithm.benchmark;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBuilder;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.exploration.BatchSAR;
+import de.viadee.xai.anchor.algorithm.exploration.BestAnchorIdentification;
+import de.viadee.xai.anchor.algorithm.exploration.KL_LUCB;
+import de.viadee.xai.anchor.algorithm.exploration.MedianElimination;
+
+/**
+ * Measures the complete {@link de.viadee.xai.anchor.algorithm.AnchorConstruction#constructAnchor()} pipeline,
+ * including the builder's coverage data creation, for varying problem sizes, best arm identifications and sampling
+ * services.
+ * <p>
+ * Run with the {@code -prof gc} option to additionally record allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnchorConstructionBenchmark {
+    private static final int DOMAIN_SIZE = 4;
+    private static final int RELEVANT_FEATURE_COUNT = 3;
+    private static final int THRESHOLD = 5;
+    private static final int EXPLAINED_VALUE = 2;
+    private static final double PERTURBATION_PROBABILITY = 0.5;
+    private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+
+    @Param({"10", "50", "200"})
+    private int featureCount;
+
+    @Param({"1", "2", "5"})
+    private int beamSize;
+
+    // BatchRacing is left out as it ignores epsilon and thus does not terminate on the synthetic model's equally
+    // relevant features
+    @Param({"KL_LUCB", "BATCH_SAR", "MEDIAN_ELIMINATION"})
+    private Exploration exploration;
+
+    @Param({"LINEAR", "PARALLEL", "BALANCED_PARALLEL", "FORK_JOIN"})
+    private Sampling sampling;
+
+    private TabularInstance explainedInstance;
+    private SyntheticClassificationFunction classificationFunction;
+    private SyntheticPerturbationFunction perturbationFunction;
+    private ExecutorService executorService;
+    private ForkJoinPool forkJoinPool;
+
+    @Setup
+    public void setUp() {
+        explainedInstance = TabularInstance.uniform(featureCount, EXPLAINED_VALUE);
+        classificationFunction = new SyntheticClassificationFunction(RELEVANT_FEATURE_COUNT, THRESHOLD);
+        perturbationFunction = new SyntheticPerturbationFunction(explainedInstance, DOMAIN_SIZE,
+                PERTURBATION_PROBABILITY);
+        executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        forkJoinPool = new ForkJoinPool(THREAD_COUNT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdown();
+        forkJoinPool.shutdown();
+    }
+
+    @Benchmark
+    public AnchorResult<TabularInstance> constructAnchor() {
+        final AnchorConstructionBuilder<TabularInstance> builder = new AnchorConstructionBuilder<>(
+                classificationFunction, perturbationFunction, explainedInstance)
+                .setBeamSize(beamSize)
+                .setBestAnchorIdentification(exploration.create());
+        switch (sampling) {
+            case PARALLEL:
+                builder.enableThreading(executorService, null);
+                break;
+            case BALANCED_PARALLEL:
+                builder.enableThreading(THREAD_COUNT, executorService, null);
+                break;
+            case FORK_JOIN:
+                builder.enableWorkStealing(forkJoinPool, 10);
+                break;
+            default:
+                break;
+        }
+        return builder.build().constructAnchor();
+    }
+
+    /**
+     * The benchmarked {@link BestAnchorIdentification} implementations
+     */
+    public enum Exploration {
+        KL_LUCB {
+            @Override
+            BestAnchorIdentification create() {
+                return new KL_LUCB();
+            }
+        },
+        BATCH_SAR {
+            @Override
+            BestAnchorIdentification create() {
+                return new BatchSAR(100, 100);
+            }
+        },
+        MEDIAN_ELIMINATION {
+            @Override
+            BestAnchorIdentification create() {
+                return new MedianElimination();
+            }
+        };
+
+        abstract BestAnchorIdentification create();
+    }
+
+    /**
+     * The benchmarked {@link de.viadee.xai.anchor.algorithm.execution.SamplingService} implementations
+     */
+    public enum Sampling {
+        LINEAR, PARALLEL, BALANCED_PARALLEL, FORK_JOIN
+    }
+}
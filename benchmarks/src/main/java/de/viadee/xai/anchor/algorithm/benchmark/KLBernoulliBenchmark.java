@@ -0,0 +1,74 @@
+package de.viadee.xai.anchor.algorithm.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.viadee.xai.anchor.algorithm.util.KLBernoulliUtils;
+
+/**
+ * Compares the bisection-based KL-Bernoulli confidence bounds to their Newton-based and Newton-guided counterparts
+ * for means and levels as they occur during the best arm identification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KLBernoulliBenchmark {
+    private static final int BOUND_COUNT = 1000;
+
+    private double[] means;
+    private double[] levels;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        means = new double[BOUND_COUNT];
+        levels = new double[BOUND_COUNT];
+        for (int i = 0; i < BOUND_COUNT; i++) {
+            final int sampledSize = 1 + random.nextInt(2000);
+            means[i] = random.nextInt(sampledSize + 1) / (double) sampledSize;
+            // Beta is roughly between 5 and 20 for common feature counts and rounds
+            levels[i] = (5 + 15 * random.nextDouble()) / sampledSize;
+        }
+    }
+
+    @Benchmark
+    public double bisection() {
+        double sum = 0;
+        for (int i = 0; i < BOUND_COUNT; i++)
+            sum += KLBernoulliUtils.dupBernoulli(means[i], levels[i])
+                    + KLBernoulliUtils.dlowBernoulli(means[i], levels[i]);
+        return sum;
+    }
+
+    @Benchmark
+    public double newton() {
+        double sum = 0;
+        for (int i = 0; i < BOUND_COUNT; i++)
+            sum += KLBernoulliUtils.dupBernoulliNewton(means[i], levels[i])
+                    + KLBernoulliUtils.dlowBernoulliNewton(means[i], levels[i]);
+        return sum;
+    }
+
+    @Benchmark
+    public double guided() {
+        double sum = 0;
+        for (int i = 0; i < BOUND_COUNT; i++)
+            sum += KLBernoulliUtils.dupBernoulliGuided(means[i], levels[i])
+                    + KLBernoulliUtils.dlowBernoulliGuided(means[i], levels[i]);
+        return sum;
+    }
+}
@@ -0,0 +1,147 @@
+package de.viadee.xai.anchor.algorithm.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.execution.BalancedParallelSamplingService;
+import de.viadee.xai.anchor.algorithm.execution.ExecutorServiceSupplier;
+import de.viadee.xai.anchor.algorithm.execution.ForkJoinSamplingService;
+import de.viadee.xai.anchor.algorithm.execution.SamplingService;
+import de.viadee.xai.anchor.algorithm.execution.SamplingSession;
+
+/**
+ * Measures the throughput of a single sampling session, i.e. one round of a best arm identification, for a model
+ * whose latency varies between instances.
+ * <p>
+ * Compares the static work distribution of the {@link BalancedParallelSamplingService} to the work-stealing
+ * {@link ForkJoinSamplingService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SamplingServiceBenchmark {
+    private static final int FEATURE_COUNT = 20;
+    private static final int DOMAIN_SIZE = 4;
+    private static final int EXPLAINED_VALUE = 2;
+    private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+
+    @Param({"BALANCED_PARALLEL", "FORK_JOIN"})
+    private Sampling sampling;
+
+    @Param({"10", "100"})
+    private int candidateCount;
+
+    @Param({"100"})
+    private int samplesPerCandidate;
+
+    /**
+     * The probability of a single prediction being slow
+     */
+    @Param({"0.0", "0.1"})
+    private double slowPredictionProbability;
+
+    private SamplingService samplingService;
+    private ExecutorService executorService;
+    private ForkJoinPool forkJoinPool;
+    private List<AnchorCandidate> candidates;
+
+    @Setup
+    public void setUp() {
+        final TabularInstance explainedInstance = TabularInstance.uniform(FEATURE_COUNT, EXPLAINED_VALUE);
+        final VariableLatencyClassificationFunction classificationFunction =
+                new VariableLatencyClassificationFunction(slowPredictionProbability);
+        final SyntheticPerturbationFunction perturbationFunction = new SyntheticPerturbationFunction(
+                explainedInstance, DOMAIN_SIZE, 0.5);
+        switch (sampling) {
+            case BALANCED_PARALLEL:
+                executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+                samplingService = new BalancedParallelSamplingService<>(classificationFunction, perturbationFunction,
+                        executorService, (ExecutorServiceSupplier) null, THREAD_COUNT);
+                break;
+            case FORK_JOIN:
+                forkJoinPool = new ForkJoinPool(THREAD_COUNT);
+                samplingService = new ForkJoinSamplingService<>(classificationFunction, perturbationFunction,
+                        forkJoinPool, 10);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown sampling service " + sampling);
+        }
+        candidates = new ArrayList<>();
+        for (int i = 0; i < candidateCount; i++)
+            candidates.add(new AnchorCandidate(Collections.singletonList(i % FEATURE_COUNT), null));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executorService != null)
+            executorService.shutdown();
+        if (forkJoinPool != null)
+            forkJoinPool.shutdown();
+    }
+
+    @Benchmark
+    public void runSession() {
+        final SamplingSession session = samplingService.createSession(1);
+        for (final AnchorCandidate candidate : candidates)
+            session.registerCandidateEvaluation(candidate, samplesPerCandidate);
+        session.run();
+    }
+
+    /**
+     * The benchmarked {@link SamplingService} implementations
+     */
+    public enum Sampling {
+        BALANCED_PARALLEL, FORK_JOIN
+    }
+
+    /**
+     * Synthetic model that is slow for some randomly chosen instances, e.g. as an early-exit model
+     */
+    private static class VariableLatencyClassificationFunction implements ClassificationFunction<TabularInstance> {
+        private static final long serialVersionUID = -6155800658442802811L;
+        private static final long FAST_NANOS = 1_000;
+        private static final long SLOW_NANOS = 100_000;
+
+        private final ClassificationFunction<TabularInstance> model = new SyntheticClassificationFunction(3, 5);
+        private final double slowPredictionProbability;
+
+        private VariableLatencyClassificationFunction(final double slowPredictionProbability) {
+            this.slowPredictionProbability = slowPredictionProbability;
+        }
+
+        @Override
+        public int predict(final TabularInstance instance) {
+            final long latency = (ThreadLocalRandom.current().nextDouble() < slowPredictionProbability)
+                    ? SLOW_NANOS : FAST_NANOS;
+            final long end = System.nanoTime() + latency;
+            while (System.nanoTime() < end) {
+                // Busy waiting simulates the model's computation
+            }
+            return model.predict(instance);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package de.viadee.xai.anchor.algorithm.benchmark;
+
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+
+/**
+ * Synthetic model whose prediction only depends on the first few features of a {@link TabularInstance}.
+ * <p>
+ * An instance is labelled 1 if the sum of its relevant features reaches a threshold and 0 otherwise.
+ * Hence, anchors mainly consist of the relevant features, while all other features are noise the algorithm has to
+ * rule out.
+ */
+public class SyntheticClassificationFunction implements ClassificationFunction<TabularInstance> {
+    private static final long serialVersionUID = -2790271717707011062L;
+
+    private final int relevantFeatureCount;
+    private final int threshold;
+
+    /**
+     * Creates the model.
+     *
+     * @param relevantFeatureCount the number of leading features the prediction depends on
+     * @param threshold            the sum the relevant features need to reach for the instance to be labelled 1
+     */
+    public SyntheticClassificationFunction(final int relevantFeatureCount, final int threshold) {
+        this.relevantFeatureCount = relevantFeatureCount;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public int predict(final TabularInstance instance) {
+        final int[] values = instance.getInstance();
+        int sum = 0;
+        for (int i = 0; i < Math.min(relevantFeatureCount, values.length); i++)
+            sum += values[i];
+        return (sum >= threshold) ? 1 : 0;
+    }
+}
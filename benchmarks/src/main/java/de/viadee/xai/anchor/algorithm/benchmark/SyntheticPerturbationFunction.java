@@ -0,0 +1,59 @@
+package de.viadee.xai.anchor.algorithm.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import de.viadee.xai.anchor.algorithm.PerturbationFunction;
+import de.viadee.xai.anchor.algorithm.global.ReconfigurablePerturbationFunction;
+
+/**
+ * Perturbs a {@link TabularInstance} by replacing each mutable feature with a uniformly drawn value of its domain.
+ * <p>
+ * May be called concurrently, as it is used by the parallel sampling services.
+ */
+public class SyntheticPerturbationFunction implements ReconfigurablePerturbationFunction<TabularInstance> {
+    private static final long serialVersionUID = 3408573386446283577L;
+
+    private final TabularInstance explainedInstance;
+    private final int domainSize;
+    private final double perturbationProbability;
+
+    /**
+     * Creates the perturbation function.
+     *
+     * @param explainedInstance       the instance to perturb
+     * @param domainSize              the number of distinct values each feature may take
+     * @param perturbationProbability the probability of a mutable feature getting replaced
+     */
+    public SyntheticPerturbationFunction(final TabularInstance explainedInstance, final int domainSize,
+                                         final double perturbationProbability) {
+        this.explainedInstance = explainedInstance;
+        this.domainSize = domainSize;
+        this.perturbationProbability = perturbationProbability;
+    }
+
+    @Override
+    public PerturbationFunction<TabularInstance> createForInstance(final TabularInstance instance) {
+        return new SyntheticPerturbationFunction(instance, domainSize, perturbationProbability);
+    }
+
+    @Override
+    public PerturbationResult<TabularInstance> perturb(final Set<Integer> immutableFeaturesIdx,
+                                                       final int nrPerturbations) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int[] original = explainedInstance.getInstance();
+        final TabularInstance[] rawResult = new TabularInstance[nrPerturbations];
+        final boolean[][] featureChanged = new boolean[nrPerturbations][original.length];
+        for (int i = 0; i < nrPerturbations; i++) {
+            final int[] values = original.clone();
+            for (int feature = 0; feature < values.length; feature++) {
+                if (immutableFeaturesIdx.contains(feature) || random.nextDouble() >= perturbationProbability)
+                    continue;
+                values[feature] = random.nextInt(domainSize);
+                featureChanged[i][feature] = values[feature] != original[feature];
+            }
+            rawResult[i] = new TabularInstance(values);
+        }
+        return new PerturbationResultImpl<>(rawResult, featureChanged);
+    }
+}
@@ -0,0 +1,56 @@
+package de.viadee.xai.anchor.algorithm.benchmark;
+
+import java.util.Arrays;
+
+import de.viadee.xai.anchor.algorithm.DataInstance;
+
+/**
+ * Synthetic table row consisting of categorical features encoded as integers.
+ */
+public class TabularInstance implements DataInstance<int[]> {
+    private static final long serialVersionUID = 6361047339327587402L;
+
+    private final int[] values;
+
+    /**
+     * Creates the instance.
+     *
+     * @param values the row's feature values
+     */
+    public TabularInstance(final int[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Creates a row of the specified size having the same value for each feature.
+     *
+     * @param featureCount the number of features
+     * @param value        the value of every feature
+     * @return the created instance
+     */
+    public static TabularInstance uniform(final int featureCount, final int value) {
+        final int[] values = new int[featureCount];
+        Arrays.fill(values, value);
+        return new TabularInstance(values);
+    }
+
+    @Override
+    public int[] getInstance() {
+        return values;
+    }
+
+    @Override
+    public Object getValue(final int featureId) {
+        return values[featureId];
+    }
+
+    @Override
+    public int getFeatureCount() {
+        return values.length;
+    }
+
+    @Override
+    public String toString() {
+        return "TabularInstance {" + "featureCount=" + values.length + '}';
+    }
+}
@@ -2,12 +2,12 @@ package de.viadee.xai.anchor.algorithm;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import de.viadee.xai.anchor.algorithm.util.ParameterValidation;
 
@@ -24,17 +24,18 @@ public class AnchorCandidate implements Serializable {
     /*
      * Immutable fields
      */
-    private final List<Integer> orderedFeatures;
-    private final SortedSet<Integer> canonicalFeatures;
+    private final FeatureSet features;
     private final AnchorCandidate parentCandidate;
 
     /*
-     * Mutable fields. Write-access only allowed by synchronized registerSamples!
+     * Mutable fields. Write-access only allowed by registerSamples!
      */
     private Double coverage;
-    private int sampledSize = 0;
-    private int positiveSamples = 0;
-    private double precision = 0;
+    /*
+     * Packs the sampled size into the upper and the positive samples into the lower 32 bits. This way, both counters
+     * are updated atomically by a single lock-free addition and can be read consistently.
+     */
+    private final AtomicLong samples = new AtomicLong();
 
     /**
      * Constructs the candidate and sets its immutable features and coverage.
@@ -43,20 +44,33 @@ public class AnchorCandidate implements Serializable {
      * @param parentCandidate the parent candidate this rule has been derived from
      */
     public AnchorCandidate(final Collection<Integer> features, final AnchorCandidate parentCandidate) {
-        if (!ParameterValidation.isNotEmpty(features))
+        this(validatedFeatureSet(features), parentCandidate);
+    }
+
+    /**
+     * Constructs the candidate and sets its immutable features and coverage.
+     *
+     * @param features        the features the candidate comprises
+     * @param parentCandidate the parent candidate this rule has been derived from
+     */
+    public AnchorCandidate(final FeatureSet features, final AnchorCandidate parentCandidate) {
+        if (features == null || features.size() == 0)
             throw new IllegalArgumentException("Candidate" + ParameterValidation.COLLECTION_EMPTY_MESSAGE);
         if (parentCandidate == null && features.size() != 1)
             throw new IllegalArgumentException("No parent candidate specified");
-        if (parentCandidate != null && (features.size() != parentCandidate.canonicalFeatures.size() + 1))
+        if (parentCandidate != null && (features.size() != parentCandidate.features.size() + 1))
             throw new IllegalArgumentException("Parent candidate must have n-1 features");
 
-        // Candidates get "normalized" as treeSet is automatically sorted
-        this.orderedFeatures = Collections.unmodifiableList(new ArrayList<>(features));
-        this.canonicalFeatures = Collections.unmodifiableSortedSet(new TreeSet<>(features));
-
+        this.features = features;
         this.parentCandidate = parentCandidate;
     }
 
+    private static FeatureSet validatedFeatureSet(final Collection<Integer> features) {
+        if (!ParameterValidation.isNotEmpty(features))
+            throw new IllegalArgumentException("Candidate" + ParameterValidation.COLLECTION_EMPTY_MESSAGE);
+        return FeatureSet.of(features);
+    }
+
     /**
      * Constructs the candidate and sets its immutable features and coverage.
      * <p>
@@ -80,12 +94,12 @@ public class AnchorCandidate implements Serializable {
     /**
      * Updates the precision of the candidate when new samples were taken.
      * <p>
-     * Synchronized access to mutable variables!
+     * Lock-free, so that many threads may concurrently register samples of the same candidate.
      *
      * @param sampleSize      the amount of performed evaluations
      * @param positiveSamples the amount of correctly identified evaluations
      */
-    public synchronized void registerSamples(final int sampleSize, final int positiveSamples) {
+    public void registerSamples(final int sampleSize, final int positiveSamples) {
         if (!ParameterValidation.isUnsigned(sampleSize))
             throw new IllegalArgumentException("Sampled size" + ParameterValidation.NEGATIVE_VALUE_MESSAGE);
         if (!ParameterValidation.isUnsigned(positiveSamples))
@@ -93,33 +107,37 @@ public class AnchorCandidate implements Serializable {
         if (positiveSamples > sampleSize)
             throw new IllegalArgumentException("Positive samples must be smaller or equal to sample size");
 
-        this.sampledSize += sampleSize;
-        this.positiveSamples += positiveSamples;
-        this.precision = (this.sampledSize == 0) ? 0 : this.positiveSamples / (double) this.sampledSize;
+        // As positiveSamples <= sampleSize, the lower half never overflows into the upper one
+        this.samples.addAndGet(((long) sampleSize << 32) + positiveSamples);
+    }
+
+    /**
+     * @return the primitive representation of the contained features
+     */
+    public FeatureSet getFeatureSet() {
+        return features;
     }
 
     /**
-     * @return an UnmodifiableList of the contained features
+     * @return an unmodifiable list view of the contained features
      * in the order they were constructed
      */
     public List<Integer> getOrderedFeatures() {
-        // Is immutable anyways
-        return orderedFeatures;
+        return features.asOrderedList();
     }
 
     /**
-     * @return an UnmodifiableSortedSet of the canonical features
+     * @return an unmodifiable sorted set view of the canonical features
      */
     public SortedSet<Integer> getCanonicalFeatures() {
-        // Immutable too
-        return canonicalFeatures;
+        return features.asSortedSet();
     }
 
     /**
      * @return current precision of the anchor
      */
     public double getPrecision() {
-        return precision;
+        return precision(samples.get());
     }
 
     /**
@@ -135,7 +153,7 @@ public class AnchorCandidate implements Serializable {
      * @return the added feature
      */
     public Integer getAddedFeature() {
-        return orderedFeatures.get(orderedFeatures.size() - 1);
+        return features.getLast();
     }
 
     /**
@@ -173,14 +191,14 @@ public class AnchorCandidate implements Serializable {
      * @return samples taken so far
      */
     public int getSampledSize() {
-        return sampledSize;
+        return sampledSize(samples.get());
     }
 
     /**
      * @return amount of correct predictions so far
      */
     public int getPositiveSamples() {
-        return positiveSamples;
+        return positiveSamples(samples.get());
     }
 
     public boolean hasParentCandidate() {
@@ -205,7 +223,7 @@ public class AnchorCandidate implements Serializable {
      */
     public double getAddedPrecision() {
         final double parentPrecision = hasParentCandidate() ? parentCandidate.getPrecision() : 0;
-        return precision - parentPrecision;
+        return getPrecision() - parentPrecision;
     }
 
     /**
@@ -239,29 +257,41 @@ public class AnchorCandidate implements Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         AnchorCandidate that = (AnchorCandidate) o;
-        return sampledSize == that.sampledSize &&
-                positiveSamples == that.positiveSamples &&
-                Double.compare(that.precision, precision) == 0 &&
-                Objects.equals(orderedFeatures, that.orderedFeatures) &&
-                Objects.equals(canonicalFeatures, that.canonicalFeatures) &&
+        return samples.get() == that.samples.get() &&
+                Arrays.equals(features.orderedFeatures(), that.features.orderedFeatures()) &&
                 Objects.equals(parentCandidate, that.parentCandidate) &&
                 Objects.equals(coverage, that.coverage);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(orderedFeatures, canonicalFeatures, parentCandidate, coverage, sampledSize, positiveSamples, precision);
+        // Only immutable fields are hashed, so that candidates may be stored in hash based collections while sampled
+        return features.hashCode();
     }
 
     @Override
     public String toString() {
+        final long currentSamples = samples.get();
         return "AnchorCandidate {" +
-                "features=" + canonicalFeatures +
-                ", ordering=" + orderedFeatures +
-                ", precision=" + precision +
+                "features=" + features +
+                ", ordering=" + features.asOrderedList() +
+                ", precision=" + precision(currentSamples) +
                 ", coverage=" + coverage +
-                ", sampledSize=" + sampledSize +
-                ", positiveSamples=" + positiveSamples +
+                ", sampledSize=" + sampledSize(currentSamples) +
+                ", positiveSamples=" + positiveSamples(currentSamples) +
                 '}';
     }
+
+    private static int sampledSize(final long samples) {
+        return (int) (samples >>> 32);
+    }
+
+    private static int positiveSamples(final long samples) {
+        return (int) samples;
+    }
+
+    private static double precision(final long samples) {
+        final int sampledSize = sampledSize(samples);
+        return (sampledSize == 0) ? 0 : positiveSamples(samples) / (double) sampledSize;
+    }
 }
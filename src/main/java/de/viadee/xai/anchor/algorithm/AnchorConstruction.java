@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -42,6 +43,9 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
     private final int initSampleCount;
     private final boolean lazyCoverageEvaluation;
     private final boolean allowSuboptimalSteps;
+    private final boolean parallelCandidateGeneration;
+    private final AnchorConstructionBudget budget;
+    private final AnchorConstructionListener listener;
 
     private final SamplingService samplingService;
 
@@ -73,6 +77,10 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
      *                                 when extending or returning it
      * @param allowSuboptimalSteps     if set to false, candidates that are returned by the best arm identification get
      *                                 removed when their precision is lower than their parent's
+     * @param parallelCandidateGeneration if set to true, candidates are generated and their coverage is calculated
+     *                                 in parallel. Requires a thread-safe {@link CoverageIdentification}
+     * @param budget                   the resources the construction may consume. May be null if unlimited
+     * @param listener                 notified about intermediate results. May be null
      */
     AnchorConstruction(final BestAnchorIdentification bestAnchorIdentification,
                        final CoverageIdentification coverageIdentification,
@@ -81,7 +89,9 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
                        final int beamSize, final double delta, final double epsilon, final double tau,
                        final double tauDiscrepancy,
                        final int initSampleCount,
-                       boolean lazyCoverageEvaluation, boolean allowSuboptimalSteps) {
+                       boolean lazyCoverageEvaluation, boolean allowSuboptimalSteps,
+                       boolean parallelCandidateGeneration, final AnchorConstructionBudget budget,
+                       final AnchorConstructionListener listener) {
         if (bestAnchorIdentification == null)
             throw new IllegalArgumentException("Best anchor identification" + ParameterValidation.NULL_MESSAGE);
         if (coverageIdentification == null)
@@ -120,6 +130,9 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
         this.initSampleCount = initSampleCount;
         this.lazyCoverageEvaluation = lazyCoverageEvaluation;
         this.allowSuboptimalSteps = allowSuboptimalSteps;
+        this.parallelCandidateGeneration = parallelCandidateGeneration;
+        this.budget = budget;
+        this.listener = listener;
         this.samplingService = samplingService;
     }
 
@@ -127,6 +140,20 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
         return samplingService;
     }
 
+    /**
+     * @return the instance being explained
+     */
+    public T getExplainedInstance() {
+        return explainedInstance;
+    }
+
+    /**
+     * @return the label the model assigned to the explained instance
+     */
+    public int getExplainedInstanceLabel() {
+        return explainedInstanceLabel;
+    }
+
     private static String createKeyValueMap(Object... objects) {
         String[] results = new String[objects.length / 2];
         List<Object> list = Arrays.asList(objects);
@@ -163,53 +190,85 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
      */
     private List<AnchorCandidate> generateCandidateSet(final List<AnchorCandidate> previousBest, final int featureCount,
                                                        final double minCoverage) {
-        final List<AnchorCandidate> result = new ArrayList<>();
-        final Set<AnchorCandidate> intermediateResult = new HashSet<>();
-        final Set<Set<Integer>> createdFeatureSet = new HashSet<>();
-        // Loop over every available features
-        for (final Integer additionalFeature : IntStream.range(0, featureCount).boxed().collect(Collectors.toList())) {
-            // if we don't have any anchor to extend then we are in the first round
-            // and our current feature is a candidate
-            if (previousBest == null || previousBest.isEmpty()) {
-                AnchorCandidate candidate = new AnchorCandidate(
-                        new LinkedHashSet<>(Collections.singletonList(additionalFeature)),
-                        null);
-                intermediateResult.add(candidate);
-                continue;
+        final List<AnchorCandidate> intermediateResult;
+        // if we don't have any anchor to extend then we are in the first round
+        // and every feature is a candidate
+        if (previousBest == null || previousBest.isEmpty()) {
+            intermediateResult = new ArrayList<>(featureCount);
+            for (int additionalFeature = 0; additionalFeature < featureCount; additionalFeature++)
+                intermediateResult.add(new AnchorCandidate(FeatureSet.of(additionalFeature), null));
+        } else if (parallelCandidateGeneration) {
+            intermediateResult = extendCandidatesInParallel(previousBest, featureCount);
+        } else {
+            intermediateResult = new ArrayList<>();
+            final Set<FeatureSet> createdFeatureSets = new HashSet<>();
+            // Loop over every available features
+            for (int additionalFeature = 0; additionalFeature < featureCount; additionalFeature++) {
+                // Loop over the candidates we are going to extend
+                for (final AnchorCandidate candidate : previousBest) {
+                    final FeatureSet features = candidate.getFeatureSet();
+                    // If new element is already contained in the candidate go to the next one
+                    if (features.contains(additionalFeature))
+                        continue;
+
+                    final FeatureSet extendedFeatures = features.extend(additionalFeature);
+                    if (!createdFeatureSets.add(extendedFeatures))
+                        continue;
+
+                    intermediateResult.add(new AnchorCandidate(extendedFeatures, candidate));
+                }
             }
-            // Loop over the candidates we are going to extend
-            for (final AnchorCandidate candidate : previousBest) {
-                // If new element is already contained in the candidate go to the next one
-                if (candidate.getCanonicalFeatures().contains(additionalFeature))
-                    continue;
-
-                final Set<Integer> extendedCandidate = new LinkedHashSet<>(candidate.getOrderedFeatures());
-                extendedCandidate.add(additionalFeature);
-
-                HashSet<Integer> unorderedSet = new HashSet<>(extendedCandidate);
-                if (createdFeatureSet.contains(unorderedSet))
-                    continue;
-                createdFeatureSet.add(unorderedSet);
+        }
 
-                intermediateResult.add(new AnchorCandidate(extendedCandidate, candidate));
-            }
+        // Coverage is required right now if it is not evaluated lazily or if a minimum coverage has been set
+        if (!lazyCoverageEvaluation || minCoverage > 0) {
+            if (parallelCandidateGeneration)
+                intermediateResult.parallelStream().forEach(this::calculateCandidateCoverage);
+            else
+                intermediateResult.forEach(this::calculateCandidateCoverage);
         }
+        if (minCoverage <= 0)
+            return intermediateResult;
+
         // Only accept those candidates that have a certain minimum coverage
+        final List<AnchorCandidate> result = new ArrayList<>();
         for (final AnchorCandidate candidate : intermediateResult) {
-            // Only calculate coverage when lazyCoverageEvaluation is set false
-            if (!lazyCoverageEvaluation)
-                calculateCandidateCoverage(candidate);
-            // Construct candidate
-            if (minCoverage > 0) {
-                // A minimum coverage has been set, so we already need to calculate the coverage right now
-                if (lazyCoverageEvaluation)
-                    calculateCandidateCoverage(candidate);
-                if (candidate.getCoverage() < minCoverage) {
-                    // No longer consider this candidate
-                    continue;
-                }
+            if (candidate.getCoverage() >= minCoverage)
+                result.add(candidate);
+        }
+        return result;
+    }
+
+    /**
+     * Parallel version of the candidate extension.
+     * <p>
+     * The extension space is partitioned by the added feature. Duplicates are resolved by a concurrent registry of
+     * canonical feature sets that keeps the extension the sequential version would have created first. Hence, the
+     * result equals the sequential one, including its order.
+     *
+     * @param previousBest the current best anchors to extend
+     * @param featureCount the number of features there are in the explained instance
+     * @return the extended candidates
+     */
+    private List<AnchorCandidate> extendCandidatesInParallel(final List<AnchorCandidate> previousBest,
+                                                             final int featureCount) {
+        final int candidateCount = previousBest.size();
+        final ConcurrentHashMap<FeatureSet, Integer> registry = new ConcurrentHashMap<>();
+        IntStream.range(0, featureCount).parallel().forEach(additionalFeature -> {
+            for (int i = 0; i < candidateCount; i++) {
+                final FeatureSet features = previousBest.get(i).getFeatureSet();
+                if (!features.contains(additionalFeature))
+                    registry.merge(features.extend(additionalFeature), additionalFeature * candidateCount + i,
+                            Math::min);
             }
-            result.add(candidate);
+        });
+
+        // Keys encode the sequential iteration order
+        final int[] keys = registry.values().stream().mapToInt(Integer::intValue).sorted().toArray();
+        final List<AnchorCandidate> result = new ArrayList<>(keys.length);
+        for (final int key : keys) {
+            final AnchorCandidate parent = previousBest.get(key % candidateCount);
+            result.add(new AnchorCandidate(parent.getFeatureSet().extend(key / candidateCount), parent));
         }
         return result;
     }
@@ -220,11 +279,13 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
      * <p>
      * Method uses a specified exploration algorithm {@link BestAnchorIdentification}
      *
-     * @param topN       the amount of candidates to choose
-     * @param candidates the candidate set to chose from
+     * @param samplingService the sampling service of the current construction
+     * @param candidates      the candidate set to chose from
+     * @param topN            the amount of candidates to choose
      * @return the result of the algorithm, i.e. the list of best candidates
      */
-    private List<AnchorCandidate> bestCandidate(final List<AnchorCandidate> candidates, final int topN) {
+    private List<AnchorCandidate> bestCandidate(final SamplingService samplingService,
+                                                final List<AnchorCandidate> candidates, final int topN) {
         // Ensure all candidates have initSampleCount taken
         SamplingSession session = samplingService.createSession(explainedInstanceLabel);
         for (final AnchorCandidate candidate : candidates) {
@@ -255,18 +316,20 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
      * Therefore, this method checks whether the candidate meets the precision criteria by repeatedly sampling until it
      * is either assured the candidate is in fact an anchor, or not.
      *
-     * @param candidate      the candidate to validate
-     * @param actualBeamSize the actual beam size. As the beam size is constrained to be smaller than the actually found
-     *                       candidates there needs to be this adjustment in edge cases
+     * @param samplingService the sampling service of the current construction
+     * @param candidate       the candidate to validate
+     * @param actualBeamSize  the actual beam size. As the beam size is constrained to be smaller than the actually
+     *                        found candidates there needs to be this adjustment in edge cases
      * @return true, if the candidate adheres to the constraints, false otherwise
      */
-    private boolean isValidCandidate(final AnchorCandidate candidate, final int actualBeamSize) {
+    private boolean isValidCandidate(final SamplingService samplingService, final AnchorCandidate candidate,
+                                     final int actualBeamSize) {
         // I can choose at most (beamSize - 1) tuples at each step and there are at most featureCount steps
         final double beta = Math.log(1 / (delta / (1 + (actualBeamSize - 1) * explainedInstance.getFeatureCount())));
         double mean = candidate.getPrecision();
 
-        double lb = KLBernoulliUtils.dlowBernoulli(mean, beta / candidate.getSampledSize());
-        double ub = KLBernoulliUtils.dupBernoulli(mean, beta / candidate.getSampledSize());
+        double lb = KLBernoulliUtils.dlowBernoulliNewton(mean, beta / candidate.getSampledSize());
+        double ub = KLBernoulliUtils.dupBernoulliNewton(mean, beta / candidate.getSampledSize());
 
         // If prec_lb(A) < tau but prec_ub(A) > tau it needs to be sampled ...
         while ((mean >= tau && lb < tau - tauDiscrepancy) ||
@@ -276,8 +339,8 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
             samplingService.createSession(explainedInstanceLabel)
                     .registerCandidateEvaluation(candidate, initSampleCount).run();
             mean = candidate.getPrecision();
-            lb = KLBernoulliUtils.dlowBernoulli(mean, beta / candidate.getSampledSize());
-            ub = KLBernoulliUtils.dupBernoulli(mean, beta / candidate.getSampledSize());
+            lb = KLBernoulliUtils.dlowBernoulliNewton(mean, beta / candidate.getSampledSize());
+            ub = KLBernoulliUtils.dupBernoulliNewton(mean, beta / candidate.getSampledSize());
         }
 
         // ... until we are either confident A is
@@ -294,7 +357,7 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
     private void calculateCandidateCoverage(AnchorCandidate candidate) {
         if (!candidate.isCoverageUndefined())
             return;
-        candidate.setCoverage(coverageIdentification.calculateCoverage(candidate.getCanonicalFeatures()));
+        candidate.setCoverage(coverageIdentification.calculateCoverage(candidate));
     }
 
     /**
@@ -322,73 +385,91 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
      */
     private AnchorResult<T> beamSearch() throws NoCandidateFoundException {
         final double startTime = System.currentTimeMillis();
+        final BudgetedSamplingService budgetedSamplingService = createBudgetedSamplingService();
+        final SamplingService samplingService = (budgetedSamplingService == null) ? this.samplingService
+                : budgetedSamplingService;
 
         int currentSize = 1;
         final Map<Integer, List<AnchorCandidate>> bestOfSize = new HashMap<>();
+        List<AnchorCandidate> anchorCandidates = Collections.emptyList();
         AnchorCandidate bestCandidate = null;
+        boolean truncated = false;
 
         boolean stopLoop = false;
-        while (currentSize <= maxAnchorSize && !stopLoop) {
-            LOGGER.debug("Adding feature {} of {}", currentSize, maxAnchorSize);
-            // Generate candidates based on previous round's best candidates
-            final List<AnchorCandidate> anchorCandidates = generateCandidateSet(bestOfSize.get(currentSize - 1),
-                    explainedInstance.getFeatureCount(), (bestCandidate != null) ? bestCandidate.getCoverage() : 0);
-            // If - for whatever reason - no more candidates can be identified, quit search
-            if (anchorCandidates.size() == 0)
-                break;
-
-            // Identify this round's best candidates
-            final int bestCandidateCount = Math.min(anchorCandidates.size(), beamSize);
-            final List<AnchorCandidate> bestCandidates = bestCandidate(anchorCandidates, bestCandidateCount);
-            // However, filter candidates that have a precision of 0.
-            // Or such that decrease their parents precision
-            final Iterator<AnchorCandidate> iterator = bestCandidates.iterator();
-            while (iterator.hasNext()) {
-                final AnchorCandidate candidate = iterator.next();
-                // If anchorCandidate size <= beam size, then all candidates get returned without being sampled.
-                // Thus, these may not be removed
-                if (anchorCandidates.size() > bestCandidateCount && candidate.getPrecision() <= 0) {
-                    LOGGER.debug("Removing candidate {} as its precision is 0", candidate.getOrderedFeatures());
-                    iterator.remove();
-                } else if (!allowSuboptimalSteps && candidate.getAddedPrecision() <= 0) {
-                    LOGGER.debug("Removing candidate {} as it decreases its parent's precision",
-                            candidate.getOrderedFeatures());
-                    iterator.remove();
+        try {
+            while (currentSize <= maxAnchorSize && !stopLoop) {
+                if (budgetedSamplingService != null)
+                    budgetedSamplingService.checkBudget();
+                LOGGER.debug("Adding feature {} of {}", currentSize, maxAnchorSize);
+                // Generate candidates based on previous round's best candidates
+                anchorCandidates = generateCandidateSet(bestOfSize.get(currentSize - 1),
+                        explainedInstance.getFeatureCount(), (bestCandidate != null) ? bestCandidate.getCoverage() : 0);
+                // If - for whatever reason - no more candidates can be identified, quit search
+                if (anchorCandidates.size() == 0)
+                    break;
+
+                // Identify this round's best candidates
+                final int bestCandidateCount = Math.min(anchorCandidates.size(), beamSize);
+                final List<AnchorCandidate> bestCandidates = bestCandidate(samplingService, anchorCandidates,
+                        bestCandidateCount);
+                // However, filter candidates that have a precision of 0.
+                // Or such that decrease their parents precision
+                final Iterator<AnchorCandidate> iterator = bestCandidates.iterator();
+                while (iterator.hasNext()) {
+                    final AnchorCandidate candidate = iterator.next();
+                    // If anchorCandidate size <= beam size, then all candidates get returned without being sampled.
+                    // Thus, these may not be removed
+                    if (anchorCandidates.size() > bestCandidateCount && candidate.getPrecision() <= 0) {
+                        LOGGER.debug("Removing candidate {} as its precision is 0", candidate.getOrderedFeatures());
+                        iterator.remove();
+                    } else if (!allowSuboptimalSteps && candidate.getAddedPrecision() <= 0) {
+                        LOGGER.debug("Removing candidate {} as it decreases its parent's precision",
+                                candidate.getOrderedFeatures());
+                        iterator.remove();
+                    }
                 }
-            }
-            if (bestCandidates.isEmpty()) {
-                LOGGER.warn("No valid candidates found during best arm identification. Stopping search.");
-                break;
-            }
-            bestOfSize.put(currentSize, bestCandidates);
-
-            // For each candidate check whether it
-            for (final AnchorCandidate candidate : bestCandidates) {
-                final boolean isValidCandidate = isValidCandidate(candidate, bestCandidateCount);
-                LOGGER.debug("Top candidate {} is{} a valid anchor with precision {}",
-                        candidate.getCanonicalFeatures(), (isValidCandidate) ? "" : " not", candidate.getPrecision());
-                // The best candidates returned do not necessarily have the right confidence constraints
-                // Check if this candidate is valid, i.e. adheres to the set constraints.
-                // Only then it can be a valid result candidate
-                // However, still save the "invalid" anchors in case no candidate adheres to the constraints
-
-                if (isValidCandidate) {
-                    // If by here the coverage still has not been calculated, do it
-                    calculateCandidateCoverage(candidate);
-
-                    // See if current anchor has better coverage then previously bet one
-                    if (bestCandidate == null || candidate.getCoverage() > bestCandidate.getCoverage()) {
-                        LOGGER.debug("Found a new best anchor ({}) with a coverage of {}", candidate.getCanonicalFeatures(),
-                                candidate.getCoverage());
-                        bestCandidate = candidate;
-                        if (candidate.getCoverage() == 1) {
-                            LOGGER.info("Found an anchor with a coverage of 1. Stopping search prematurely.");
-                            stopLoop = true;
+                if (bestCandidates.isEmpty()) {
+                    LOGGER.warn("No valid candidates found during best arm identification. Stopping search.");
+                    break;
+                }
+                bestOfSize.put(currentSize, bestCandidates);
+
+                // For each candidate check whether it
+                for (final AnchorCandidate candidate : bestCandidates) {
+                    final boolean isValidCandidate = isValidCandidate(samplingService, candidate, bestCandidateCount);
+                    LOGGER.debug("Top candidate {} is{} a valid anchor with precision {}",
+                            candidate.getCanonicalFeatures(), (isValidCandidate) ? "" : " not",
+                            candidate.getPrecision());
+                    // The best candidates returned do not necessarily have the right confidence constraints
+                    // Check if this candidate is valid, i.e. adheres to the set constraints.
+                    // Only then it can be a valid result candidate
+                    // However, still save the "invalid" anchors in case no candidate adheres to the constraints
+
+                    if (isValidCandidate) {
+                        // If by here the coverage still has not been calculated, do it
+                        calculateCandidateCoverage(candidate);
+
+                        // See if current anchor has better coverage then previously bet one
+                        if (bestCandidate == null || candidate.getCoverage() > bestCandidate.getCoverage()) {
+                            LOGGER.debug("Found a new best anchor ({}) with a coverage of {}",
+                                    candidate.getCanonicalFeatures(), candidate.getCoverage());
+                            bestCandidate = candidate;
+                            if (listener != null)
+                                listener.onAnchorFound(candidate);
+                            if (candidate.getCoverage() == 1) {
+                                LOGGER.info("Found an anchor with a coverage of 1. Stopping search prematurely.");
+                                stopLoop = true;
+                            }
                         }
                     }
                 }
+                if (listener != null)
+                    listener.onRoundCompleted(currentSize, Collections.unmodifiableList(bestCandidates));
+                currentSize++;
             }
-            currentSize++;
+        } catch (final BudgetExhaustedException e) {
+            LOGGER.warn("{}. Returning the best result found so far.", e.getMessage());
+            truncated = true;
         }
 
         // No anchor could be found. Now return best anchor out of all rounds
@@ -398,7 +479,20 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
                     "Searching for best candidate.");
             final List<AnchorCandidate> allCandidates = bestOfSize.values().stream().flatMap(List::stream)
                     .collect(Collectors.toList());
-            final List<AnchorCandidate> bestCandidates = bestCandidate(allCandidates, 1);
+            List<AnchorCandidate> bestCandidates = null;
+            if (!truncated) {
+                try {
+                    bestCandidates = bestCandidate(samplingService, allCandidates, 1);
+                } catch (final BudgetExhaustedException e) {
+                    LOGGER.warn("{}. Returning the best result found so far.", e.getMessage());
+                    truncated = true;
+                }
+            }
+            if (truncated) {
+                // No more samples may be taken. Hence, choose among all candidates evaluated so far
+                allCandidates.addAll(anchorCandidates);
+                bestCandidates = mostPreciseCandidate(allCandidates);
+            }
             if (bestCandidates == null || bestCandidates.isEmpty()) {
                 LOGGER.warn("Could not find an Anchor or any candidate with a precision > 0. " +
                         "Throwing NoCandidateFoundException.");
@@ -413,7 +507,95 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
         final double timeSpent = System.currentTimeMillis() - startTime;
         LOGGER.info("Found result {} in {}ms", bestCandidate, timeSpent);
         return new AnchorResult<>(bestCandidate, explainedInstance, explainedInstanceLabel, isAnchor,
-                timeSpent, samplingService.getTimeSpentSampling());
+                timeSpent, samplingService.getTimeSpentSampling(), truncated);
+    }
+
+    /**
+     * Creates the sampling service enforcing the budget and the listener's cancellation. The budget's limits apply to
+     * a single call only
+     *
+     * @return the sampling service or null, if neither a budget nor a listener is set
+     */
+    private BudgetedSamplingService createBudgetedSamplingService() {
+        return (budget == null && listener == null) ? null
+                : new BudgetedSamplingService(this.samplingService, budget, listener);
+    }
+
+    /**
+     * Chooses the evaluated candidate having the highest precision without taking further samples
+     *
+     * @param candidates the candidates to choose from
+     * @return a list containing the most precise candidate or an empty list if no candidate has a precision &gt; 0
+     */
+    private static List<AnchorCandidate> mostPreciseCandidate(final Collection<AnchorCandidate> candidates) {
+        AnchorCandidate result = null;
+        for (final AnchorCandidate candidate : candidates) {
+            if (candidate.getSampledSize() > 0 && candidate.getPrecision() > 0
+                    && (result == null || candidate.getPrecision() > result.getPrecision()))
+                result = candidate;
+        }
+        return (result == null) ? new ArrayList<>() : new ArrayList<>(Collections.singletonList(result));
+    }
+
+    /**
+     * Verifies an anchor found for another instance also holds for the explained instance.
+     * <p>
+     * Instead of a full beam search, only the anchor's rule gets sampled using this construction's perturbation
+     * function until its precision is confidently either above or below tau. This requires the explained instance to
+     * share the anchor's feature values.
+     * <p>
+     * The anchor's parents are derived anew in the order its features have been added and get sampled as well. Thus,
+     * the result's precision and the precision added by each of its features are solely based on this instance.
+     * <p>
+     * Like the {@link #constructAnchor()}, the verification is limited by the budget and may be cancelled by the
+     * listener.
+     *
+     * @param anchor the anchor to verify
+     * @return the {@link AnchorResult} for the explained instance or null, if the anchor's rule does not hold or could
+     * not be verified within the budget
+     */
+    public AnchorResult<T> verifyAnchor(final AnchorCandidate anchor) {
+        final double startTime = System.currentTimeMillis();
+        final BudgetedSamplingService budgetedSamplingService = createBudgetedSamplingService();
+        final SamplingService samplingService = (budgetedSamplingService == null) ? this.samplingService
+                : budgetedSamplingService;
+        final AnchorCandidate candidate = new AnchorCandidate(anchor.getOrderedFeatures());
+        try {
+            if (budgetedSamplingService != null)
+                budgetedSamplingService.checkBudget();
+            final SamplingSession session = samplingService.createSession(explainedInstanceLabel);
+            for (AnchorCandidate current = candidate; current != null; current = current.getParentCandidate())
+                session.registerCandidateEvaluation(current, initSampleCount);
+            session.run();
+            if (!isValidCandidate(samplingService, candidate, 1)) {
+                LOGGER.debug("Anchor {} does not hold for instance {}", candidate.getCanonicalFeatures(),
+                        explainedInstance);
+                return null;
+            }
+        } catch (final BudgetExhaustedException e) {
+            LOGGER.warn("{}. Could not verify anchor {} for instance {}", e.getMessage(),
+                    candidate.getCanonicalFeatures(), explainedInstance);
+            return null;
+        }
+        calculateCandidateCoverage(candidate);
+        return new AnchorResult<>(candidate, explainedInstance, explainedInstanceLabel, true,
+                System.currentTimeMillis() - startTime, samplingService.getTimeSpentSampling());
+    }
+
+    /**
+     * Adopts an anchor found for another instance for the explained instance without verifying it.
+     * <p>
+     * The explained instance needs to share the anchor's feature values. Only the anchor's coverage is calculated.
+     * As no samples are taken, the result does not report any precision, neither the other instance's one. Hence, it
+     * is not marked as an anchor, as its precision has not been verified for the explained instance.
+     *
+     * @param anchor the anchor to adopt
+     * @return the unverified {@link AnchorResult} for the explained instance
+     */
+    public AnchorResult<T> adoptAnchor(final AnchorCandidate anchor) {
+        final AnchorCandidate candidate = new AnchorCandidate(anchor.getOrderedFeatures());
+        calculateCandidateCoverage(candidate);
+        return new AnchorResult<>(candidate, explainedInstance, explainedInstanceLabel, false, 0, 0);
     }
 
     /**
@@ -467,7 +649,8 @@ public class AnchorConstruction<T extends DataInstance<?>> implements Serializab
                         "tauDiscrepancy", tauDiscrepancy,
                         "initSampleCount", initSampleCount,
                         "lazyCoverageEvaluation", lazyCoverageEvaluation,
-                        "allowSuboptimalSteps", allowSuboptimalSteps));
+                        "allowSuboptimalSteps", allowSuboptimalSteps,
+                        "budget", budget));
 
         return beamSearch();
     }
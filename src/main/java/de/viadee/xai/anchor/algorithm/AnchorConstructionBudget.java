@@ -0,0 +1,108 @@
+package de.viadee.xai.anchor.algorithm;
+
+import de.viadee.xai.anchor.algorithm.util.ParameterValidation;
+
+import java.io.Serializable;
+
+/**
+ * Limits the resources a single anchor construction may consume.
+ * <p>
+ * The budget is checked before each sampling session, i.e. before the initial evaluations, before each round of the
+ * {@link de.viadee.xai.anchor.algorithm.exploration.BestAnchorIdentification} and before each additional evaluation
+ * when validating a candidate. A running session is not interrupted. Thus, limits may be exceeded by a single
+ * session.
+ * <p>
+ * Once exhausted, the construction stops and returns the best result found so far, flagged as
+ * {@link AnchorResult#isTruncated()}.
+ */
+public final class AnchorConstructionBudget implements Serializable {
+    private static final long serialVersionUID = -3380226546720693937L;
+
+    private final long maxSamples;
+    private final long maxModelCalls;
+    private final long maxDurationMillis;
+
+    /**
+     * Creates the budget. A limit of 0 disables the respective limit.
+     *
+     * @param maxSamples        the maximum amount of samples to obtain
+     * @param maxModelCalls     the maximum amount of prediction requests, i.e. candidate evaluations, to issue
+     * @param maxDurationMillis the maximum wall-clock duration in milliseconds, measured from the construction's
+     *                          start
+     */
+    public AnchorConstructionBudget(final long maxSamples, final long maxModelCalls, final long maxDurationMillis) {
+        if (maxSamples < 0)
+            throw new IllegalArgumentException("Max samples" + ParameterValidation.NEGATIVE_VALUE_MESSAGE);
+        if (maxModelCalls < 0)
+            throw new IllegalArgumentException("Max model calls" + ParameterValidation.NEGATIVE_VALUE_MESSAGE);
+        if (maxDurationMillis < 0)
+            throw new IllegalArgumentException("Max duration" + ParameterValidation.NEGATIVE_VALUE_MESSAGE);
+        this.maxSamples = maxSamples;
+        this.maxModelCalls = maxModelCalls;
+        this.maxDurationMillis = maxDurationMillis;
+    }
+
+    /**
+     * @param maxSamples the maximum amount of samples to obtain
+     * @return a budget only limiting the amount of samples
+     */
+    public static AnchorConstructionBudget ofSamples(final long maxSamples) {
+        return new AnchorConstructionBudget(maxSamples, 0, 0);
+    }
+
+    /**
+     * @param maxDurationMillis the maximum wall-clock duration in milliseconds
+     * @return a budget only limiting the construction's duration
+     */
+    public static AnchorConstructionBudget ofDuration(final long maxDurationMillis) {
+        return new AnchorConstructionBudget(0, 0, maxDurationMillis);
+    }
+
+    /**
+     * @return the maximum amount of samples to obtain. 0, if unlimited
+     */
+    public long getMaxSamples() {
+        return maxSamples;
+    }
+
+    /**
+     * @return the maximum amount of prediction requests to issue. 0, if unlimited
+     */
+    public long getMaxModelCalls() {
+        return maxModelCalls;
+    }
+
+    /**
+     * @return the maximum wall-clock duration in milliseconds. 0, if unlimited
+     */
+    public long getMaxDurationMillis() {
+        return maxDurationMillis;
+    }
+
+    /**
+     * Checks whether the budget has been exhausted
+     *
+     * @param samples    the samples obtained so far
+     * @param modelCalls the prediction requests issued so far
+     * @param startTime  the construction's start as returned by {@link System#currentTimeMillis()}
+     * @return the name of the exhausted limit or null, if the budget has not been exhausted
+     */
+    String getExhaustedLimit(final long samples, final long modelCalls, final long startTime) {
+        if (maxSamples > 0 && samples >= maxSamples)
+            return "max samples";
+        if (maxModelCalls > 0 && modelCalls >= maxModelCalls)
+            return "max model calls";
+        if (maxDurationMillis > 0 && System.currentTimeMillis() - startTime >= maxDurationMillis)
+            return "max duration";
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "AnchorConstructionBudget{" +
+                "maxSamples=" + maxSamples +
+                ", maxModelCalls=" + maxModelCalls +
+                ", maxDurationMillis=" + maxDurationMillis +
+                '}';
+    }
+}
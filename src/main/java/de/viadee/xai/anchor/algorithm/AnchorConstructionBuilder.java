@@ -2,15 +2,19 @@ package de.viadee.xai.anchor.algorithm;
 
 import java.io.Serializable;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 import de.viadee.xai.anchor.algorithm.coverage.CoverageIdentification;
 import de.viadee.xai.anchor.algorithm.coverage.PerturbationBasedCoverageIdentification;
 import de.viadee.xai.anchor.algorithm.execution.BalancedParallelSamplingService;
+import de.viadee.xai.anchor.algorithm.execution.BatchingSamplingService;
 import de.viadee.xai.anchor.algorithm.execution.ExecutorServiceFunction;
 import de.viadee.xai.anchor.algorithm.execution.ExecutorServiceSupplier;
+import de.viadee.xai.anchor.algorithm.execution.ForkJoinSamplingService;
 import de.viadee.xai.anchor.algorithm.execution.LinearSamplingService;
 import de.viadee.xai.anchor.algorithm.execution.ParallelSamplingService;
 import de.viadee.xai.anchor.algorithm.execution.SamplingService;
+import de.viadee.xai.anchor.algorithm.execution.VirtualThreadSamplingService;
 import de.viadee.xai.anchor.algorithm.execution.sampling.DefaultSamplingFunction;
 import de.viadee.xai.anchor.algorithm.execution.sampling.SamplingFunction;
 import de.viadee.xai.anchor.algorithm.exploration.BestAnchorIdentification;
@@ -46,13 +50,17 @@ public class AnchorConstructionBuilder<T extends DataInstance<?>> implements Ser
     private int initSampleCount = 1;
     private boolean lazyCoverageEvaluation = false;
     private boolean allowSuboptimalSteps = true;
+    private boolean parallelCandidateGeneration = false;
+    private AnchorConstructionBudget budget = null;
+    private AnchorConstructionListener listener = null;
 
     private AnchorConstructionBuilder(SamplingFunction<T> samplingFunction, T explainedInstance,
                                       int explainedInstanceLabel, BestAnchorIdentification bestAnchorIdentification,
                                       CoverageIdentification coverageIdentification, SamplingService samplingService,
                                       double delta, double epsilon, Integer maxAnchorSize, int beamSize, double tau,
                                       double tauDiscrepancy, int initSampleCount, boolean lazyCoverageEvaluation,
-                                      boolean allowSuboptimalSteps) {
+                                      boolean allowSuboptimalSteps, boolean parallelCandidateGeneration,
+                                      AnchorConstructionBudget budget, AnchorConstructionListener listener) {
         this.samplingFunction = samplingFunction;
         this.explainedInstance = explainedInstance;
         this.explainedInstanceLabel = explainedInstanceLabel;
@@ -68,6 +76,9 @@ public class AnchorConstructionBuilder<T extends DataInstance<?>> implements Ser
         this.initSampleCount = initSampleCount;
         this.lazyCoverageEvaluation = lazyCoverageEvaluation;
         this.allowSuboptimalSteps = allowSuboptimalSteps;
+        this.parallelCandidateGeneration = parallelCandidateGeneration;
+        this.budget = budget;
+        this.listener = listener;
     }
 
     /**
@@ -135,7 +146,8 @@ public class AnchorConstructionBuilder<T extends DataInstance<?>> implements Ser
                 builder.explainedInstance, builder.explainedInstanceLabel, builder.bestAnchorIdentification,
                 builder.coverageIdentification, builder.samplingService, builder.delta, builder.epsilon,
                 builder.maxAnchorSize, builder.beamSize, builder.tau, builder.tauDiscrepancy, builder.initSampleCount,
-                builder.lazyCoverageEvaluation, builder.allowSuboptimalSteps);
+                builder.lazyCoverageEvaluation, builder.allowSuboptimalSteps, builder.parallelCandidateGeneration,
+                builder.budget, builder.listener);
 
         newBuilder.explainedInstance = explainedInstance;
         newBuilder.samplingFunction = newBuilder.samplingFunction.notifyOriginChange(explainedInstance);
@@ -294,6 +306,45 @@ public class AnchorConstructionBuilder<T extends DataInstance<?>> implements Ser
         return this;
     }
 
+    /**
+     * Enables threading using a work-stealing {@link ForkJoinSamplingService}.
+     *
+     * @param forkJoinPool the pool to use. If null, a dedicated pool is created
+     * @param minChunkSize the amount of samples below which a candidate's samples are no longer split
+     * @return the current {@link AnchorConstructionBuilder} for chaining
+     */
+    public AnchorConstructionBuilder<T> enableWorkStealing(final ForkJoinPool forkJoinPool, final int minChunkSize) {
+        this.samplingService = new ForkJoinSamplingService<>(samplingFunction, forkJoinPool, minChunkSize);
+        return this;
+    }
+
+    /**
+     * Enables batching model calls across candidates using a {@link BatchingSamplingService}.
+     *
+     * @param maxBatchSize the maximum amount of instances passed to a single prediction call
+     * @return the current {@link AnchorConstructionBuilder} for chaining
+     */
+    public AnchorConstructionBuilder<T> enableBatching(final int maxBatchSize) {
+        this.samplingService = new BatchingSamplingService<>(samplingFunction, maxBatchSize);
+        return this;
+    }
+
+    /**
+     * Enables threading using a {@link VirtualThreadSamplingService}, suited for I/O-bound classification functions.
+     * <p>
+     * Uses virtual threads if supported by the runtime.
+     *
+     * @param maxConcurrentPredictions the maximum amount of predictions being evaluated concurrently
+     * @param chunkSize                the maximum amount of samples evaluated by a single prediction call
+     * @return the current {@link AnchorConstructionBuilder} for chaining
+     */
+    public AnchorConstructionBuilder<T> enableVirtualThreading(final int maxConcurrentPredictions,
+                                                               final int chunkSize) {
+        this.samplingService = new VirtualThreadSamplingService<>(samplingFunction, maxConcurrentPredictions,
+                chunkSize);
+        return this;
+    }
+
     /**
      * Sets the best anchor identification method.
      * <p>
@@ -361,6 +412,50 @@ public class AnchorConstructionBuilder<T extends DataInstance<?>> implements Ser
         return this;
     }
 
+    /**
+     * Sets parallel candidate generation.
+     * <p>
+     * If set true, each round's candidates are generated and their coverage is calculated in parallel using the
+     * common {@link java.util.concurrent.ForkJoinPool}. The generated candidates equal those of the sequential
+     * generation. Requires the {@link CoverageIdentification} to be thread-safe.
+     *
+     * @param parallelCandidateGeneration the parallel candidate generation value
+     * @return the current {@link AnchorConstructionBuilder} for chaining
+     */
+    public AnchorConstructionBuilder<T> setParallelCandidateGeneration(final boolean parallelCandidateGeneration) {
+        this.parallelCandidateGeneration = parallelCandidateGeneration;
+        return this;
+    }
+
+    /**
+     * Sets the budget.
+     * <p>
+     * Limits the samples, model calls and wall-clock time a single construction may consume. Once exhausted, the best
+     * result found so far is returned, flagged as {@link AnchorResult#isTruncated()}. If null, the construction is
+     * unlimited.
+     *
+     * @param budget the budget
+     * @return the current {@link AnchorConstructionBuilder} for chaining
+     */
+    public AnchorConstructionBuilder<T> setBudget(final AnchorConstructionBudget budget) {
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * Sets the listener.
+     * <p>
+     * The listener gets notified about each round's best candidates and each newly found anchor while the
+     * construction is running and may cancel it.
+     *
+     * @param listener the listener. May be null
+     * @return the current {@link AnchorConstructionBuilder} for chaining
+     */
+    public AnchorConstructionBuilder<T> setListener(final AnchorConstructionListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
     private void prepareForBuild() {
         if (this.bestAnchorIdentification == null)
             this.bestAnchorIdentification = new KL_LUCB();
@@ -381,7 +476,7 @@ public class AnchorConstructionBuilder<T extends DataInstance<?>> implements Ser
                 explainedInstance, explainedInstanceLabel,
                 (maxAnchorSize == null) ? explainedInstance.getFeatureCount() : maxAnchorSize,
                 beamSize, delta, epsilon, tau, tauDiscrepancy, initSampleCount,
-                lazyCoverageEvaluation, allowSuboptimalSteps);
+                lazyCoverageEvaluation, allowSuboptimalSteps, parallelCandidateGeneration, budget, listener);
     }
 
 }
@@ -0,0 +1,42 @@
+package de.viadee.xai.anchor.algorithm;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Listener notified about intermediate results of an anchor construction.
+ * <p>
+ * Enables showing a provisional explanation before the construction has finished and cancelling the construction
+ * once the caller is satisfied. All methods are called on the constructing thread and should return quickly.
+ */
+public interface AnchorConstructionListener extends Serializable {
+
+    /**
+     * Called after each round of the beam search
+     *
+     * @param anchorSize     the amount of features of this round's candidates
+     * @param bestCandidates the best candidates of this round, which are going to be extended in the next round
+     */
+    default void onRoundCompleted(int anchorSize, List<AnchorCandidate> bestCandidates) {
+    }
+
+    /**
+     * Called each time a valid anchor has been found that has a higher coverage than the previously found ones
+     *
+     * @param anchor the anchor. Its coverage has already been calculated
+     */
+    default void onAnchorFound(AnchorCandidate anchor) {
+    }
+
+    /**
+     * Polled before each round and each sampling session.
+     * <p>
+     * Once cancelled, the construction returns the best result found so far, flagged as
+     * {@link AnchorResult#isTruncated()}.
+     *
+     * @return true, if the construction is to be cancelled
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
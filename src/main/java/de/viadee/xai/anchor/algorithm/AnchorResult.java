@@ -15,6 +15,7 @@ public class AnchorResult<T extends DataInstance<?>> extends AnchorCandidate {
     private final boolean isAnchor;
     private final double timeSpent;
     private final double timeSpentSampling;
+    private final boolean truncated;
 
     /**
      * Constructs the instance
@@ -28,7 +29,24 @@ public class AnchorResult<T extends DataInstance<?>> extends AnchorCandidate {
      */
     public AnchorResult(AnchorCandidate candidate, T instance, int label, boolean isAnchor, double timeSpent,
                         double timeSpentSampling) {
-        super(candidate.getOrderedFeatures(), candidate.getParentCandidate());
+        this(candidate, instance, label, isAnchor, timeSpent, timeSpentSampling, false);
+    }
+
+    /**
+     * Constructs the instance
+     *
+     * @param candidate         the {@link AnchorCandidate}
+     * @param instance          the instance described
+     * @param label             the instance's label
+     * @param isAnchor          if true, marks the result is an anchor and adheres to the set constraints
+     * @param timeSpent         the total time spent constructing the result
+     * @param timeSpentSampling the total time spent sampling and evaluating candidates
+     * @param truncated         if true, marks the construction has been stopped early as its
+     *                          {@link AnchorConstructionBudget} has been exhausted or it has been cancelled
+     */
+    public AnchorResult(AnchorCandidate candidate, T instance, int label, boolean isAnchor, double timeSpent,
+                        double timeSpentSampling, boolean truncated) {
+        super(candidate.getFeatureSet(), candidate.getParentCandidate());
         super.setCoverage(candidate.getCoverage());
         this.registerSamples(candidate.getSampledSize(), candidate.getPositiveSamples());
         this.instance = instance;
@@ -36,6 +54,7 @@ public class AnchorResult<T extends DataInstance<?>> extends AnchorCandidate {
         this.isAnchor = isAnchor;
         this.timeSpent = timeSpent;
         this.timeSpentSampling = timeSpentSampling;
+        this.truncated = truncated;
     }
 
     /**
@@ -74,6 +93,14 @@ public class AnchorResult<T extends DataInstance<?>> extends AnchorCandidate {
         return timeSpentSampling;
     }
 
+    /**
+     * @return if true, the construction has been stopped early as its {@link AnchorConstructionBudget} has been
+     * exhausted or it has been cancelled. The result is the best one found until then
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -82,6 +109,7 @@ public class AnchorResult<T extends DataInstance<?>> extends AnchorCandidate {
         AnchorResult<?> that = (AnchorResult<?>) o;
         return label == that.label &&
                 isAnchor == that.isAnchor &&
+                truncated == that.truncated &&
                 Double.compare(that.timeSpent, timeSpent) == 0 &&
                 Double.compare(that.timeSpentSampling, timeSpentSampling) == 0 &&
                 Objects.equals(instance, that.instance);
@@ -89,7 +117,7 @@ public class AnchorResult<T extends DataInstance<?>> extends AnchorCandidate {
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), instance, label, isAnchor, timeSpent, timeSpentSampling);
+        return Objects.hash(super.hashCode(), instance, label, isAnchor, timeSpent, timeSpentSampling, truncated);
     }
 
 }
@@ -0,0 +1,49 @@
+package de.viadee.xai.anchor.algorithm;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface for models predicting instances' labels asynchronously, e.g. remote model-serving clients.
+ * <p>
+ * Used by the {@link de.viadee.xai.anchor.algorithm.execution.AsynchronousSamplingService} to obtain predictions
+ * without blocking a thread per request.
+ *
+ * @param <T> type of the predicted data instance
+ */
+public interface AsyncClassificationFunction<T extends DataInstance<?>> extends ClassificationFunction<T> {
+
+    /**
+     * Labels a set of instances according to the models prediction without blocking the calling thread.
+     *
+     * @param instances the instances to predict labels for
+     * @return a future of the instances' predicted labels
+     */
+    CompletableFuture<int[]> predictAsync(T[] instances);
+
+    /**
+     * Blocks until the asynchronous prediction of the single instance has completed.
+     *
+     * @param instance the instance to predict a label for
+     * @return the instance's predicted label
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    default int predict(T instance) {
+        // The array's runtime type needs to match the implementation's concrete instance type
+        final T[] instances = (T[]) Array.newInstance(instance.getClass(), 1);
+        instances[0] = instance;
+        return predict(instances)[0];
+    }
+
+    /**
+     * Blocks until the asynchronous prediction has completed.
+     *
+     * @param instances the instances to predict labels for
+     * @return the instances' predicted labels
+     */
+    @Override
+    default int[] predict(T[] instances) {
+        return predictAsync(instances).join();
+    }
+}
@@ -0,0 +1,21 @@
+package de.viadee.xai.anchor.algorithm;
+
+/**
+ * Exception signalling that the {@link AnchorConstructionBudget} of an anchor construction has been exhausted or that
+ * the construction has been cancelled by its {@link AnchorConstructionListener}.
+ * <p>
+ * Thrown by the sampling service wrapped by the {@link AnchorConstruction} and handled by the construction itself,
+ * which then returns the best result found so far.
+ */
+public class BudgetExhaustedException extends RuntimeException {
+    private static final long serialVersionUID = 2391675803513725466L;
+
+    /**
+     * Creates the instance.
+     *
+     * @param reason the reason for stopping, e.g. the exhausted limit
+     */
+    BudgetExhaustedException(final String reason) {
+        super("Stopped anchor construction early: " + reason);
+    }
+}
@@ -0,0 +1,111 @@
+package de.viadee.xai.anchor.algorithm;
+
+import de.viadee.xai.anchor.algorithm.execution.SamplingService;
+import de.viadee.xai.anchor.algorithm.execution.SamplingSession;
+import de.viadee.xai.anchor.algorithm.execution.sampling.SamplingFunction;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorator enforcing an {@link AnchorConstructionBudget} on a {@link SamplingService}.
+ * <p>
+ * Created for each anchor construction. Before a session is run, the budget is checked and a
+ * {@link BudgetExhaustedException} thrown if it has been exhausted or the construction has been cancelled by its
+ * {@link AnchorConstructionListener}. Each candidate evaluation of a session is counted as one model call.
+ */
+class BudgetedSamplingService implements SamplingService {
+    private static final long serialVersionUID = -5911962390137398514L;
+
+    private final SamplingService samplingService;
+    private final AnchorConstructionBudget budget;
+    private final AnchorConstructionListener listener;
+    private final long startTime;
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong modelCalls = new AtomicLong();
+
+    /**
+     * Creates the instance, starting the budget's duration
+     *
+     * @param samplingService the service to decorate
+     * @param budget          the budget to enforce. May be null if unlimited
+     * @param listener        the listener to poll for cancellation. May be null
+     */
+    BudgetedSamplingService(final SamplingService samplingService, final AnchorConstructionBudget budget,
+                            final AnchorConstructionListener listener) {
+        this.samplingService = samplingService;
+        this.budget = budget;
+        this.listener = listener;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @throws BudgetExhaustedException if the budget has been exhausted or the construction has been cancelled
+     */
+    void checkBudget() {
+        if (listener != null && listener.isCancelled())
+            throw new BudgetExhaustedException("cancelled by listener");
+        if (budget == null)
+            return;
+        final String exhaustedLimit = budget.getExhaustedLimit(samples.get(), modelCalls.get(), startTime);
+        if (exhaustedLimit != null)
+            throw new BudgetExhaustedException("exhausted " + exhaustedLimit);
+    }
+
+    @Override
+    public SamplingSession createSession(final int explainedInstanceLabel) {
+        final SamplingSession session = samplingService.createSession(explainedInstanceLabel);
+        return new SamplingSession() {
+            private static final long serialVersionUID = 4606389604519101569L;
+
+            private long registeredSamples;
+            private long registeredEvaluations;
+
+            @Override
+            public SamplingSession registerCandidateEvaluation(final AnchorCandidate candidate, final int count) {
+                session.registerCandidateEvaluation(candidate, count);
+                registeredSamples += count;
+                registeredEvaluations++;
+                return this;
+            }
+
+            @Override
+            public void run() {
+                consumeBudget();
+                session.run();
+            }
+
+            @Override
+            public CompletableFuture<Void> runAsync() {
+                consumeBudget();
+                return session.runAsync();
+            }
+
+            private void consumeBudget() {
+                checkBudget();
+                samples.addAndGet(registeredSamples);
+                modelCalls.addAndGet(registeredEvaluations);
+            }
+        };
+    }
+
+    @Override
+    public SamplingService notifySamplingFunctionChange(final SamplingFunction samplingFunction) {
+        return samplingService.notifySamplingFunctionChange(samplingFunction);
+    }
+
+    @Override
+    public double getTimeSpentSampling() {
+        return samplingService.getTimeSpentSampling();
+    }
+
+    @Override
+    public int getSamplesTakenCount() {
+        return samplingService.getSamplesTakenCount();
+    }
+
+    @Override
+    public int getParallelism() {
+        return samplingService.getParallelism();
+    }
+}
@@ -0,0 +1,130 @@
+package de.viadee.xai.anchor.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Columnar, primitive representation of a perturbation run's result for numerical data.
+ * <p>
+ * In contrast to the {@link PerturbationFunction.PerturbationResult}, perturbations are not represented by one object
+ * each. Instead, every feature is stored as a column of values and a packed bitset marking the rows in which it has
+ * been changed.
+ * <p>
+ * Instances are intended to be reused as buffers: {@link #reset(int, int)} only allocates when the capacity does not
+ * suffice. Hence, they are not thread-safe.
+ *
+ * @see NumericPerturbationFunction
+ * @see NumericClassificationFunction
+ */
+public final class ColumnarPerturbationResult {
+    private double[][] values = new double[0][0];
+    private long[][] changed = new long[0][0];
+    private int featureCount;
+    private int rowCount;
+
+    /**
+     * Prepares the buffer for a new perturbation run.
+     * <p>
+     * All changed-markers get cleared, while values are left as they are and need to be overwritten.
+     *
+     * @param featureCount the amount of features each perturbation has
+     * @param rowCount     the amount of perturbations
+     */
+    public void reset(final int featureCount, final int rowCount) {
+        if (featureCount < 0 || rowCount < 0)
+            throw new IllegalArgumentException("Feature and row count must not be negative");
+        final int wordCount = wordIndex(rowCount + 63);
+        if (values.length < featureCount || (featureCount > 0 && values[0].length < rowCount)) {
+            final int rowCapacity = Math.max(rowCount, (values.length == 0) ? 0 : values[0].length);
+            values = new double[Math.max(featureCount, values.length)][rowCapacity];
+            changed = new long[values.length][wordIndex(rowCapacity + 63)];
+        } else {
+            for (int feature = 0; feature < featureCount; feature++)
+                Arrays.fill(changed[feature], 0, wordCount, 0L);
+        }
+        this.featureCount = featureCount;
+        this.rowCount = rowCount;
+    }
+
+    private static int wordIndex(final int row) {
+        return row >>> 6;
+    }
+
+    /**
+     * @return the amount of features each perturbation has
+     */
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    /**
+     * @return the amount of perturbations
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @param feature the feature
+     * @param row     the perturbation
+     * @return the perturbation's feature value
+     */
+    public double getValue(final int feature, final int row) {
+        return values[feature][row];
+    }
+
+    /**
+     * Sets a perturbation's feature value without marking it changed
+     *
+     * @param feature the feature
+     * @param row     the perturbation
+     * @param value   the value
+     */
+    public void setValue(final int feature, final int row, final double value) {
+        values[feature][row] = value;
+    }
+
+    /**
+     * Returns the column of a feature's values.
+     * <p>
+     * The column may be longer than {@link #getRowCount()} and is to be modified directly by perturbation functions.
+     *
+     * @param feature the feature
+     * @return the feature's values of all perturbations
+     */
+    public double[] getColumn(final int feature) {
+        return values[feature];
+    }
+
+    /**
+     * Marks a perturbation's feature as changed, i.e. different than in the original instance
+     *
+     * @param feature the feature
+     * @param row     the perturbation
+     */
+    public void markChanged(final int feature, final int row) {
+        changed[feature][wordIndex(row)] |= 1L << row;
+    }
+
+    /**
+     * @param feature the feature
+     * @param row     the perturbation
+     * @return true, if the perturbation's feature is different than in the original instance
+     */
+    public boolean isChanged(final int feature, final int row) {
+        return (changed[feature][wordIndex(row)] & (1L << row)) != 0;
+    }
+
+    /**
+     * Converts the changed-markers to the row-major format of
+     * {@link PerturbationFunction.PerturbationResult#getFeatureChanged()}.
+     *
+     * @return an array mapping each perturbation and its features to whether they have been changed
+     */
+    public boolean[][] toFeatureChanged() {
+        final boolean[][] result = new boolean[rowCount][featureCount];
+        for (int feature = 0; feature < featureCount; feature++)
+            for (int row = 0; row < rowCount; row++)
+                result[row][feature] = isChanged(feature, row);
+        return result;
+    }
+}
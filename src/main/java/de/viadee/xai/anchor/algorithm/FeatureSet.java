@@ -0,0 +1,294 @@
+package de.viadee.xai.anchor.algorithm;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+/**
+ * Immutable, primitive representation of the features an {@link AnchorCandidate} comprises.
+ * <p>
+ * Features are stored in the order they were added as well as in a bitset, enabling constant-time lookups, cheap
+ * hashing and cheap extension without boxing.
+ * <p>
+ * Two instances are equal if they contain the same features, regardless of their order.
+ */
+public final class FeatureSet implements Serializable {
+    private static final long serialVersionUID = -4315622412478453150L;
+
+    private static final long[] NO_WORDS = new long[0];
+
+    private final int[] orderedFeatures;
+    private final int[] sortedFeatures;
+    /*
+     * Bitset of the non-negative features. Negative features are only contained in the sorted array
+     */
+    private final long[] words;
+    private final int hashCode;
+
+    private FeatureSet(final int[] orderedFeatures, final int[] sortedFeatures, final long[] words) {
+        this.orderedFeatures = orderedFeatures;
+        this.sortedFeatures = sortedFeatures;
+        this.words = words;
+        this.hashCode = Arrays.hashCode(sortedFeatures);
+    }
+
+    /**
+     * Creates a set of the specified features.
+     * <p>
+     * Duplicate features are ignored, only their first occurrence determines the order.
+     *
+     * @param features the features in the order they were added
+     * @return the created set
+     */
+    public static FeatureSet of(final int... features) {
+        final int[] ordered = Arrays.stream(features).distinct().toArray();
+        final int[] sorted = ordered.clone();
+        Arrays.sort(sorted);
+        final int maxFeature = (sorted.length == 0) ? -1 : sorted[sorted.length - 1];
+        final long[] words = (maxFeature < 0) ? NO_WORDS : new long[wordIndex(maxFeature) + 1];
+        for (final int feature : sorted) {
+            if (feature >= 0)
+                words[wordIndex(feature)] |= 1L << feature;
+        }
+        return new FeatureSet(ordered, sorted, words);
+    }
+
+    /**
+     * Creates a set of the specified features.
+     *
+     * @param features the features in the order they were added
+     * @return the created set
+     */
+    public static FeatureSet of(final Collection<Integer> features) {
+        return of(features.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static int wordIndex(final int feature) {
+        return feature >>> 6;
+    }
+
+    /**
+     * Creates a new set comprising all of this set's features and the added feature.
+     *
+     * @param feature the feature to add. Must not already be contained
+     * @return the extended set
+     */
+    public FeatureSet extend(final int feature) {
+        if (contains(feature))
+            throw new IllegalArgumentException("Feature " + feature + " is already contained");
+
+        final int[] ordered = Arrays.copyOf(orderedFeatures, orderedFeatures.length + 1);
+        ordered[orderedFeatures.length] = feature;
+
+        final int[] sorted = new int[sortedFeatures.length + 1];
+        final int insertionPoint = -Arrays.binarySearch(sortedFeatures, feature) - 1;
+        System.arraycopy(sortedFeatures, 0, sorted, 0, insertionPoint);
+        sorted[insertionPoint] = feature;
+        System.arraycopy(sortedFeatures, insertionPoint, sorted, insertionPoint + 1,
+                sortedFeatures.length - insertionPoint);
+
+        long[] extendedWords = words;
+        if (feature >= 0) {
+            extendedWords = Arrays.copyOf(words, Math.max(words.length, wordIndex(feature) + 1));
+            extendedWords[wordIndex(feature)] |= 1L << feature;
+        }
+        return new FeatureSet(ordered, sorted, extendedWords);
+    }
+
+    /**
+     * @param feature the feature to look up
+     * @return true, if the feature is contained
+     */
+    public boolean contains(final int feature) {
+        if (feature < 0)
+            return Arrays.binarySearch(sortedFeatures, feature) >= 0;
+        final int wordIndex = wordIndex(feature);
+        return wordIndex < words.length && (words[wordIndex] & (1L << feature)) != 0;
+    }
+
+    /**
+     * @return the amount of contained features
+     */
+    public int size() {
+        return orderedFeatures.length;
+    }
+
+    /**
+     * @param index the position in insertion order
+     * @return the feature added at the specified position
+     */
+    public int get(final int index) {
+        return orderedFeatures[index];
+    }
+
+    /**
+     * @return the last added feature
+     */
+    public int getLast() {
+        return orderedFeatures[orderedFeatures.length - 1];
+    }
+
+    /**
+     * @return the internal, non-copied array of features in the order they were added. Must not be modified
+     */
+    int[] orderedFeatures() {
+        return orderedFeatures;
+    }
+
+    /**
+     * @return a copy of the features in the order they were added
+     */
+    public int[] toOrderedArray() {
+        return orderedFeatures.clone();
+    }
+
+    /**
+     * @return a copy of the features in ascending order
+     */
+    public int[] toSortedArray() {
+        return sortedFeatures.clone();
+    }
+
+    /**
+     * @return an unmodifiable list view of the features in the order they were added
+     */
+    public List<Integer> asOrderedList() {
+        return new OrderedListView();
+    }
+
+    /**
+     * @return an unmodifiable sorted set view of the features
+     */
+    public SortedSet<Integer> asSortedSet() {
+        return new SortedSetView(0, sortedFeatures.length);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FeatureSet that = (FeatureSet) o;
+        return hashCode == that.hashCode && Arrays.equals(sortedFeatures, that.sortedFeatures);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(sortedFeatures);
+    }
+
+    private final class OrderedListView extends AbstractList<Integer> implements Serializable {
+        private static final long serialVersionUID = 4270345094218519537L;
+
+        @Override
+        public Integer get(final int index) {
+            return orderedFeatures[index];
+        }
+
+        @Override
+        public int size() {
+            return orderedFeatures.length;
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return o instanceof Integer && FeatureSet.this.contains((Integer) o);
+        }
+    }
+
+    private final class SortedSetView extends AbstractSet<Integer> implements SortedSet<Integer>, Serializable {
+        private static final long serialVersionUID = -1771035924839617707L;
+
+        private final int fromIndex;
+        private final int toIndex;
+
+        private SortedSetView(final int fromIndex, final int toIndex) {
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new Iterator<Integer>() {
+                private int index = fromIndex;
+
+                @Override
+                public boolean hasNext() {
+                    return index < toIndex;
+                }
+
+                @Override
+                public Integer next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    return sortedFeatures[index++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return toIndex - fromIndex;
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            if (!(o instanceof Integer))
+                return false;
+            final int feature = (Integer) o;
+            return FeatureSet.this.contains(feature) && indexOf(feature) >= fromIndex && indexOf(feature) < toIndex;
+        }
+
+        private int indexOf(final int feature) {
+            final int index = Arrays.binarySearch(sortedFeatures, feature);
+            return (index >= 0) ? index : -index - 1;
+        }
+
+        @Override
+        public Comparator<? super Integer> comparator() {
+            return null;
+        }
+
+        @Override
+        public SortedSet<Integer> subSet(final Integer fromElement, final Integer toElement) {
+            if (fromElement > toElement)
+                throw new IllegalArgumentException("fromElement > toElement");
+            return headSet(toElement).tailSet(fromElement);
+        }
+
+        @Override
+        public SortedSet<Integer> headSet(final Integer toElement) {
+            return new SortedSetView(fromIndex, Math.max(fromIndex, Math.min(toIndex, indexOf(toElement))));
+        }
+
+        @Override
+        public SortedSet<Integer> tailSet(final Integer fromElement) {
+            return new SortedSetView(Math.min(toIndex, Math.max(fromIndex, indexOf(fromElement))), toIndex);
+        }
+
+        @Override
+        public Integer first() {
+            if (isEmpty())
+                throw new NoSuchElementException();
+            return sortedFeatures[fromIndex];
+        }
+
+        @Override
+        public Integer last() {
+            if (isEmpty())
+                throw new NoSuchElementException();
+            return sortedFeatures[toIndex - 1];
+        }
+    }
+}
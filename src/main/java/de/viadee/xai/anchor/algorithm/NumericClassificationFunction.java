@@ -0,0 +1,20 @@
+package de.viadee.xai.anchor.algorithm;
+
+/**
+ * {@link ClassificationFunction} for numerical data additionally able to predict the perturbations of a
+ * {@link ColumnarPerturbationResult} directly.
+ *
+ * @param <T> type of the predicted data instance
+ * @see NumericPerturbationFunction
+ */
+public interface NumericClassificationFunction<T extends DataInstance<?>> extends ClassificationFunction<T> {
+
+    /**
+     * Labels all perturbations of the result according to the models prediction.
+     *
+     * @param perturbations the perturbations to predict labels for
+     * @param predictions   the buffer to write the predicted labels to. Its length is at least the amount of
+     *                      perturbations
+     */
+    void predict(ColumnarPerturbationResult perturbations, int[] predictions);
+}
@@ -0,0 +1,25 @@
+package de.viadee.xai.anchor.algorithm;
+
+/**
+ * {@link PerturbationFunction} for numerical data additionally able to write its perturbations into a reusable
+ * {@link ColumnarPerturbationResult}.
+ * <p>
+ * Together with a {@link NumericClassificationFunction}, this lets the
+ * {@link de.viadee.xai.anchor.algorithm.execution.sampling.DefaultSamplingFunction} evaluate candidates without
+ * allocating an object per perturbation.
+ *
+ * @param <T> the type of instance that gets perturbed.
+ */
+public interface NumericPerturbationFunction<T extends DataInstance<?>> extends PerturbationFunction<T> {
+
+    /**
+     * Perturbs an instance and writes the perturbations into the buffer.
+     * <p>
+     * Implementations have to call {@link ColumnarPerturbationResult#reset(int, int)} before writing their values.
+     *
+     * @param immutableFeatures the features not to be perturbed as they are specified by an {@link AnchorCandidate}
+     * @param nrPerturbations   the number of perturbations to create
+     * @param result            the buffer to write the perturbations to
+     */
+    void perturb(FeatureSet immutableFeatures, int nrPerturbations, ColumnarPerturbationResult result);
+}
@@ -29,4 +29,17 @@ public interface CoverageIdentification extends Serializable {
      * @return the calculated coverage
      */
     double calculateCoverage(final Set<Integer> featureSet);
+
+    /**
+     * Calculates a candidate's coverage.
+     * <p>
+     * Implementations may overwrite this method to make use of the candidate's parent, e.g. by deriving its coverage
+     * incrementally. By default, the coverage of its canonical features is calculated.
+     *
+     * @param candidate the {@link AnchorCandidate} whose coverage to calculate
+     * @return the calculated coverage
+     */
+    default double calculateCoverage(final AnchorCandidate candidate) {
+        return calculateCoverage(candidate.getCanonicalFeatures());
+    }
 }
@@ -1,8 +1,15 @@
 package de.viadee.xai.anchor.algorithm.coverage;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.FeatureSet;
 import de.viadee.xai.anchor.algorithm.PerturbationFunction;
 import de.viadee.xai.anchor.algorithm.util.ParameterValidation;
 
@@ -11,11 +18,25 @@ import de.viadee.xai.anchor.algorithm.util.ParameterValidation;
  * <p>
  * Ribeiro (2018) initially proposed to define an Anchor's coverage as cov(A) = E_{D(z)}[A(z)].
  * According to this definition, the coverage directly depends on the perturbation space, as realized by this class.
+ * <p>
+ * The coverage data gets indexed column-wise, i.e. for each feature a bitset marks the rows it is unchanged in.
+ * Additionally, the covered rows of evaluated candidates are cached. Thus, a candidate's coverage is derived from its
+ * parent's covered rows by a single AND and popcount. Once the cache is full, the least recently used entries are
+ * evicted, so that the current beam's candidates, being the parents of the next round, are retained.
  */
 public class PerturbationBasedCoverageIdentification implements CoverageIdentification {
     private static final long serialVersionUID = 5343179535650095069L;
 
+    private static final int DEFAULT_MAX_CACHED_CANDIDATES = 4096;
+
     private final boolean[][] coverageData;
+    private final int maxCachedCandidates;
+
+    /*
+     * Derived from the coverage data and thus not serialized
+     */
+    private transient long[][] unchangedRows;
+    private transient Map<FeatureSet, long[]> coveredRowsCache;
 
     /**
      * Instantiates a {@link PerturbationBasedCoverageIdentification}.
@@ -26,9 +47,25 @@ public class PerturbationBasedCoverageIdentification implements CoverageIdentifi
      *                     we just have measure the fraction of instances the rule would apply to.
      */
     public PerturbationBasedCoverageIdentification(final boolean[][] coverageData) {
+        this(coverageData, DEFAULT_MAX_CACHED_CANDIDATES);
+    }
+
+    /**
+     * Instantiates a {@link PerturbationBasedCoverageIdentification}.
+     *
+     * @param coverageData        see {@link #PerturbationBasedCoverageIdentification(boolean[][])}
+     * @param maxCachedCandidates the maximum amount of candidates whose covered rows are cached in order to
+     *                            incrementally calculate their children's coverage. Each entry requires
+     *                            coverageData.length / 8 bytes
+     */
+    public PerturbationBasedCoverageIdentification(final boolean[][] coverageData, final int maxCachedCandidates) {
         if (coverageData == null)
             throw new IllegalArgumentException("Coverage data" + ParameterValidation.NULL_MESSAGE);
+        if (!ParameterValidation.isUnsigned(maxCachedCandidates))
+            throw new IllegalArgumentException("Max cached candidates" + ParameterValidation.NEGATIVE_VALUE_MESSAGE);
         this.coverageData = coverageData;
+        this.maxCachedCandidates = maxCachedCandidates;
+        initializeIndex();
     }
 
     /**
@@ -49,21 +86,90 @@ public class PerturbationBasedCoverageIdentification implements CoverageIdentifi
                 perturbationFunction.perturb(Collections.emptySet(), coverageSampleCount).getFeatureChanged());
     }
 
-    @Override
-    public double calculateCoverage(final Set<Integer> featureSet) {
-        int matchingRows = 0;
-        for (boolean[] row : coverageData) {
-            boolean matches = true;
-            for (final Integer feature : featureSet) {
-                if (row[feature]) {
-                    matches = false;
-                    break;
-                }
+    private static int popCount(final long[] bitset) {
+        int count = 0;
+        for (final long word : bitset)
+            count += Long.bitCount(word);
+        return count;
+    }
+
+    private void initializeIndex() {
+        final int featureCount = (coverageData.length == 0) ? 0 : coverageData[0].length;
+        final int wordCount = (coverageData.length + 63) >>> 6;
+        unchangedRows = new long[featureCount][wordCount];
+        for (int row = 0; row < coverageData.length; row++) {
+            for (int feature = 0; feature < featureCount; feature++) {
+                if (!coverageData[row][feature])
+                    unchangedRows[feature][row >>> 6] |= 1L << row;
             }
-            if (matches)
-                matchingRows++;
         }
+        // Access ordered, i.e. LRU. Synchronized, as candidates may be evaluated in parallel
+        coveredRowsCache = Collections.synchronizedMap(new LinkedHashMap<FeatureSet, long[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = -1954286370546049418L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<FeatureSet, long[]> eldest) {
+                return size() > maxCachedCandidates;
+            }
+        });
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initializeIndex();
+    }
+
+    @Override
+    public double calculateCoverage(final Set<Integer> featureSet) {
+        final Iterator<Integer> iterator = featureSet.iterator();
+        // Without any coverage data, the result is undefined (NaN)
+        if (!iterator.hasNext() || coverageData.length == 0)
+            return coverageData.length / (double) coverageData.length;
+
+        final long[] coveredRows = unchangedRows[iterator.next()].clone();
+        while (iterator.hasNext())
+            and(coveredRows, unchangedRows[iterator.next()]);
+        return popCount(coveredRows) / (double) coverageData.length;
+    }
+
+    @Override
+    public double calculateCoverage(final AnchorCandidate candidate) {
+        if (coverageData.length == 0)
+            return Double.NaN;
+        if (!candidate.hasParentCandidate())
+            return popCount(unchangedRows[candidate.getAddedFeature()]) / (double) coverageData.length;
+        return popCount(coveredRows(candidate)) / (double) coverageData.length;
+    }
+
+    /**
+     * Retrieves the candidate's covered rows from the cache or derives them from its parent's covered rows.
+     */
+    private long[] coveredRows(final AnchorCandidate candidate) {
+        if (!candidate.hasParentCandidate())
+            return unchangedRows[candidate.getAddedFeature()];
+
+        final FeatureSet features = candidate.getFeatureSet();
+        long[] coveredRows = coveredRowsCache.get(features);
+        if (coveredRows != null)
+            return coveredRows;
+
+        coveredRows = coveredRows(candidate.getParentCandidate()).clone();
+        and(coveredRows, unchangedRows[candidate.getAddedFeature()]);
+        if (maxCachedCandidates > 0)
+            coveredRowsCache.put(features, coveredRows);
+        return coveredRows;
+    }
+
+    /**
+     * @param candidate the candidate
+     * @return true, if the candidate's covered rows are currently cached
+     */
+    boolean isCached(final AnchorCandidate candidate) {
+        return coveredRowsCache.containsKey(candidate.getFeatureSet());
+    }
 
-        return matchingRows / (double) coverageData.length;
+    private static void and(final long[] target, final long[] other) {
+        for (int i = 0; i < target.length; i++)
+            target[i] &= other[i];
     }
 }
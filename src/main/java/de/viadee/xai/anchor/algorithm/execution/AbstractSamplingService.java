@@ -7,11 +7,13 @@ import de.viadee.xai.anchor.algorithm.DataInstance;
 import de.viadee.xai.anchor.algorithm.PerturbationFunction;
 import de.viadee.xai.anchor.algorithm.execution.sampling.DefaultSamplingFunction;
 import de.viadee.xai.anchor.algorithm.execution.sampling.SamplingFunction;
+import de.viadee.xai.anchor.algorithm.util.FutureUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Abstract service supervising the evaluation of candidates by sampling.
@@ -57,6 +59,13 @@ public abstract class AbstractSamplingService<T extends DataInstance<?>> impleme
         this.samplingFunction = samplingFunction;
     }
 
+    /**
+     * @return the sampling function used to evaluate candidates
+     */
+    protected SamplingFunction getSamplingFunction() {
+        return samplingFunction;
+    }
+
     @Override
     public double getTimeSpentSampling() {
         return timeSpentSampling;
@@ -67,6 +76,21 @@ public abstract class AbstractSamplingService<T extends DataInstance<?>> impleme
         return samplesTakenCount;
     }
 
+    /**
+     * Records a finished session's statistics.
+     * <p>
+     * Synchronized, as asynchronous sessions may complete concurrently.
+     *
+     * @param time           the time spent executing the session in milliseconds
+     * @param samplesTaken   the amount of samples taken by the session
+     * @param candidateCount the amount of candidates evaluated by the session
+     */
+    private synchronized void recordExecution(final double time, final int samplesTaken, final int candidateCount) {
+        timeSpentSampling += time;
+        samplesTakenCount += samplesTaken;
+        LOGGER.debug("Evaluated a total of {} samples for {} candidates in {}ms", samplesTaken, candidateCount, time);
+    }
+
     /**
      * Session object
      */
@@ -86,6 +110,13 @@ public abstract class AbstractSamplingService<T extends DataInstance<?>> impleme
             this.explainedInstanceLabel = explainedInstanceLabel;
         }
 
+        /**
+         * @return the instance label being explained
+         */
+        protected int getExplainedInstanceLabel() {
+            return explainedInstanceLabel;
+        }
+
         @Override
         public AbstractSamplingSession registerCandidateEvaluation(final AnchorCandidate candidate, int count) {
             if (samplingCountMap.containsKey(candidate))
@@ -98,14 +129,20 @@ public abstract class AbstractSamplingService<T extends DataInstance<?>> impleme
 
         @Override
         public void run() {
-            double time = System.currentTimeMillis();
+            final double startTime = System.currentTimeMillis();
             execute();
-            time = System.currentTimeMillis() - time;
-            timeSpentSampling += time;
-            final int previouslyTakenCount = samplesTakenCount;
-            samplesTakenCount += samplingCountMap.values().stream().mapToInt(i -> i).sum();
-            LOGGER.debug("Evaluated a total of {} samples for {} candidates in {}ms",
-                    samplesTakenCount - previouslyTakenCount, samplingCountMap.entrySet().size(), time);
+            recordExecution(startTime);
+        }
+
+        @Override
+        public CompletableFuture<Void> runAsync() {
+            final double startTime = System.currentTimeMillis();
+            return executeAsync().whenComplete((result, throwable) -> recordExecution(startTime));
+        }
+
+        private void recordExecution(final double startTime) {
+            AbstractSamplingService.this.recordExecution(System.currentTimeMillis() - startTime,
+                    samplingCountMap.values().stream().mapToInt(i -> i).sum(), samplingCountMap.size());
         }
 
         /**
@@ -119,9 +156,37 @@ public abstract class AbstractSamplingService<T extends DataInstance<?>> impleme
             return samplingFunction.evaluate(candidate, samplesToEvaluate, explainedInstanceLabel);
         }
 
+        /**
+         * Asynchronous version of {@link #doSample(AnchorCandidate, int)}.
+         *
+         * @param candidate         the {@link AnchorCandidate} to evaluate
+         * @param samplesToEvaluate the number of samples to take
+         * @return a future of the precision computed in this sampling run
+         */
+        @SuppressWarnings("unchecked")
+        protected CompletableFuture<Double> doSampleAsync(final AnchorCandidate candidate,
+                                                          final int samplesToEvaluate) {
+            return samplingFunction.evaluateAsync(candidate, samplesToEvaluate, explainedInstanceLabel);
+        }
+
         /**
          * Executes the session internally
          */
         protected abstract void execute();
+
+        /**
+         * Executes the session internally without blocking.
+         * <p>
+         * By default, the session gets executed synchronously. Implementations supporting asynchrony should
+         * overwrite this method.
+         *
+         * @return a future that completes once the session has been executed
+         */
+        protected CompletableFuture<Void> executeAsync() {
+            return FutureUtils.completeSynchronously(() -> {
+                execute();
+                return null;
+            });
+        }
     }
 }
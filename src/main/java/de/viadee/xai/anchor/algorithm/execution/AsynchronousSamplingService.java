@@ -0,0 +1,82 @@
+package de.viadee.xai.anchor.algorithm.execution;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.AsyncClassificationFunction;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.PerturbationFunction;
+import de.viadee.xai.anchor.algorithm.execution.sampling.SamplingFunction;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Implementation of the {@link AbstractSamplingService} obtaining all candidates' samples concurrently without
+ * blocking.
+ * <p>
+ * Each candidate's perturbations are created on the calling thread, while their predictions are requested via
+ * {@link SamplingFunction#evaluateAsync(AnchorCandidate, int, int)}. Hence, when used with an
+ * {@link AsyncClassificationFunction}, no thread is pinned while waiting for the model and
+ * {@link SamplingSession#runAsync()} returns as soon as all requests have been issued.
+ *
+ * @param <T> Type of the sampled instance
+ */
+public class AsynchronousSamplingService<T extends DataInstance<?>> extends AbstractSamplingService<T> {
+    private static final long serialVersionUID = 2434373893094513427L;
+
+    /**
+     * Creates the sampling service.
+     *
+     * @param classificationFunction Function used to asynchronously classify any instance of type
+     * @param perturbationFunction   Function used to create perturbations of the explained instance
+     */
+    public AsynchronousSamplingService(AsyncClassificationFunction<T> classificationFunction,
+                                       PerturbationFunction<T> perturbationFunction) {
+        super(classificationFunction, perturbationFunction);
+    }
+
+    /**
+     * Creates the sampling service.
+     *
+     * @param samplingFunction the sampling function to be used
+     */
+    public AsynchronousSamplingService(SamplingFunction samplingFunction) {
+        super(samplingFunction);
+    }
+
+    @Override
+    public SamplingSession createSession(int explainedInstanceLabel) {
+        return new AsynchronousSession(explainedInstanceLabel);
+    }
+
+    @Override
+    public SamplingService notifySamplingFunctionChange(SamplingFunction samplingFunction) {
+        return new AsynchronousSamplingService<>(samplingFunction);
+    }
+
+    private class AsynchronousSession extends AbstractSamplingSession {
+        private static final long serialVersionUID = -1862906526658938183L;
+
+        /**
+         * Creates an instance.
+         *
+         * @param explainedInstanceLabel the explained instance label
+         */
+        private AsynchronousSession(int explainedInstanceLabel) {
+            super(explainedInstanceLabel);
+        }
+
+        @Override
+        public void execute() {
+            executeAsync().join();
+        }
+
+        @Override
+        protected CompletableFuture<Void> executeAsync() {
+            final CompletableFuture<?>[] futures = new CompletableFuture[samplingCountMap.size()];
+            int i = 0;
+            for (Map.Entry<AnchorCandidate, Integer> entry : samplingCountMap.entrySet())
+                futures[i++] = doSampleAsync(entry.getKey(), entry.getValue());
+            return CompletableFuture.allOf(futures);
+        }
+    }
+}
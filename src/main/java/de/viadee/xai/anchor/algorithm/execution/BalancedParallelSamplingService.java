@@ -119,6 +119,11 @@ public class BalancedParallelSamplingService<T extends DataInstance<?>> extends
         return new BalancedParallelSession(explainedInstanceLabel);
     }
 
+    @Override
+    public int getParallelism() {
+        return threadCount;
+    }
+
     protected int getThreadCount() {
         return threadCount;
     }
@@ -0,0 +1,159 @@
+package de.viadee.xai.anchor.algorithm.execution;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.PerturbationFunction;
+import de.viadee.xai.anchor.algorithm.execution.sampling.SamplingFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementation of the {@link AbstractSamplingService} that batches model calls across candidates.
+ * <p>
+ * The perturbations of all candidates registered in a session are collected and classified by a few large calls to
+ * {@link ClassificationFunction#predict(DataInstance[])}. Afterwards, the predictions are assigned back to their
+ * candidates. This is beneficial for models having a high fixed cost per call, e.g. vectorized models.
+ * <p>
+ * Requires a {@link SamplingFunction} supporting batching, see
+ * {@link SamplingFunction#getBatchingPerturbationFunction()}. Otherwise, each candidate gets evaluated separately.
+ *
+ * @param <T> Type of the sampled instance
+ */
+public class BatchingSamplingService<T extends DataInstance<?>> extends AbstractSamplingService<T> {
+    private static final long serialVersionUID = -5306443581306651012L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchingSamplingService.class);
+
+    private final int maxBatchSize;
+
+    /**
+     * Creates the sampling service.
+     * <p>
+     * Requires both a perturbation and classification function to evaluate candidates
+     *
+     * @param classificationFunction Function used to classify any instance of type
+     * @param perturbationFunction   Function used to create perturbations of the explained instance
+     * @param maxBatchSize           the maximum amount of instances passed to a single prediction call
+     */
+    public BatchingSamplingService(ClassificationFunction<T> classificationFunction,
+                                   PerturbationFunction<T> perturbationFunction,
+                                   int maxBatchSize) {
+        super(classificationFunction, perturbationFunction);
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("Max batch size must be positive");
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Creates the sampling service.
+     *
+     * @param samplingFunction the sampling function to be used
+     * @param maxBatchSize     the maximum amount of instances passed to a single prediction call
+     */
+    public BatchingSamplingService(SamplingFunction samplingFunction, int maxBatchSize) {
+        super(samplingFunction);
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("Max batch size must be positive");
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public SamplingSession createSession(int explainedInstanceLabel) {
+        return new BatchingSession(explainedInstanceLabel);
+    }
+
+    @Override
+    public SamplingService notifySamplingFunctionChange(SamplingFunction samplingFunction) {
+        return new BatchingSamplingService<>(samplingFunction, maxBatchSize);
+    }
+
+    /**
+     * @return the maximum amount of instances passed to a single prediction call
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    private class BatchingSession extends AbstractSamplingSession {
+        private static final long serialVersionUID = 6062208167463104353L;
+
+        /**
+         * Creates an instance.
+         *
+         * @param explainedInstanceLabel the explained instance label
+         */
+        private BatchingSession(int explainedInstanceLabel) {
+            super(explainedInstanceLabel);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void execute() {
+            final SamplingFunction<T> samplingFunction = getSamplingFunction();
+            final Optional<PerturbationFunction<T>> batchingPerturbationFunction =
+                    samplingFunction.getBatchingPerturbationFunction();
+            if (!batchingPerturbationFunction.isPresent()) {
+                LOGGER.debug("Sampling function does not support batching. Evaluating candidates separately");
+                for (Map.Entry<AnchorCandidate, Integer> entry : samplingCountMap.entrySet())
+                    doSample(entry.getKey(), entry.getValue());
+                return;
+            }
+            final PerturbationFunction<T> perturbationFunction = batchingPerturbationFunction.get();
+
+            // Gather all perturbations
+            final List<AnchorCandidate> candidates = new ArrayList<>(samplingCountMap.size());
+            final List<T[]> perturbations = new ArrayList<>(samplingCountMap.size());
+            int totalCount = 0;
+            for (Map.Entry<AnchorCandidate, Integer> entry : samplingCountMap.entrySet()) {
+                if (entry.getValue() < 1)
+                    continue;
+                final T[] rawResult = perturbationFunction.perturb(entry.getKey().getCanonicalFeatures(),
+                        entry.getValue()).getRawResult();
+                candidates.add(entry.getKey());
+                perturbations.add(rawResult);
+                totalCount += rawResult.length;
+            }
+            if (totalCount == 0)
+                return;
+
+            final T[] instances = Arrays.copyOf(perturbations.get(0), totalCount);
+            int offset = 0;
+            for (final T[] rawResult : perturbations) {
+                System.arraycopy(rawResult, 0, instances, offset, rawResult.length);
+                offset += rawResult.length;
+            }
+
+            // Classify in batches
+            final ClassificationFunction<T> classificationFunction = samplingFunction.getClassificationFunction();
+            final int[] predictions = new int[totalCount];
+            for (int from = 0; from < totalCount; from += maxBatchSize) {
+                final int to = Math.min(totalCount, from + maxBatchSize);
+                final T[] batch = (from == 0 && to == totalCount) ? instances
+                        : Arrays.copyOfRange(instances, from, to);
+                System.arraycopy(classificationFunction.predict(batch), 0, predictions, from, to - from);
+            }
+            LOGGER.trace("Classified {} perturbations of {} candidates in {} batches", totalCount, candidates.size(),
+                    (totalCount + maxBatchSize - 1) / maxBatchSize);
+
+            // Scatter predictions back to their candidates
+            offset = 0;
+            for (int i = 0; i < candidates.size(); i++) {
+                final int count = perturbations.get(i).length;
+                int matchingLabels = 0;
+                for (int j = offset; j < offset + count; j++) {
+                    if (predictions[j] == getExplainedInstanceLabel())
+                        matchingLabels++;
+                }
+                candidates.get(i).registerSamples(count, matchingLabels);
+                offset += count;
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package de.viadee.xai.anchor.algorithm.execution;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.PerturbationFunction;
+import de.viadee.xai.anchor.algorithm.execution.sampling.SamplingFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Implementation of the {@link AbstractSamplingService} distributing samples by work-stealing.
+ * <p>
+ * In contrast to the {@link BalancedParallelSamplingService}, the work is not split statically among threads in
+ * advance. Instead, the registered (candidate, count) pairs are recursively split into tasks of a
+ * {@link ForkJoinPool}, so that idle workers steal remaining work. This pays off when prediction latencies vary
+ * between instances.
+ * <p>
+ * Unless a pool is passed, a dedicated pool is created, so that predictions do not compete with other users of the
+ * common pool, e.g. parallel streams. It gets shut down by {@link #close()}.
+ *
+ * @param <T> Type of the sampled instance
+ */
+public class ForkJoinSamplingService<T extends DataInstance<?>> extends AbstractSamplingService<T>
+        implements Closeable {
+    private static final long serialVersionUID = 7795385406442370478L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ForkJoinSamplingService.class);
+
+    private final int minChunkSize;
+
+    /*
+     * Pools are not serializable. After deserialization, a dedicated pool is created
+     */
+    private transient ForkJoinPool forkJoinPool;
+
+    private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+        ois.defaultReadObject();
+        this.forkJoinPool = new ForkJoinPool();
+    }
+
+    /**
+     * Creates the sampling service.
+     * <p>
+     * Requires both a perturbation and classification function to evaluate candidates
+     *
+     * @param classificationFunction Function used to classify any instance of type
+     * @param perturbationFunction   Function used to create perturbations of the explained instance
+     * @param forkJoinPool           the pool to use. If null, a dedicated pool is created
+     * @param minChunkSize           the amount of samples below which a candidate's samples are no longer split
+     */
+    public ForkJoinSamplingService(ClassificationFunction<T> classificationFunction,
+                                   PerturbationFunction<T> perturbationFunction,
+                                   ForkJoinPool forkJoinPool, int minChunkSize) {
+        super(classificationFunction, perturbationFunction);
+        if (minChunkSize < 1)
+            throw new IllegalArgumentException("Min chunk size must be positive");
+        this.forkJoinPool = (forkJoinPool == null) ? new ForkJoinPool() : forkJoinPool;
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Creates the sampling service.
+     *
+     * @param samplingFunction the sampling function to be used
+     * @param forkJoinPool     the pool to use. If null, a dedicated pool is created
+     * @param minChunkSize     the amount of samples below which a candidate's samples are no longer split
+     */
+    public ForkJoinSamplingService(SamplingFunction samplingFunction, ForkJoinPool forkJoinPool, int minChunkSize) {
+        super(samplingFunction);
+        if (minChunkSize < 1)
+            throw new IllegalArgumentException("Min chunk size must be positive");
+        this.forkJoinPool = (forkJoinPool == null) ? new ForkJoinPool() : forkJoinPool;
+        this.minChunkSize = minChunkSize;
+    }
+
+    @Override
+    public SamplingSession createSession(int explainedInstanceLabel) {
+        return new ForkJoinSession(explainedInstanceLabel);
+    }
+
+    @Override
+    public SamplingService notifySamplingFunctionChange(SamplingFunction samplingFunction) {
+        return new ForkJoinSamplingService<>(samplingFunction, this.forkJoinPool, this.minChunkSize);
+    }
+
+    /**
+     * Shuts down the used pool, unless it is the common pool.
+     * <p>
+     * The service can no longer be used after this method has been called.
+     */
+    @Override
+    public void close() {
+        if (this.forkJoinPool != ForkJoinPool.commonPool()) {
+            LOGGER.debug("closing session");
+            this.forkJoinPool.shutdown();
+        }
+    }
+
+    @Override
+    public int getParallelism() {
+        return forkJoinPool.getParallelism();
+    }
+
+    /**
+     * @return the amount of samples below which a candidate's samples are no longer split
+     */
+    public int getMinChunkSize() {
+        return minChunkSize;
+    }
+
+    private class ForkJoinSession extends AbstractSamplingSession {
+        private static final long serialVersionUID = -2914932187440437391L;
+
+        /**
+         * Creates an instance.
+         *
+         * @param explainedInstanceLabel the label being explained
+         */
+        private ForkJoinSession(int explainedInstanceLabel) {
+            super(explainedInstanceLabel);
+        }
+
+        private SampleTask createTask() {
+            final List<AnchorCandidate> candidates = new ArrayList<>(samplingCountMap.size());
+            final int[] counts = new int[samplingCountMap.size()];
+            for (Map.Entry<AnchorCandidate, Integer> entry : samplingCountMap.entrySet()) {
+                if (entry.getValue() < 1)
+                    continue;
+                counts[candidates.size()] = entry.getValue();
+                candidates.add(entry.getKey());
+            }
+            return new SampleTask(candidates, counts, 0, candidates.size());
+        }
+
+        @Override
+        public void execute() {
+            forkJoinPool.invoke(createTask());
+        }
+
+        @Override
+        protected CompletableFuture<Void> executeAsync() {
+            final SampleTask task = createTask();
+            return CompletableFuture.runAsync(() -> forkJoinPool.invoke(task), forkJoinPool);
+        }
+
+        /**
+         * Evaluates the candidates in [from, to). A single candidate's samples are halved until reaching the
+         * minimum chunk size
+         */
+        private class SampleTask extends RecursiveAction {
+            private static final long serialVersionUID = 3271524470963151426L;
+
+            private final List<AnchorCandidate> candidates;
+            private final int[] counts;
+            private final int from;
+            private final int to;
+            private final int count;
+
+            private SampleTask(List<AnchorCandidate> candidates, int[] counts, int from, int to) {
+                this(candidates, counts, from, to, (to - from == 1) ? counts[from] : 0);
+            }
+
+            private SampleTask(List<AnchorCandidate> candidates, int[] counts, int from, int to, int count) {
+                this.candidates = candidates;
+                this.counts = counts;
+                this.from = from;
+                this.to = to;
+                this.count = count;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from > 1) {
+                    final int middle = (from + to) >>> 1;
+                    invokeAll(new SampleTask(candidates, counts, from, middle),
+                            new SampleTask(candidates, counts, middle, to));
+                } else if (to - from == 1) {
+                    if (count >= 2 * minChunkSize) {
+                        final int half = count / 2;
+                        invokeAll(new SampleTask(candidates, counts, from, to, half),
+                                new SampleTask(candidates, counts, from, to, count - half));
+                    } else {
+                        doSample(candidates.get(from), count);
+                    }
+                }
+            }
+        }
+    }
+}
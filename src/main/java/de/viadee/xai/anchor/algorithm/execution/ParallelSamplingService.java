@@ -12,7 +12,10 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.Collection;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
 
 /**
@@ -102,6 +105,22 @@ public class ParallelSamplingService<T extends DataInstance<?>> extends Abstract
         return new ParallelSamplingService<>(samplingFunction, this.executorService, this.executorServiceSupplier);
     }
 
+    /**
+     * Derives the parallelism from the executor, if it is a thread pool. Otherwise, the available processors are
+     * assumed
+     */
+    @Override
+    public int getParallelism() {
+        if (executorService instanceof ForkJoinPool)
+            return ((ForkJoinPool) executorService).getParallelism();
+        if (executorService instanceof ThreadPoolExecutor) {
+            final int corePoolSize = ((ThreadPoolExecutor) executorService).getCorePoolSize();
+            if (corePoolSize > 0)
+                return corePoolSize;
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
     protected ExecutorService getExecutorService() {
         return executorService;
     }
@@ -141,5 +160,21 @@ public class ParallelSamplingService<T extends DataInstance<?>> extends Abstract
                 Thread.currentThread().interrupt();
             }
         }
+
+        @Override
+        protected CompletableFuture<Void> executeAsync() {
+            final CompletableFuture<?>[] futures = createCallables().stream()
+                    .map(callable -> CompletableFuture.runAsync(() -> {
+                        try {
+                            callable.call();
+                        } catch (final RuntimeException e) {
+                            throw e;
+                        } catch (final Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }, ParallelSamplingService.this.executorService))
+                    .toArray(CompletableFuture[]::new);
+            return CompletableFuture.allOf(futures);
+        }
     }
 }
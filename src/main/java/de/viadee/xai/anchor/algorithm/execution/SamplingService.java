@@ -46,4 +46,15 @@ public interface SamplingService extends Serializable {
      * @return the amount of samples taken
      */
     int getSamplesTakenCount();
+
+    /**
+     * Returns the amount of candidates the service is able to evaluate concurrently
+     * <p>
+     * Serves as a hint for best arm identifications that evaluate multiple candidates per round
+     *
+     * @return the service's parallelism, 1 unless overridden
+     */
+    default int getParallelism() {
+        return 1;
+    }
 }
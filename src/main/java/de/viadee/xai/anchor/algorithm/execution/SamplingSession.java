@@ -2,8 +2,10 @@ package de.viadee.xai.anchor.algorithm.execution;
 
 import java.io.Serializable;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.util.FutureUtils;
 
 /**
  * Interface defining a session which can be run to sample all registered candidates
@@ -40,4 +42,18 @@ public interface SamplingSession extends Serializable {
      * Obtains the request samples
      */
     void run();
+
+    /**
+     * Obtains the requested samples without blocking the calling thread, if supported by the implementation.
+     * <p>
+     * By default, the session is run synchronously and an already completed future is returned.
+     *
+     * @return a future that completes once all registered candidates have been evaluated
+     */
+    default CompletableFuture<Void> runAsync() {
+        return FutureUtils.completeSynchronously(() -> {
+            run();
+            return null;
+        });
+    }
 }
@@ -0,0 +1,211 @@
+package de.viadee.xai.anchor.algorithm.execution;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.PerturbationFunction;
+import de.viadee.xai.anchor.algorithm.execution.sampling.SamplingFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of the {@link ParallelSamplingService} intended for I/O-bound classification functions, e.g. models
+ * served by a separate process.
+ * <p>
+ * Every candidate's samples are split into chunks, each of which is evaluated by its own thread. On Java 21 and
+ * later, these are virtual threads, so that many predictions may be waited for without tuning a thread pool. On
+ * older runtimes, a fixed pool of daemon threads of the maximum amount of concurrent predictions is used instead.
+ * <p>
+ * The amount of concurrently evaluated chunks, i.e. in-flight predictions, is limited to not overload the model.
+ *
+ * @param <T> Type of the sampled instance
+ */
+public class VirtualThreadSamplingService<T extends DataInstance<?>> extends ParallelSamplingService<T> {
+    private static final long serialVersionUID = -3419542178530593405L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadSamplingService.class);
+
+    private static final AtomicBoolean FALLBACK_LOGGED = new AtomicBoolean();
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 10;
+
+    private final int maxConcurrentPredictions;
+    private final int chunkSize;
+    private final Semaphore inFlightPredictions;
+
+    /**
+     * Creates the sampling service.
+     * <p>
+     * Requires both a perturbation and classification function to evaluate candidates
+     *
+     * @param classificationFunction   Function used to classify any instance of type
+     * @param perturbationFunction     Function used to create perturbations of the explained instance
+     * @param maxConcurrentPredictions the maximum amount of chunks being evaluated concurrently
+     * @param chunkSize                the maximum amount of samples evaluated by a single prediction call
+     */
+    public VirtualThreadSamplingService(ClassificationFunction<T> classificationFunction,
+                                       PerturbationFunction<T> perturbationFunction,
+                                       int maxConcurrentPredictions, int chunkSize) {
+        super(classificationFunction, perturbationFunction,
+                createExecutorService(validate(maxConcurrentPredictions, chunkSize)),
+                () -> createExecutorService(maxConcurrentPredictions));
+        this.maxConcurrentPredictions = maxConcurrentPredictions;
+        this.chunkSize = chunkSize;
+        this.inFlightPredictions = new Semaphore(maxConcurrentPredictions);
+    }
+
+    /**
+     * Creates the sampling service.
+     *
+     * @param samplingFunction         the sampling function to be used
+     * @param maxConcurrentPredictions the maximum amount of chunks being evaluated concurrently
+     * @param chunkSize                the maximum amount of samples evaluated by a single prediction call
+     */
+    public VirtualThreadSamplingService(SamplingFunction samplingFunction, int maxConcurrentPredictions,
+                                       int chunkSize) {
+        this(samplingFunction, createExecutorService(validate(maxConcurrentPredictions, chunkSize)),
+                maxConcurrentPredictions, chunkSize, new Semaphore(maxConcurrentPredictions));
+    }
+
+    private VirtualThreadSamplingService(SamplingFunction samplingFunction, ExecutorService executorService,
+                                         int maxConcurrentPredictions, int chunkSize,
+                                         Semaphore inFlightPredictions) {
+        super(samplingFunction, executorService, () -> createExecutorService(maxConcurrentPredictions));
+        this.maxConcurrentPredictions = maxConcurrentPredictions;
+        this.chunkSize = chunkSize;
+        this.inFlightPredictions = inFlightPredictions;
+    }
+
+    /**
+     * Validates the parameters before an executor gets created for them
+     *
+     * @return the maximum amount of chunks being evaluated concurrently
+     */
+    private static int validate(int maxConcurrentPredictions, int chunkSize) {
+        if (maxConcurrentPredictions < 1)
+            throw new IllegalArgumentException("Max concurrent predictions must be positive");
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("Chunk size must be positive");
+        return maxConcurrentPredictions;
+    }
+
+    /**
+     * @return true, if the runtime supports virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread per task.
+     * <p>
+     * As this library targets Java 8, the executor is looked up reflectively. If virtual threads are not supported, a
+     * fixed thread pool is returned, as platform threads would otherwise be created for each chunk only to wait for
+     * a permit. Like virtual threads, its threads are daemon threads. They terminate when being idle, so that the
+     * pool does not need to be shut down.
+     *
+     * @param maxConcurrentPredictions the maximum amount of chunks being evaluated concurrently, used as pool size
+     *                                 if virtual threads are not supported
+     * @return the created executor
+     */
+    static ExecutorService createExecutorService(final int maxConcurrentPredictions) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final ReflectiveOperationException e) {
+            if (!FALLBACK_LOGGED.getAndSet(true))
+                LOGGER.warn("Virtual threads are not supported by this runtime. Falling back to a fixed thread pool");
+            final int poolSize = Math.max(1, maxConcurrentPredictions);
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize,
+                    IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                        final Thread thread = new Thread(runnable, "anchor-sampling-" + THREAD_COUNT.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    @Override
+    public SamplingSession createSession(int explainedInstanceLabel) {
+        return new VirtualThreadSession(explainedInstanceLabel);
+    }
+
+    @Override
+    public SamplingService notifySamplingFunctionChange(SamplingFunction samplingFunction) {
+        return new VirtualThreadSamplingService<>(samplingFunction, this.getExecutorService(),
+                this.maxConcurrentPredictions, this.chunkSize, this.inFlightPredictions);
+    }
+
+    @Override
+    public int getParallelism() {
+        return maxConcurrentPredictions;
+    }
+
+    /**
+     * @return the maximum amount of chunks being evaluated concurrently
+     */
+    public int getMaxConcurrentPredictions() {
+        return maxConcurrentPredictions;
+    }
+
+    /**
+     * @return the maximum amount of samples evaluated by a single prediction call
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private class VirtualThreadSession extends ParallelSession {
+        private static final long serialVersionUID = 3929880786713315085L;
+
+        /**
+         * Creates an instance.
+         *
+         * @param explainedInstanceLabel the label being explained
+         */
+        private VirtualThreadSession(int explainedInstanceLabel) {
+            super(explainedInstanceLabel);
+        }
+
+        @Override
+        protected Collection<Callable<Object>> createCallables() {
+            final Collection<Callable<Object>> result = new ArrayList<>();
+            for (final Map.Entry<AnchorCandidate, Integer> entry : this.samplingCountMap.entrySet()) {
+                final AnchorCandidate candidate = entry.getKey();
+                for (int remaining = entry.getValue(); remaining > 0; remaining -= chunkSize) {
+                    final int sampleCount = Math.min(remaining, chunkSize);
+                    result.add(() -> {
+                        inFlightPredictions.acquire();
+                        try {
+                            return doSample(candidate, sampleCount);
+                        } finally {
+                            inFlightPredictions.release();
+                        }
+                    });
+                }
+            }
+            return result;
+        }
+    }
+}
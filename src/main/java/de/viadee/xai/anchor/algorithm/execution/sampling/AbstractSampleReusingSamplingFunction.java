@@ -0,0 +1,139 @@
+package de.viadee.xai.anchor.algorithm.execution.sampling;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.PerturbationFunction;
+import de.viadee.xai.anchor.algorithm.util.FutureUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Base class of {@link SamplingFunction}s crediting candidates previously drawn perturbations before drawing fresh
+ * ones.
+ * <p>
+ * Subclasses define which perturbations get credited. Only the remaining amount of samples is drawn and predicted.
+ * Candidates are evaluated synchronously and not batched, as crediting relies on the perturbations drawn by previous
+ * evaluations.
+ *
+ * @param <T> type of the data instance
+ */
+public abstract class AbstractSampleReusingSamplingFunction<T extends DataInstance<?>>
+        extends DefaultSamplingFunction<T> {
+    private static final long serialVersionUID = 3190557127000425811L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractSampleReusingSamplingFunction.class);
+
+    private final LongAdder reusedSamples = new LongAdder();
+    private final LongAdder drawnSamples = new LongAdder();
+
+    /**
+     * Creates the sampling function.
+     *
+     * @param classificationFunction Function used to classify any instance of type
+     * @param perturbationFunction   Function used to create perturbations of the explained instance
+     */
+    protected AbstractSampleReusingSamplingFunction(ClassificationFunction<T> classificationFunction,
+                                                    PerturbationFunction<T> perturbationFunction) {
+        super(classificationFunction, perturbationFunction);
+    }
+
+    /**
+     * Credits previously drawn perturbations to the candidate by registering them as its samples.
+     *
+     * @param candidate              the candidate
+     * @param maxSamples             the maximum amount of samples to credit
+     * @param explainedInstanceLabel the explained instance label
+     * @return the amount of credited samples
+     */
+    protected abstract int creditSamples(AnchorCandidate candidate, int maxSamples, int explainedInstanceLabel);
+
+    /**
+     * Draws and predicts fresh samples of the candidate and registers them.
+     * <p>
+     * By default, the candidate gets evaluated as by the {@link DefaultSamplingFunction}.
+     *
+     * @param candidate              the candidate
+     * @param samplesToDraw          the amount of samples to draw
+     * @param explainedInstanceLabel the explained instance label
+     */
+    protected void drawSamples(AnchorCandidate candidate, int samplesToDraw, int explainedInstanceLabel) {
+        super.evaluate(candidate, samplesToDraw, explainedInstanceLabel);
+    }
+
+    /**
+     * Records perturbations drawn and predicted besides the samples of an evaluation, e.g. to be credited later on.
+     * <p>
+     * These are not requested by any candidate and hence not counted by the sampling service.
+     *
+     * @param drawnSampleCount the amount of drawn and predicted perturbations
+     */
+    protected void recordDrawnSamples(int drawnSampleCount) {
+        drawnSamples.add(drawnSampleCount);
+    }
+
+    @Override
+    public double evaluate(AnchorCandidate candidate, int samplesToEvaluate, int explainedInstanceLabel) {
+        if (samplesToEvaluate < 1)
+            return 0;
+
+        final int creditedSamples = creditSamples(candidate, samplesToEvaluate, explainedInstanceLabel);
+        reusedSamples.add(creditedSamples);
+        final int freshSamples = samplesToEvaluate - creditedSamples;
+        if (freshSamples > 0) {
+            drawnSamples.add(freshSamples);
+            drawSamples(candidate, freshSamples, explainedInstanceLabel);
+        }
+
+        LOGGER.trace("Evaluated {} by reusing {} and drawing {} samples", candidate.getFeatureSet(),
+                creditedSamples, Math.max(0, freshSamples));
+        return candidate.getPrecision();
+    }
+
+    /**
+     * Evaluates the candidate synchronously, as crediting relies on previous evaluations being completed.
+     */
+    @Override
+    public CompletableFuture<Double> evaluateAsync(AnchorCandidate candidate, int samplesToEvaluate,
+                                                   int explainedInstanceLabel) {
+        return FutureUtils.completeSynchronously(() ->
+                evaluate(candidate, samplesToEvaluate, explainedInstanceLabel));
+    }
+
+    /**
+     * Batching is not supported, as it would bypass crediting samples.
+     *
+     * @return an empty {@link Optional}
+     */
+    @Override
+    public Optional<PerturbationFunction<T>> getBatchingPerturbationFunction() {
+        return Optional.empty();
+    }
+
+    /**
+     * @return the amount of samples credited from previously drawn perturbations
+     */
+    public long getReusedSampleCount() {
+        return reusedSamples.sum();
+    }
+
+    /**
+     * @return the amount of samples that have been freshly drawn and predicted, including those drawn in advance
+     */
+    public long getDrawnSampleCount() {
+        return drawnSamples.sum();
+    }
+
+    /**
+     * @return the fraction of evaluated samples that have been credited from previously drawn perturbations
+     */
+    public double getReuseRatio() {
+        final long reused = getReusedSampleCount();
+        final long total = reused + getDrawnSampleCount();
+        return (total == 0) ? 0 : reused / (double) total;
+    }
+}
@@ -0,0 +1,287 @@
+package de.viadee.xai.anchor.algorithm.execution.sampling;
+
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.util.ParameterValidation;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Decorates a {@link ClassificationFunction} with a bounded cache of predictions.
+ * <p>
+ * Perturbations fixing many features frequently result in identical instances, e.g. for categorical data with small
+ * domains. This class memoizes their predictions so that the model is only called for unseen instances. Instances are
+ * identified by a pluggable {@link KeyExtractor}. When the cache is full, the least recently used prediction is
+ * evicted.
+ * <p>
+ * Large caches are split into segments by the keys' hash codes, each guarded by its own lock and evicting its least
+ * recently used prediction independently. Keys are extracted and the model is called without holding any lock.
+ * <p>
+ * The same instance may be shared among multiple explanations, e.g. by the
+ * {@link de.viadee.xai.anchor.algorithm.global.ThreadedBatchExplainer}, and is thread-safe.
+ *
+ * @param <T> type of the predicted data instance
+ */
+public class CachingClassificationFunction<T extends DataInstance<?>> implements ClassificationFunction<T> {
+    private static final long serialVersionUID = -4062455493862405613L;
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final ClassificationFunction<T> classificationFunction;
+    private final KeyExtractor<T> keyExtractor;
+    private final int maxSize;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /*
+     * Cached predictions are not serialized
+     */
+    private transient LruMap<Object, Integer>[] segments;
+
+    /**
+     * Creates the cache identifying instances by the deep equality of their {@link DataInstance#getInstance()} value.
+     *
+     * @param classificationFunction the function to cache predictions of
+     * @param maxSize                the maximum amount of cached predictions
+     */
+    public CachingClassificationFunction(final ClassificationFunction<T> classificationFunction, final int maxSize) {
+        this(classificationFunction, maxSize, new InstanceKeyExtractor<>());
+    }
+
+    /**
+     * Creates the cache.
+     *
+     * @param classificationFunction the function to cache predictions of
+     * @param maxSize                the maximum amount of cached predictions
+     * @param keyExtractor           extracts a key from an instance. Instances having equal keys must be predicted
+     *                               equally
+     */
+    public CachingClassificationFunction(final ClassificationFunction<T> classificationFunction, final int maxSize,
+                                         final KeyExtractor<T> keyExtractor) {
+        if (classificationFunction == null)
+            throw new IllegalArgumentException("Classification function" + ParameterValidation.NULL_MESSAGE);
+        if (keyExtractor == null)
+            throw new IllegalArgumentException("Key extractor" + ParameterValidation.NULL_MESSAGE);
+        if (maxSize < 1)
+            throw new IllegalArgumentException("Max size must be positive");
+        this.classificationFunction = classificationFunction;
+        this.keyExtractor = keyExtractor;
+        this.maxSize = maxSize;
+        this.segments = createSegments(maxSize);
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.segments = createSegments(maxSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LruMap<Object, Integer>[] createSegments(final int maxSize) {
+        final int segmentCount = Math.max(1, Math.min(MAX_SEGMENTS, maxSize / MIN_SEGMENT_SIZE));
+        final LruMap<Object, Integer>[] result = new LruMap[segmentCount];
+        for (int i = 0; i < segmentCount; i++)
+            result[i] = new LruMap<>(maxSize / segmentCount + ((i < maxSize % segmentCount) ? 1 : 0));
+        return result;
+    }
+
+    private LruMap<Object, Integer> segmentFor(final Object key) {
+        final int hash = key.hashCode();
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    private Integer lookup(final Object key) {
+        final LruMap<Object, Integer> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    private void store(final Object key, final int prediction) {
+        final LruMap<Object, Integer> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, prediction);
+        }
+    }
+
+    @Override
+    public int predict(final T instance) {
+        final Object key = keyExtractor.apply(instance);
+        final Integer cached = lookup(key);
+        if (cached != null) {
+            hitCount.increment();
+            return cached;
+        }
+        missCount.increment();
+        final int prediction = classificationFunction.predict(instance);
+        store(key, prediction);
+        return prediction;
+    }
+
+    @Override
+    public int[] predict(final T[] instances) {
+        final int[] result = new int[instances.length];
+        // Misses are grouped by key so that duplicates within the batch are predicted only once
+        final Map<Object, List<Integer>> missedIndices = new LinkedHashMap<>();
+        int hits = 0;
+        for (int i = 0; i < instances.length; i++) {
+            final Object key = keyExtractor.apply(instances[i]);
+            final Integer cached = lookup(key);
+            if (cached != null) {
+                result[i] = cached;
+                hits++;
+            } else {
+                missedIndices.computeIfAbsent(key, k -> new ArrayList<>(1)).add(i);
+            }
+        }
+        hitCount.add(hits);
+        missCount.add(instances.length - hits);
+        if (missedIndices.isEmpty())
+            return result;
+
+        final T[] missedInstances = Arrays.copyOf(instances, missedIndices.size());
+        int missIndex = 0;
+        for (final List<Integer> indices : missedIndices.values())
+            missedInstances[missIndex++] = instances[indices.get(0)];
+        final int[] predictions = classificationFunction.predict(missedInstances);
+
+        missIndex = 0;
+        for (final Map.Entry<Object, List<Integer>> entry : missedIndices.entrySet()) {
+            final int prediction = predictions[missIndex++];
+            store(entry.getKey(), prediction);
+            for (final int index : entry.getValue())
+                result[index] = prediction;
+        }
+        return result;
+    }
+
+    /**
+     * @return the decorated classification function
+     */
+    public ClassificationFunction<T> getClassificationFunction() {
+        return classificationFunction;
+    }
+
+    /**
+     * @return the amount of predictions served by the cache
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Duplicates within a batch are counted once each, although the model predicts them only once.
+     *
+     * @return the amount of predictions not served by the cache
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the fraction of predictions served by the cache
+     */
+    public double getHitRate() {
+        final long hits = getHitCount();
+        final long total = hits + getMissCount();
+        return (total == 0) ? 0 : hits / (double) total;
+    }
+
+    /**
+     * @return the amount of currently cached predictions
+     */
+    public int getSize() {
+        int size = 0;
+        for (final LruMap<Object, Integer> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all cached predictions and resets the statistics
+     */
+    public void clear() {
+        for (final LruMap<Object, Integer> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        hitCount.reset();
+        missCount.reset();
+    }
+
+    /**
+     * Extracts a key from an instance used to look up its cached prediction.
+     * <p>
+     * Keys must implement equals and hashCode.
+     *
+     * @param <T> type of the data instance
+     */
+    public interface KeyExtractor<T extends DataInstance<?>> extends Function<T, Object>, Serializable {
+    }
+
+    /**
+     * Default key extractor comparing the {@link DataInstance#getInstance()} values, deeply for arrays
+     */
+    private static class InstanceKeyExtractor<T extends DataInstance<?>> implements KeyExtractor<T> {
+        private static final long serialVersionUID = 6604786424520187327L;
+
+        @Override
+        public Object apply(final T instance) {
+            return new InstanceKey(instance.getInstance());
+        }
+    }
+
+    private static final class InstanceKey {
+        private final Object[] value;
+        private final int hashCode;
+
+        private InstanceKey(final Object value) {
+            // Wrapping enables deep comparison of primitive arrays
+            this.value = new Object[]{value};
+            this.hashCode = Arrays.deepHashCode(this.value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            InstanceKey that = (InstanceKey) o;
+            return hashCode == that.hashCode && Arrays.deepEquals(value, that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 4533806592512473563L;
+
+        private final int maxSize;
+
+        private LruMap(final int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -2,8 +2,12 @@ package de.viadee.xai.anchor.algorithm.execution.sampling;
 
 import de.viadee.xai.anchor.algorithm.AnchorCandidate;
 import de.viadee.xai.anchor.algorithm.AnchorConstruction;
+import de.viadee.xai.anchor.algorithm.AsyncClassificationFunction;
 import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.ColumnarPerturbationResult;
 import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.NumericClassificationFunction;
+import de.viadee.xai.anchor.algorithm.NumericPerturbationFunction;
 import de.viadee.xai.anchor.algorithm.PerturbationFunction;
 import de.viadee.xai.anchor.algorithm.coverage.CoverageIdentification;
 import de.viadee.xai.anchor.algorithm.coverage.PerturbationBasedCoverageIdentification;
@@ -11,7 +15,10 @@ import de.viadee.xai.anchor.algorithm.global.ReconfigurablePerturbationFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.stream.IntStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Default {@link SamplingFunction} implementation.
@@ -27,6 +34,11 @@ public class DefaultSamplingFunction<T extends DataInstance<?>> implements Sampl
     private final ClassificationFunction<T> classificationFunction;
     private final PerturbationFunction<T> perturbationFunction;
 
+    /*
+     * Per-thread buffers used when evaluating numeric functions. Not serialized
+     */
+    private transient ThreadLocal<ColumnarBuffers> columnarBuffers;
+
     /**
      * Creates the sampling function.
      * <p>
@@ -40,38 +52,101 @@ public class DefaultSamplingFunction<T extends DataInstance<?>> implements Sampl
                                    PerturbationFunction<T> perturbationFunction) {
         this.classificationFunction = classificationFunction;
         this.perturbationFunction = perturbationFunction;
+        this.columnarBuffers = ThreadLocal.withInitial(ColumnarBuffers::new);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.columnarBuffers = ThreadLocal.withInitial(ColumnarBuffers::new);
     }
 
     @Override
     public double evaluate(AnchorCandidate candidate, int samplesToEvaluate, int explainedInstanceLabel) {
         if (samplesToEvaluate < 1)
             return 0;
+        if (isColumnar())
+            return evaluateColumnar(candidate, samplesToEvaluate, explainedInstanceLabel);
 
         final PerturbationFunction.PerturbationResult<T> perturbationResult = perturbationFunction.perturb(
                 candidate.getCanonicalFeatures(), samplesToEvaluate);
         final int[] predictions = classificationFunction.predict(perturbationResult.getRawResult());
 
-        final int matchingLabels = Math.toIntExact(IntStream.of(predictions)
-                .filter(p -> p == explainedInstanceLabel).count());
+        return registerPredictions(candidate, predictions, predictions.length, explainedInstanceLabel);
+    }
+
+    /**
+     * Evaluates the candidate using the thread's reusable buffers, avoiding allocations per perturbation.
+     */
+    private double evaluateColumnar(AnchorCandidate candidate, int samplesToEvaluate, int explainedInstanceLabel) {
+        final ColumnarBuffers buffers = columnarBuffers.get();
+        ((NumericPerturbationFunction<T>) perturbationFunction).perturb(candidate.getFeatureSet(), samplesToEvaluate,
+                buffers.perturbations);
+        if (buffers.predictions.length < samplesToEvaluate)
+            buffers.predictions = new int[samplesToEvaluate];
+        ((NumericClassificationFunction<T>) classificationFunction).predict(buffers.perturbations,
+                buffers.predictions);
+
+        return registerPredictions(candidate, buffers.predictions, samplesToEvaluate, explainedInstanceLabel);
+    }
+
+    /**
+     * Evaluates the candidate without blocking if the classification function is an
+     * {@link AsyncClassificationFunction}. Otherwise, the candidate gets evaluated synchronously.
+     */
+    @Override
+    public CompletableFuture<Double> evaluateAsync(AnchorCandidate candidate, int samplesToEvaluate,
+                                                   int explainedInstanceLabel) {
+        if (samplesToEvaluate < 1 || !(classificationFunction instanceof AsyncClassificationFunction))
+            return SamplingFunction.super.evaluateAsync(candidate, samplesToEvaluate, explainedInstanceLabel);
+
+        final PerturbationFunction.PerturbationResult<T> perturbationResult = perturbationFunction.perturb(
+                candidate.getCanonicalFeatures(), samplesToEvaluate);
+        return ((AsyncClassificationFunction<T>) classificationFunction)
+                .predictAsync(perturbationResult.getRawResult())
+                .thenApply(predictions -> registerPredictions(candidate, predictions, predictions.length,
+                        explainedInstanceLabel));
+    }
+
+    private double registerPredictions(AnchorCandidate candidate, int[] predictions, int samplesToEvaluate,
+                                       int explainedInstanceLabel) {
+        int matchingLabels = 0;
+        for (int i = 0; i < samplesToEvaluate; i++) {
+            if (predictions[i] == explainedInstanceLabel)
+                matchingLabels++;
+        }
 
         candidate.registerSamples(samplesToEvaluate, matchingLabels);
 
-        double precision = matchingLabels / (double) predictions.length;
-        LOGGER.trace("Sampling {} perturbations of {} has resulted in {} correct predictions, thus a precision of {}",
-                samplesToEvaluate, candidate.getCanonicalFeatures(), matchingLabels, precision);
+        double precision = matchingLabels / (double) samplesToEvaluate;
+        if (LOGGER.isTraceEnabled())
+            LOGGER.trace("Sampling {} perturbations of {} has resulted in {} correct predictions, thus a " +
+                    "precision of {}", samplesToEvaluate, candidate.getFeatureSet(), matchingLabels, precision);
         return precision;
     }
 
     @Override
     public DefaultSamplingFunction<T> notifyOriginChange(T explainedInstance) throws UnsupportedOperationException {
+        return new DefaultSamplingFunction<>(this.classificationFunction,
+                createPerturbationFunctionFor(explainedInstance));
+    }
+
+    /**
+     * Creates the perturbation function for another explained instance, as required by
+     * {@link #notifyOriginChange(DataInstance)}.
+     *
+     * @param explainedInstance the explained instance
+     * @return the perturbation function perturbing the explained instance
+     * @throws UnsupportedOperationException if the perturbation function is no
+     *                                       {@link ReconfigurablePerturbationFunction}
+     */
+    protected PerturbationFunction<T> createPerturbationFunctionFor(T explainedInstance)
+            throws UnsupportedOperationException {
         if (!(this.perturbationFunction instanceof ReconfigurablePerturbationFunction)) {
             throw new UnsupportedOperationException("For using the SP-algorithm, the perturbation function needs to " +
                     "be reconfigurable for foreign instances. Please implement the ReconfigurablePerturbationFunction");
         }
 
-        return new DefaultSamplingFunction<>(this.classificationFunction,
-                ((ReconfigurablePerturbationFunction<T>) this.perturbationFunction)
-                        .createForInstance(explainedInstance));
+        return ((ReconfigurablePerturbationFunction<T>) this.perturbationFunction).createForInstance(explainedInstance);
     }
 
     /**
@@ -95,5 +170,35 @@ public class DefaultSamplingFunction<T extends DataInstance<?>> implements Sampl
         return classificationFunction;
     }
 
-}
+    /**
+     * @return the function used to create perturbations
+     */
+    public PerturbationFunction<T> getPerturbationFunction() {
+        return perturbationFunction;
+    }
 
+    /**
+     * Batching is supported unless numeric functions are used, as these get evaluated column-wise.
+     *
+     * @return the perturbation function or an empty {@link Optional} if numeric functions are used
+     */
+    @Override
+    public Optional<PerturbationFunction<T>> getBatchingPerturbationFunction() {
+        if (isColumnar())
+            return Optional.empty();
+        return Optional.of(perturbationFunction);
+    }
+
+    private boolean isColumnar() {
+        return perturbationFunction instanceof NumericPerturbationFunction
+                && classificationFunction instanceof NumericClassificationFunction;
+    }
+
+    /**
+     * Reusable buffers of a single thread
+     */
+    private static final class ColumnarBuffers {
+        private final ColumnarPerturbationResult perturbations = new ColumnarPerturbationResult();
+        private int[] predictions = new int[0];
+    }
+}
@@ -0,0 +1,91 @@
+package de.viadee.xai.anchor.algorithm.execution.sampling;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.PerturbationFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+
+/**
+ * {@link SamplingFunction} estimating candidates' precision from a shared pool of perturbations.
+ * <p>
+ * On the first evaluation, a pool of perturbations of the explained instance is drawn without fixing any feature
+ * and classified once. Each candidate is then credited the pool rows in which none of its features has been changed,
+ * each row at most once and no more than requested. Fresh perturbations are only drawn for the remaining samples,
+ * i.e. when a candidate's matching rows do not suffice.
+ * <p>
+ * Assumes that the perturbation function perturbs features independently, as is the case for rejection sampling.
+ *
+ * @param <T> type of the data instance
+ */
+public class PerturbationPoolSamplingFunction<T extends DataInstance<?>>
+        extends AbstractSampleReusingSamplingFunction<T> {
+    private static final long serialVersionUID = 5218367035434622154L;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PerturbationPoolSamplingFunction.class);
+
+    private final int poolSize;
+
+    /*
+     * Lazily drawn pool. Not serialized
+     */
+    private transient volatile SampleStore pool;
+
+    /**
+     * Creates the sampling function.
+     *
+     * @param classificationFunction Function used to classify any instance of type
+     * @param perturbationFunction   Function used to create perturbations of the explained instance
+     * @param poolSize               the amount of perturbations drawn and classified for the pool
+     */
+    public PerturbationPoolSamplingFunction(ClassificationFunction<T> classificationFunction,
+                                            PerturbationFunction<T> perturbationFunction,
+                                            int poolSize) {
+        super(classificationFunction, perturbationFunction);
+        if (poolSize < 1)
+            throw new IllegalArgumentException("Pool size must be positive");
+        this.poolSize = poolSize;
+    }
+
+    private SampleStore getPool() {
+        SampleStore result = pool;
+        if (result == null) {
+            synchronized (this) {
+                result = pool;
+                if (result == null) {
+                    result = new SampleStore(poolSize);
+                    final PerturbationFunction.PerturbationResult<T> perturbationResult = getPerturbationFunction()
+                            .perturb(Collections.emptySet(), poolSize);
+                    result.addUnconditioned(perturbationResult.getFeatureChanged(),
+                            getClassificationFunction().predict(perturbationResult.getRawResult()));
+                    recordDrawnSamples(poolSize);
+                    LOGGER.debug("Drew a pool of {} classified perturbations", poolSize);
+                    pool = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected int creditSamples(AnchorCandidate candidate, int maxSamples, int explainedInstanceLabel) {
+        return getPool().credit(candidate, explainedInstanceLabel, maxSamples);
+    }
+
+    @Override
+    public PerturbationPoolSamplingFunction<T> notifyOriginChange(T explainedInstance)
+            throws UnsupportedOperationException {
+        return new PerturbationPoolSamplingFunction<>(getClassificationFunction(),
+                createPerturbationFunctionFor(explainedInstance), poolSize);
+    }
+
+    /**
+     * @return the amount of perturbations drawn and classified for the pool
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+}
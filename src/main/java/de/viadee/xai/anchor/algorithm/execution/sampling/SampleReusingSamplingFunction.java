@@ -0,0 +1,98 @@
+package de.viadee.xai.anchor.algorithm.execution.sampling;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.PerturbationFunction;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+
+/**
+ * {@link SamplingFunction} reusing previously drawn perturbations across candidates and beam rounds.
+ * <p>
+ * All perturbations are kept in a bounded {@link SampleStore}. Before drawing new samples for a candidate, it is
+ * credited up to the requested amount of stored perturbations that are valid samples of it, i.e. those drawn for a
+ * subset of its features and leaving its remaining features unchanged. Only the remaining amount of samples is drawn
+ * and predicted.
+ * <p>
+ * Assumes that the perturbation function perturbs features independently. Otherwise, credited samples may be biased.
+ *
+ * @param <T> type of the data instance
+ */
+public class SampleReusingSamplingFunction<T extends DataInstance<?>>
+        extends AbstractSampleReusingSamplingFunction<T> {
+    private static final long serialVersionUID = -8713001283904867216L;
+
+    private static final int DEFAULT_MAX_STORED_SAMPLES = 100000;
+
+    private final int maxStoredSamples;
+
+    /*
+     * Stored perturbations are not serialized
+     */
+    private transient SampleStore sampleStore;
+
+    /**
+     * Creates the sampling function keeping at most 100000 perturbations.
+     *
+     * @param classificationFunction Function used to classify any instance of type
+     * @param perturbationFunction   Function used to create perturbations of the explained instance
+     */
+    public SampleReusingSamplingFunction(ClassificationFunction<T> classificationFunction,
+                                         PerturbationFunction<T> perturbationFunction) {
+        this(classificationFunction, perturbationFunction, DEFAULT_MAX_STORED_SAMPLES);
+    }
+
+    /**
+     * Creates the sampling function.
+     *
+     * @param classificationFunction Function used to classify any instance of type
+     * @param perturbationFunction   Function used to create perturbations of the explained instance
+     * @param maxStoredSamples       the maximum amount of perturbations to keep for reuse
+     */
+    public SampleReusingSamplingFunction(ClassificationFunction<T> classificationFunction,
+                                         PerturbationFunction<T> perturbationFunction,
+                                         int maxStoredSamples) {
+        super(classificationFunction, perturbationFunction);
+        if (maxStoredSamples < 1)
+            throw new IllegalArgumentException("Max stored samples must be positive");
+        this.maxStoredSamples = maxStoredSamples;
+        this.sampleStore = new SampleStore(maxStoredSamples);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.sampleStore = new SampleStore(maxStoredSamples);
+    }
+
+    @Override
+    protected int creditSamples(AnchorCandidate candidate, int maxSamples, int explainedInstanceLabel) {
+        return sampleStore.credit(candidate, explainedInstanceLabel, maxSamples);
+    }
+
+    /**
+     * Draws and predicts fresh samples and stores them for reuse by other candidates.
+     */
+    @Override
+    protected void drawSamples(AnchorCandidate candidate, int samplesToDraw, int explainedInstanceLabel) {
+        final PerturbationFunction.PerturbationResult<T> perturbationResult = getPerturbationFunction().perturb(
+                candidate.getCanonicalFeatures(), samplesToDraw);
+        final int[] predictions = getClassificationFunction().predict(perturbationResult.getRawResult());
+
+        int matchingLabels = 0;
+        for (final int prediction : predictions) {
+            if (prediction == explainedInstanceLabel)
+                matchingLabels++;
+        }
+        candidate.registerSamples(samplesToDraw, matchingLabels);
+        sampleStore.add(candidate, perturbationResult.getFeatureChanged(), predictions);
+    }
+
+    @Override
+    public SampleReusingSamplingFunction<T> notifyOriginChange(T explainedInstance)
+            throws UnsupportedOperationException {
+        return new SampleReusingSamplingFunction<>(getClassificationFunction(),
+                createPerturbationFunctionFor(explainedInstance), maxStoredSamples);
+    }
+}
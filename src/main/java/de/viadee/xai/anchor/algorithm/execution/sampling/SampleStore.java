@@ -0,0 +1,269 @@
+package de.viadee.xai.anchor.algorithm.execution.sampling;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.FeatureSet;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores the perturbations drawn for candidates, along with which of their features have been changed and their
+ * predictions.
+ * <p>
+ * A stored perturbation drawn for a candidate S is a valid sample of another candidate C if S is a subset of C and
+ * all features of C not contained in S have been left unchanged. As long as features are perturbed independently,
+ * conditioning on these features being unchanged is equivalent to fixing them. Therefore, such samples are credited
+ * to C without calling the model again.
+ * <p>
+ * Perturbations drawn for a superset of C are not credited, as their additionally fixed features would bias C's
+ * precision.
+ * <p>
+ * Each candidate's credited perturbations are tracked by a watermark, so that each perturbation is credited at most
+ * once. Candidates are referenced weakly, so that watermarks are discarded along with their candidates.
+ * <p>
+ * Thread-safe. The stored perturbations are scanned without holding the store's lock.
+ */
+final class SampleStore {
+    private final int maxStoredSamples;
+    private final Deque<Batch> batches = new ArrayDeque<>();
+    private final Map<CandidateReference, Watermark> watermarks = new HashMap<>();
+    private final ReferenceQueue<AnchorCandidate> collectedCandidates = new ReferenceQueue<>();
+    private long nextRow = 0;
+    private int storedSamples = 0;
+
+    /**
+     * Creates the store.
+     *
+     * @param maxStoredSamples the maximum amount of perturbations to keep. When exceeded, the oldest ones are
+     *                         discarded
+     */
+    SampleStore(final int maxStoredSamples) {
+        this.maxStoredSamples = maxStoredSamples;
+    }
+
+    /**
+     * Adds perturbations drawn for a candidate.
+     * <p>
+     * The perturbations are not credited to the candidate itself.
+     *
+     * @param owner          the candidate the perturbations have been drawn for
+     * @param featureChanged maps each perturbation and its features to whether they have been changed
+     * @param predictions    the perturbations' predictions
+     */
+    synchronized void add(final AnchorCandidate owner, final boolean[][] featureChanged, final int[] predictions) {
+        addBatch(owner, owner.getFeatureSet(), featureChanged, predictions);
+    }
+
+    /**
+     * Adds perturbations drawn without fixing any features, which are valid samples of every candidate.
+     *
+     * @param featureChanged maps each perturbation and its features to whether they have been changed
+     * @param predictions    the perturbations' predictions
+     */
+    synchronized void addUnconditioned(final boolean[][] featureChanged, final int[] predictions) {
+        addBatch(null, FeatureSet.of(), featureChanged, predictions);
+    }
+
+    private void addBatch(final AnchorCandidate owner, final FeatureSet conditionedOn,
+                          final boolean[][] featureChanged, final int[] predictions) {
+        if (predictions.length == 0 || predictions.length > maxStoredSamples)
+            return;
+        batches.addLast(new Batch(nextRow, owner, conditionedOn, featureChanged, predictions));
+        nextRow += predictions.length;
+        storedSamples += predictions.length;
+        while (storedSamples > maxStoredSamples)
+            storedSamples -= batches.removeFirst().predictions.length;
+    }
+
+    /**
+     * Credits stored perturbations that are valid samples of the candidate and have not been credited to it yet.
+     * <p>
+     * Perturbations are credited in the order they have been stored until the maximum amount is reached. Remaining
+     * ones may be credited by subsequent calls.
+     *
+     * @param candidate              the candidate
+     * @param explainedInstanceLabel the explained instance label
+     * @param maxSamples             the maximum amount of samples to credit
+     * @return the amount of credited samples
+     */
+    int credit(final AnchorCandidate candidate, final int explainedInstanceLabel, final int maxSamples) {
+        if (maxSamples < 1)
+            return 0;
+        final Watermark watermark;
+        final Batch[] storedBatches;
+        synchronized (this) {
+            if (batches.isEmpty())
+                return 0;
+            watermark = getWatermark(candidate);
+            storedBatches = batches.toArray(new Batch[0]);
+        }
+
+        int creditedSamples = 0;
+        int positiveSamples = 0;
+        final FeatureSet features = candidate.getFeatureSet();
+        // Concurrent evaluations of the same candidate must not credit the same perturbations
+        synchronized (watermark) {
+            long creditedUntil = watermark.nextRow;
+            scan:
+            for (final Batch batch : storedBatches) {
+                final long batchEnd = batch.firstRow + batch.predictions.length;
+                if (batchEnd <= creditedUntil)
+                    continue;
+                if (batch.owner == candidate || !isSubset(batch.conditionedOn, features)) {
+                    creditedUntil = batchEnd;
+                    continue;
+                }
+
+                final int fromRow = (int) Math.max(0, creditedUntil - batch.firstRow);
+                final long[] matchingRows = batch.unchangedRows(features);
+                creditedUntil = batchEnd;
+                for (int word = fromRow >>> 6; word < matchingRows.length; word++) {
+                    long bits = matchingRows[word];
+                    if (word == fromRow >>> 6)
+                        bits &= -1L << fromRow;
+                    while (bits != 0) {
+                        final int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                        if (creditedSamples == maxSamples) {
+                            creditedUntil = batch.firstRow + row;
+                            break scan;
+                        }
+                        creditedSamples++;
+                        if (batch.predictions[row] == explainedInstanceLabel)
+                            positiveSamples++;
+                        bits &= bits - 1;
+                    }
+                }
+            }
+            watermark.nextRow = creditedUntil;
+        }
+        if (creditedSamples > 0)
+            candidate.registerSamples(creditedSamples, positiveSamples);
+        return creditedSamples;
+    }
+
+    private Watermark getWatermark(final AnchorCandidate candidate) {
+        Reference<? extends AnchorCandidate> collected;
+        while ((collected = collectedCandidates.poll()) != null)
+            watermarks.remove(collected);
+
+        Watermark result = watermarks.get(new CandidateReference(candidate, null));
+        if (result == null) {
+            result = new Watermark();
+            watermarks.put(new CandidateReference(candidate, collectedCandidates), result);
+        }
+        return result;
+    }
+
+    private static boolean isSubset(final FeatureSet subset, final FeatureSet superset) {
+        if (subset.size() > superset.size())
+            return false;
+        for (int i = 0; i < subset.size(); i++) {
+            if (!superset.contains(subset.get(i)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the amount of currently stored perturbations
+     */
+    synchronized int getStoredSamples() {
+        return storedSamples;
+    }
+
+    /**
+     * @return the amount of candidates having a watermark
+     */
+    synchronized int getTrackedCandidates() {
+        return watermarks.size();
+    }
+
+    /**
+     * The position of the first stored perturbation not yet considered for a candidate
+     */
+    private static final class Watermark {
+        private long nextRow = 0;
+    }
+
+    /**
+     * Weak reference to a candidate, comparing candidates by identity
+     */
+    private static final class CandidateReference extends WeakReference<AnchorCandidate> {
+        private final int hashCode;
+
+        private CandidateReference(final AnchorCandidate candidate,
+                                   final ReferenceQueue<AnchorCandidate> queue) {
+            super(candidate, queue);
+            this.hashCode = System.identityHashCode(candidate);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CandidateReference)) return false;
+            final AnchorCandidate candidate = get();
+            return candidate != null && candidate == ((CandidateReference) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Perturbations drawn in a single evaluation, stored column-wise
+     */
+    private static final class Batch {
+        /*
+         * The position of the batch's first perturbation among all perturbations ever stored
+         */
+        private final long firstRow;
+        private final AnchorCandidate owner;
+        private final FeatureSet conditionedOn;
+        /*
+         * For each feature, a bitset of the rows in which it has not been changed
+         */
+        private final long[][] unchangedRows;
+        private final int[] predictions;
+
+        private Batch(final long firstRow, final AnchorCandidate owner, final FeatureSet conditionedOn,
+                      final boolean[][] featureChanged, final int[] predictions) {
+            this.firstRow = firstRow;
+            this.owner = owner;
+            this.conditionedOn = conditionedOn;
+            this.predictions = predictions;
+            final int featureCount = featureChanged[0].length;
+            this.unchangedRows = new long[featureCount][(predictions.length + 63) >>> 6];
+            for (int row = 0; row < predictions.length; row++) {
+                for (int feature = 0; feature < featureCount; feature++) {
+                    if (!featureChanged[row][feature])
+                        unchangedRows[feature][row >>> 6] |= 1L << row;
+                }
+            }
+        }
+
+        private long[] unchangedRows(final FeatureSet features) {
+            final long[] result = new long[(predictions.length + 63) >>> 6];
+            final int lastWordBits = predictions.length & 63;
+            Arrays.fill(result, -1L);
+            if (lastWordBits != 0)
+                result[result.length - 1] = (1L << lastWordBits) - 1;
+            for (int i = 0; i < features.size(); i++) {
+                final int feature = features.get(i);
+                if (conditionedOn.contains(feature))
+                    continue;
+                final long[] column = unchangedRows[feature];
+                for (int word = 0; word < result.length; word++)
+                    result[word] &= column[word];
+            }
+            return result;
+        }
+    }
+}
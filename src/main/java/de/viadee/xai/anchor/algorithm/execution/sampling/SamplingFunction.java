@@ -3,10 +3,14 @@ package de.viadee.xai.anchor.algorithm.execution.sampling;
 import de.viadee.xai.anchor.algorithm.AnchorCandidate;
 import de.viadee.xai.anchor.algorithm.ClassificationFunction;
 import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.PerturbationFunction;
 import de.viadee.xai.anchor.algorithm.coverage.CoverageIdentification;
 import de.viadee.xai.anchor.algorithm.coverage.PerturbationBasedCoverageIdentification;
+import de.viadee.xai.anchor.algorithm.util.FutureUtils;
 
 import java.io.Serializable;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * May be used to define custom sampling functions used by
@@ -31,6 +35,22 @@ public interface SamplingFunction<T extends DataInstance<?>> extends Serializabl
      */
     double evaluate(final AnchorCandidate candidate, final int samplesToEvaluate, final int explainedInstanceLabel);
 
+    /**
+     * Asynchronous version of {@link #evaluate(AnchorCandidate, int, int)}.
+     * <p>
+     * By default, the candidate gets evaluated synchronously and an already completed future is returned.
+     *
+     * @param candidate              the {@link AnchorCandidate} to evaluate
+     * @param samplesToEvaluate      the number of samples to take
+     * @param explainedInstanceLabel the explained instance label
+     * @return a future of the precision computed in this sampling run
+     */
+    default CompletableFuture<Double> evaluateAsync(final AnchorCandidate candidate, final int samplesToEvaluate,
+                                                    final int explainedInstanceLabel) {
+        return FutureUtils.completeSynchronously(() ->
+                evaluate(candidate, samplesToEvaluate, explainedInstanceLabel));
+    }
+
     /**
      * Gets called when the perturbation base gets changed.
      * <p>
@@ -57,4 +77,20 @@ public interface SamplingFunction<T extends DataInstance<?>> extends Serializabl
      * @return a {@link ClassificationFunction}
      */
     ClassificationFunction<T> getClassificationFunction();
+
+    /**
+     * Returns the function used to create perturbations if this sampling function supports batching.
+     * <p>
+     * Sampling services may then perturb and predict separately, e.g. to batch model calls across candidates.
+     * This bypasses {@link #evaluate(AnchorCandidate, int, int)}. Hence, functions evaluating candidates in any other
+     * way, e.g. by reusing samples, must not support batching.
+     * <p>
+     * By default, batching is not supported.
+     *
+     * @return the {@link PerturbationFunction} to batch with or an empty {@link Optional} if batching is not
+     * supported
+     */
+    default Optional<PerturbationFunction<T>> getBatchingPerturbationFunction() {
+        return Optional.empty();
+    }
 }
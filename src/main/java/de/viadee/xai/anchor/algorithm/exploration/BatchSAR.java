@@ -2,10 +2,10 @@ package de.viadee.xai.anchor.algorithm.exploration;
 
 import de.viadee.xai.anchor.algorithm.AnchorCandidate;
 import de.viadee.xai.anchor.algorithm.execution.SamplingService;
+import de.viadee.xai.anchor.algorithm.util.MathUtils;
 import de.viadee.xai.anchor.algorithm.util.ParameterValidation;
 
 import java.util.*;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
@@ -83,17 +83,20 @@ public class BatchSAR extends AbstractBRAlgorithm {
             // Choose an arm that is safest to remove. Do this by getting the candidate with the highest empirical gap
             // This arm is empirically either the best or worst arm
             if (s <= (n - nn)) {
-                final List<AnchorCandidate> sortedByMean = survivingSet.stream()
-                        .sorted(Comparator.comparingDouble(AnchorCandidate::getPrecision).reversed())
-                        .collect(Collectors.toList());
-                final double deltaP1 = sortedByMean.get(0).getPrecision() - sortedByMean.get(remainingK).getPrecision();
-                final double deltaP2 = sortedByMean.get(remainingK - 1).getPrecision() -
-                        sortedByMean.get(n - s).getPrecision();
+                // Only the top k' + 1 and the worst arm are of interest, so there is no need to sort all arms
+                final List<AnchorCandidate> surviving = new ArrayList<>(survivingSet);
+                final double[] means = getMeans(surviving);
+                final int[] top = MathUtils.argTopK(means, remainingK + 1);
+                final int worst = MathUtils.argMin(means);
+                final double deltaP1 = means[top[0]] - means[top[remainingK]];
+                final double deltaP2 = means[top[remainingK - 1]] - means[worst];
+                final AnchorCandidate bestArm = surviving.get(top[0]);
+                final AnchorCandidate worstArm = surviving.get(worst);
                 // Argmax
-                final AnchorCandidate removedArm = (deltaP1 >= deltaP2) ? sortedByMean.get(0) : sortedByMean.get(n - s);
+                final AnchorCandidate removedArm = (deltaP1 >= deltaP2) ? bestArm : worstArm;
                 survivingSet.remove(removedArm);
                 // If the arm was the best one, add it to accepted
-                if (removedArm == sortedByMean.get(0))
+                if (removedArm == bestArm)
                     acceptedSet.add(removedArm);
                 // Early exit case 1: the surviving set is of the same size as we are looking for
                 if (survivingSet.size() == (nrOfResults - acceptedSet.size())) {
@@ -108,16 +111,22 @@ public class BatchSAR extends AbstractBRAlgorithm {
             // Final stage: s = (n - nn + 1)
             // Choose empirical top-k' arms and add them to final accepted set
             else {
-                final List<AnchorCandidate> addedCandidates = survivingSet.stream()
-                        .sorted(Comparator.comparingDouble(AnchorCandidate::getPrecision).reversed()).limit(remainingK)
-                        .collect(Collectors.toList());
-                acceptedSet.addAll(addedCandidates);
+                final List<AnchorCandidate> surviving = new ArrayList<>(survivingSet);
+                for (final int index : MathUtils.argTopK(getMeans(surviving), remainingK))
+                    acceptedSet.add(surviving.get(index));
             }
         }
 
         return new ArrayList<>(acceptedSet);
     }
 
+    private static double[] getMeans(final List<AnchorCandidate> candidates) {
+        final double[] means = new double[candidates.size()];
+        for (int i = 0; i < means.length; i++)
+            means[i] = candidates.get(i).getPrecision();
+        return means;
+    }
+
     private int calculateM(int n, int c1, int s) {
         // Base term
         final int baseNominator = (b * batchBudget) - IntStream.rangeClosed(nn + 1, n)
@@ -2,14 +2,13 @@ package de.viadee.xai.anchor.algorithm.exploration;
 
 import de.viadee.xai.anchor.algorithm.AnchorCandidate;
 import de.viadee.xai.anchor.algorithm.execution.SamplingService;
+import de.viadee.xai.anchor.algorithm.execution.SamplingSession;
 import de.viadee.xai.anchor.algorithm.util.KLBernoulliUtils;
-import de.viadee.xai.anchor.algorithm.util.MathUtils;
 import de.viadee.xai.anchor.algorithm.util.ParameterValidation;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * Implementation of the KL LUCB algorithm by Kaufmann and Kalyanakrishnan in their publication
@@ -26,6 +25,7 @@ public class KL_LUCB implements BestAnchorIdentification {
     private static final int DEFAULT_KL_LUCB_BATCH_SIZE = 100;
 
     private final int batchSize;
+    private final int armsPerRound;
 
     /**
      * Sets the algorithm's parameters using a default batch size
@@ -49,10 +49,29 @@ public class KL_LUCB implements BestAnchorIdentification {
      * @param batchSize the amount of evaluations to obtain each round
      */
     public KL_LUCB(int batchSize) {
+        this(batchSize, 2);
+    }
+
+    /**
+     * Sets the algorithm's parameters, evaluating multiple candidates each round
+     * <p>
+     * Besides the two candidates the original algorithm evaluates, i.e. the best candidate's closest challenger and
+     * the weakest of the best candidates, the next most ambiguous candidates are evaluated. The stopping criterion
+     * remains the same. Thus, additional samples only tighten the bounds and the guarantee of the original algorithm
+     * holds. However, more samples may be taken in total.
+     *
+     * @param batchSize    the amount of evaluations to obtain each round for each evaluated candidate
+     * @param armsPerRound the amount of candidates to evaluate each round. Must be at least 2. If 0, the amount is
+     *                     matched to the sampling service's {@link SamplingService#getParallelism()}
+     */
+    public KL_LUCB(int batchSize, int armsPerRound) {
         if (!ParameterValidation.isUnsigned(batchSize))
             throw new IllegalArgumentException("Batch size must not be negative");
+        if (armsPerRound != 0 && armsPerRound < 2)
+            throw new IllegalArgumentException("Arms per round must be 0 or at least 2");
 
         this.batchSize = batchSize;
+        this.armsPerRound = armsPerRound;
     }
 
     /**
@@ -68,23 +87,79 @@ public class KL_LUCB implements BestAnchorIdentification {
      */
     static int[] updateBounds(int t, final List<AnchorCandidate> candidates, final double delta, final int topN,
                               final double[] ub, final double[] lb) {
-        final double[] means = getMultipleMeans(candidates);
-        final int[] sortedMeans = MathUtils.argSort(means);
+        return updateBounds(t, candidates, delta, new MeanRanking(getMultipleMeans(candidates), topN), ub, lb);
+    }
+
+    /**
+     * Part of the KL-LUCB algorithm updating the bounds.
+     * <p>
+     * As the confidence level changes with each iteration, all bounds get recalculated. However, the partition into
+     * the top-N candidates and the remaining ones is maintained by the ranking, which avoids sorting all candidates.
+     * Ties are resolved like a stable argsort of the means would resolve them.
+     *
+     * @param t          iteration number
+     * @param candidates current candidates
+     * @param delta      delta value
+     * @param ranking    the candidates' ranking by their current means
+     * @param ub         current upper bounds
+     * @param lb         current lower bounds
+     * @return an array with the new upper and lower bounds
+     */
+    private static int[] updateBounds(int t, final List<AnchorCandidate> candidates, final double delta,
+                                      final MeanRanking ranking, final double[] ub, final double[] lb) {
         final double beta = KLBernoulliUtils.computeBeta(candidates.size(), t, delta);
-        final int[] j = Arrays.copyOfRange(sortedMeans, means.length - topN, means.length);
-        final int[] not_j = Arrays.copyOfRange(sortedMeans, 0, means.length - topN);
-        for (int f : not_j) {
-            ub[f] = KLBernoulliUtils.dupBernoulli(means[f], beta / candidates.get(f).getSampledSize());
-        }
-        for (int f : j) {
-            lb[f] = KLBernoulliUtils.dlowBernoulli(means[f], beta / candidates.get(f).getSampledSize());
+        int ut = -1;
+        int lt = -1;
+        for (int f = 0; f < ranking.size(); f++) {
+            final double level = beta / candidates.get(f).getSampledSize();
+            if (ranking.isTop(f)) {
+                lb[f] = KLBernoulliUtils.dlowBernoulliGuided(ranking.getMean(f), level);
+                if (lt < 0 || lb[f] < lb[lt] || (lb[f] == lb[lt] && ranking.compare(f, lt) < 0))
+                    lt = f;
+            } else {
+                ub[f] = KLBernoulliUtils.dupBernoulliGuided(ranking.getMean(f), level);
+                if (ut < 0 || ub[f] > ub[ut] || (ub[f] == ub[ut] && ranking.compare(f, ut) < 0))
+                    ut = f;
+            }
         }
 
-        final int ut = (not_j.length == 0) ? 0 : not_j[MathUtils.argMax(IntStream.of(not_j)
-                .mapToDouble(localnotj -> ub[localnotj]).toArray())];
-        final int lt = j[MathUtils.argMin(IntStream.of(j).mapToDouble(localj -> lb[localj]).toArray())];
+        return new int[]{(ut < 0) ? 0 : ut, lt};
+    }
 
-        return new int[]{ut, lt};
+    /**
+     * Selects the most ambiguous candidates, alternating between the remaining candidates having the highest upper
+     * bounds and the top-N candidates having the lowest lower bounds.
+     * <p>
+     * Each selection scans all candidates. As only a few candidates are selected, this is cheaper than sorting.
+     */
+    private static int[] selectAmbiguousArms(final MeanRanking ranking, final double[] ub, final double[] lb,
+                                             final int count) {
+        final int[] result = new int[Math.min(count, ranking.size())];
+        final boolean[] selected = new boolean[ranking.size()];
+        boolean upper = true;
+        for (int i = 0; i < result.length; i++) {
+            int arm = selectMostAmbiguousArm(ranking, ub, lb, selected, upper);
+            if (arm < 0)
+                arm = selectMostAmbiguousArm(ranking, ub, lb, selected, !upper);
+            selected[arm] = true;
+            result[i] = arm;
+            upper = !upper;
+        }
+        return result;
+    }
+
+    private static int selectMostAmbiguousArm(final MeanRanking ranking, final double[] ub, final double[] lb,
+                                              final boolean[] selected, final boolean upper) {
+        int result = -1;
+        for (int f = 0; f < ranking.size(); f++) {
+            if (selected[f] || ranking.isTop(f) == upper)
+                continue;
+            if (result < 0 || (upper ? ub[f] > ub[result] : lb[f] < lb[result]))
+                result = f;
+            else if ((upper ? ub[f] == ub[result] : lb[f] == lb[result]) && ranking.compare(f, result) < 0)
+                result = f;
+        }
+        return result;
     }
 
     private static double[] getMultipleMeans(final List<AnchorCandidate> anchorCandidates) {
@@ -142,25 +217,27 @@ public class KL_LUCB implements BestAnchorIdentification {
 
         int t = 1;
 
-        int[] bounds = updateBounds(t, candidates, delta, nrOfResults, ub, lb);
+        final MeanRanking ranking = new MeanRanking(getMultipleMeans(candidates), nrOfResults);
+        int[] bounds = updateBounds(t, candidates, delta, ranking, ub, lb);
         int ut = bounds[0];
         int lt = bounds[1];
         double b = ub[ut] - lb[lt];
 
+        final int arms = (armsPerRound == 0) ? Math.max(2, samplingService.getParallelism()) : armsPerRound;
         while (b > epsilon) {
-            samplingService.createSession(explainedInstanceLabel)
-                    .registerCandidateEvaluation(candidates.get(ut), batchSize)
-                    .registerCandidateEvaluation(candidates.get(lt), batchSize)
-                    .run();
+            final int[] pulledArms = (arms <= 2) ? new int[]{ut, lt} : selectAmbiguousArms(ranking, ub, lb, arms);
+            final SamplingSession session = samplingService.createSession(explainedInstanceLabel);
+            for (final int arm : pulledArms)
+                session.registerCandidateEvaluation(candidates.get(arm), batchSize);
+            session.run();
             t++;
-            bounds = updateBounds(t, candidates, delta, nrOfResults, ub, lb);
+            for (final int arm : pulledArms)
+                ranking.update(arm, candidates.get(arm).getPrecision());
+            bounds = updateBounds(t, candidates, delta, ranking, ub, lb);
             ut = bounds[0];
             lt = bounds[1];
             b = ub[ut] - lb[lt];
         }
-        final double[] means = getMultipleMeans(candidates);
-        final int[] sortedMeans = MathUtils.argSort(means);
-        final int[] topCandidateIndices = Arrays.copyOfRange(sortedMeans, means.length - nrOfResults, means.length);
-        return Arrays.stream(topCandidateIndices).mapToObj(candidates::get).collect(Collectors.toList());
+        return Arrays.stream(ranking.getTopArms()).mapToObj(candidates::get).collect(Collectors.toList());
     }
 }
@@ -0,0 +1,205 @@
+package de.viadee.xai.anchor.algorithm.exploration;
+
+/**
+ * Maintains the partition of arms into the top-N arms by mean and the remaining arms.
+ * <p>
+ * Arms are ordered by their mean and, on ties, by their index, just like a stable ascending argsort would order
+ * them. The top arms are kept in an indexed min-heap and the remaining arms in an indexed max-heap, so that changing
+ * an arm's mean costs O(log n) instead of resorting all arms.
+ */
+final class MeanRanking {
+    private final double[] means;
+    private final boolean[] top;
+    private final IndexedHeap topArms;
+    private final IndexedHeap otherArms;
+
+    /**
+     * Creates the ranking
+     *
+     * @param means the arms' means. Copied
+     * @param topN  the amount of arms to keep in the top partition
+     */
+    MeanRanking(final double[] means, final int topN) {
+        if (topN < 0 || topN > means.length)
+            throw new IllegalArgumentException("Top N must be between 0 and the amount of arms");
+        this.means = means.clone();
+        this.top = new boolean[means.length];
+        this.topArms = new IndexedHeap(means.length, false);
+        this.otherArms = new IndexedHeap(means.length, true);
+        for (int arm = 0; arm < means.length; arm++) {
+            otherArms.add(arm);
+        }
+        for (int i = 0; i < topN; i++) {
+            final int arm = otherArms.poll();
+            top[arm] = true;
+            topArms.add(arm);
+        }
+    }
+
+    /**
+     * Compares two arms like a stable ascending argsort of their means would
+     *
+     * @param first  the first arm
+     * @param second the second arm
+     * @return a negative value if the first arm is ranked lower, a positive value if it is ranked higher
+     */
+    int compare(final int first, final int second) {
+        final int result = Double.compare(means[first], means[second]);
+        return (result != 0) ? result : Integer.compare(first, second);
+    }
+
+    /**
+     * @param arm the arm
+     * @return true, if the arm belongs to the top-N arms
+     */
+    boolean isTop(final int arm) {
+        return top[arm];
+    }
+
+    /**
+     * @param arm the arm
+     * @return the arm's mean
+     */
+    double getMean(final int arm) {
+        return means[arm];
+    }
+
+    /**
+     * @return the amount of arms
+     */
+    int size() {
+        return means.length;
+    }
+
+    /**
+     * Changes an arm's mean and restores the partition
+     *
+     * @param arm  the arm
+     * @param mean the arm's new mean
+     */
+    void update(final int arm, final double mean) {
+        if (Double.compare(means[arm], mean) == 0)
+            return;
+        means[arm] = mean;
+        if (top[arm])
+            topArms.restore(arm);
+        else
+            otherArms.restore(arm);
+
+        // A single changed arm causes at most one swap between the partitions
+        while (!topArms.isEmpty() && !otherArms.isEmpty() && compare(otherArms.peek(), topArms.peek()) > 0) {
+            final int promoted = otherArms.poll();
+            final int demoted = topArms.poll();
+            top[promoted] = true;
+            top[demoted] = false;
+            topArms.add(promoted);
+            otherArms.add(demoted);
+        }
+    }
+
+    /**
+     * @return the top arms in ascending order
+     */
+    int[] getTopArms() {
+        final int[] result = new int[topArms.size];
+        System.arraycopy(topArms.heap, 0, result, 0, result.length);
+        // Insertion sort, as only few arms are requested
+        for (int i = 1; i < result.length; i++) {
+            final int arm = result[i];
+            int j = i - 1;
+            while (j >= 0 && compare(result[j], arm) > 0) {
+                result[j + 1] = result[j];
+                j--;
+            }
+            result[j + 1] = arm;
+        }
+        return result;
+    }
+
+    /**
+     * Binary heap of arms, knowing each arm's position in order to restore the heap after an arm's mean changed
+     */
+    private final class IndexedHeap {
+        private final int[] heap;
+        private final int[] positions;
+        private final boolean max;
+        private int size;
+
+        private IndexedHeap(final int capacity, final boolean max) {
+            this.heap = new int[capacity];
+            this.positions = new int[capacity];
+            this.max = max;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private int peek() {
+            return heap[0];
+        }
+
+        private void add(final int arm) {
+            heap[size] = arm;
+            positions[arm] = size;
+            size++;
+            siftUp(size - 1);
+        }
+
+        private int poll() {
+            final int result = heap[0];
+            size--;
+            if (size > 0) {
+                move(heap[size], 0);
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private void restore(final int arm) {
+            siftDown(siftUp(positions[arm]));
+        }
+
+        /**
+         * @return true, if the first arm belongs closer to the heap's root than the second
+         */
+        private boolean precedes(final int first, final int second) {
+            final int result = compare(first, second);
+            return max ? result > 0 : result < 0;
+        }
+
+        private int siftUp(int position) {
+            final int arm = heap[position];
+            while (position > 0) {
+                final int parent = (position - 1) >>> 1;
+                if (!precedes(arm, heap[parent]))
+                    break;
+                move(heap[parent], position);
+                position = parent;
+            }
+            move(arm, position);
+            return position;
+        }
+
+        private void siftDown(int position) {
+            final int arm = heap[position];
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size)
+                    break;
+                if (child + 1 < size && precedes(heap[child + 1], heap[child]))
+                    child++;
+                if (!precedes(heap[child], arm))
+                    break;
+                move(heap[child], position);
+                position = child;
+            }
+            move(arm, position);
+        }
+
+        private void move(final int arm, final int position) {
+            heap[position] = arm;
+            positions[arm] = position;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import de.viadee.xai.anchor.algorithm.AnchorConstruction;
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBuilder;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.util.ParameterValidation;
+
+/**
+ * Provides default functionality for global explainers consuming their instances as a stream.
+ * <p>
+ * In contrast to the {@link AbstractGlobalExplainer}, neither the instances nor all of their explanations need to fit
+ * into memory. Instances are pulled from an {@link Iterator} only when a thread is available to explain them, thus
+ * at most twice as many instances as threads are held at a time. Each explanation is handed to an
+ * {@link ExplanationPicker} as soon as it is obtained, which only keeps what it needs for picking.
+ *
+ * @param <T> Type of the instance
+ */
+public abstract class AbstractStreamingGlobalExplainer<T extends DataInstance<?>> implements GlobalExplainer<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractStreamingGlobalExplainer.class);
+
+    protected final AnchorConstructionBuilder<T> constructionBuilder;
+
+    private final int maxThreads;
+
+    private final ExecutorService executorService;
+
+    /**
+     * Creates the instance.
+     *
+     * @param constructionBuilder the builder used to create instances of the {@link AnchorConstruction}
+     *                            when running the algorithm.
+     * @param maxThreads          the number of threads to obtain anchors in parallel.
+     *                            Note: if threading is enabled in the anchorConstructionBuilder, the actual
+     *                            thread count multiplies if executed locally.
+     * @param executorService     Executor to use. It gets shut down after finishing computations
+     */
+    public AbstractStreamingGlobalExplainer(AnchorConstructionBuilder<T> constructionBuilder, int maxThreads,
+                                            final ExecutorService executorService) {
+        if (constructionBuilder == null)
+            throw new IllegalArgumentException("Construction builder" + ParameterValidation.NULL_MESSAGE);
+        if (!ParameterValidation.isPositive(maxThreads))
+            throw new IllegalArgumentException("Max threads must be positive");
+        if (executorService == null)
+            throw new IllegalArgumentException("Executor service" + ParameterValidation.NULL_MESSAGE);
+        this.constructionBuilder = constructionBuilder;
+        this.maxThreads = maxThreads;
+        this.executorService = executorService;
+    }
+
+    @Override
+    public List<AnchorResult<T>> run(final List<T> instances, final int nrOfExplanationsDesired) {
+        return run(instances.iterator(), nrOfExplanationsDesired);
+    }
+
+    /**
+     * Executes the global explainer on a stream of instances.
+     *
+     * @param instances               the instances to obtain explanations for
+     * @param nrOfExplanationsDesired the max result number to generate
+     * @return a {@link List} of {@link AnchorResult}s
+     */
+    public List<AnchorResult<T>> run(final Spliterator<T> instances, final int nrOfExplanationsDesired) {
+        return run(Spliterators.iterator(instances), nrOfExplanationsDesired);
+    }
+
+    /**
+     * Executes the global explainer on a stream of instances.
+     * <p>
+     * Explanations are picked in the order they are completed, which depends on the threads' scheduling.
+     *
+     * @param instances               the instances to obtain explanations for. Only advanced when a thread is free
+     * @param nrOfExplanationsDesired the max result number to generate
+     * @return a {@link List} of {@link AnchorResult}s
+     */
+    public List<AnchorResult<T>> run(final Iterator<T> instances, final int nrOfExplanationsDesired) {
+        final ExplanationPicker<T> picker = createPicker(nrOfExplanationsDesired);
+        final CompletionService<AnchorResult<T>> completionService = new ExecutorCompletionService<>(executorService);
+        final int maxInFlight = 2 * maxThreads;
+        final long startTime = System.currentTimeMillis();
+        int explainedCount = 0;
+        int inFlight = 0;
+        try {
+            while (instances.hasNext() || inFlight > 0) {
+                while (instances.hasNext() && inFlight < maxInFlight) {
+                    final T instance = instances.next();
+                    completionService.submit(() -> ThreadedBatchExplainer.obtainAnchor(
+                            AnchorConstructionBuilder.buildForSP(constructionBuilder, instance)));
+                    inFlight++;
+                }
+                final AnchorResult<T> explanation = completionService.take().get();
+                inFlight--;
+                explainedCount++;
+                if (explanation != null)
+                    picker.accept(explanation);
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            LOGGER.error("Thread interrupted", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            executorService.shutdown();
+        }
+        LOGGER.info("Took {} ms for streaming {} explanations", (System.currentTimeMillis() - startTime),
+                explainedCount);
+
+        return picker.pick();
+    }
+
+    /**
+     * Creates the picker consuming the explanations of a single run
+     *
+     * @param nrOfExplanationsDesired desired number of explanations to pick
+     * @return the picker
+     */
+    abstract ExplanationPicker<T> createPicker(final int nrOfExplanationsDesired);
+
+    /**
+     * Consumes explanations one by one and picks the most relevant ones in the end
+     *
+     * @param <T> Type of the instance
+     */
+    interface ExplanationPicker<T extends DataInstance<?>> {
+
+        /**
+         * Consumes an explanation. Only called by a single thread
+         *
+         * @param explanation the explanation
+         */
+        void accept(AnchorResult<T> explanation);
+
+        /**
+         * @return the picked explanations
+         */
+        List<AnchorResult<T>> pick();
+    }
+
+    /**
+     * An explanation reduced to the columns it covers, which is all a sieve needs for picking
+     *
+     * @param <T> Type of the instance
+     */
+    static final class ColumnExplanation<T extends DataInstance<?>> {
+        final AnchorResult<T> result;
+        final int[] columns;
+
+        ColumnExplanation(final AnchorResult<T> result, final int[] columns) {
+            this.result = result;
+            this.columns = columns;
+        }
+    }
+}
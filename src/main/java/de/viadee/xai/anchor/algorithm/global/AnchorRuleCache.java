@@ -0,0 +1,119 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.AnchorConstruction;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+
+/**
+ * Caches validated anchors in order to reuse them for other instances of the same label.
+ * <p>
+ * An anchor is a rule of feature value predicates. Hence, an anchor found for one instance also applies to all
+ * instances sharing these feature values and the label. Each anchor gets indexed by its label and the value of one of
+ * its features. Thus, finding a covering anchor for an instance only requires looking up its feature values instead
+ * of scanning all anchors.
+ * <p>
+ * Optionally, a cached anchor's precision is verified for the new instance by only sampling the anchor's rule, which
+ * is still considerably cheaper than a full {@link AnchorConstruction}. Otherwise, reused results are not marked as
+ * anchors and do not report any precision, so that the {@link SubmodularPick} attributes no importance to their
+ * features.
+ * <p>
+ * Which anchors get cached depends on the order in which constructions complete. When explaining instances in
+ * parallel, both the results and the explanations picked from them may thus differ between runs.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <T> Type of the explained instance
+ */
+public class AnchorRuleCache<T extends DataInstance<?>> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnchorRuleCache.class);
+
+    private final boolean verifyPrecision;
+
+    private final Map<Integer, Map<FeatureValue, List<AnchorResult<T>>>> anchorsByLabel = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the instance.
+     *
+     * @param verifyPrecision if set true, cached anchors are verified for each instance they get reused for by
+     *                        sampling their rule. Otherwise, only their rule and coverage are reused and the
+     *                        results are not marked as anchors
+     */
+    public AnchorRuleCache(final boolean verifyPrecision) {
+        this.verifyPrecision = verifyPrecision;
+    }
+
+    /**
+     * Adds a result to the cache, if it is an anchor
+     *
+     * @param anchorResult the result
+     */
+    public void add(final AnchorResult<T> anchorResult) {
+        if (anchorResult == null || !anchorResult.isAnchor())
+            return;
+        // Each anchor is indexed by its first feature's value only. All other features are checked on lookup
+        final int feature = anchorResult.getCanonicalFeatures().first();
+        anchorsByLabel.computeIfAbsent(anchorResult.getLabel(), label -> new ConcurrentHashMap<>())
+                .computeIfAbsent(new FeatureValue(feature, anchorResult.getInstance().getValue(feature)),
+                        featureValue -> new CopyOnWriteArrayList<>())
+                .add(anchorResult);
+    }
+
+    /**
+     * Finds all cached anchors applying to an instance
+     *
+     * @param instance the instance
+     * @param label    the instance's label
+     * @return the anchors whose feature values the instance shares, ordered by descending coverage
+     */
+    public List<AnchorResult<T>> findCoveringAnchors(final T instance, final int label) {
+        final List<AnchorResult<T>> result = new ArrayList<>();
+        final Map<FeatureValue, List<AnchorResult<T>>> anchors = anchorsByLabel.get(label);
+        if (anchors == null)
+            return result;
+        for (int feature = 0; feature < instance.getFeatureCount(); feature++) {
+            final List<AnchorResult<T>> indexedAnchors = anchors.get(
+                    new FeatureValue(feature, instance.getValue(feature)));
+            if (indexedAnchors == null)
+                continue;
+            for (final AnchorResult<T> anchor : indexedAnchors) {
+                if (anchor.getCanonicalFeatures().stream().allMatch(anchorFeature ->
+                        anchorFeature < instance.getFeatureCount() && Objects.equals(
+                                instance.getValue(anchorFeature), anchor.getInstance().getValue(anchorFeature))))
+                    result.add(anchor);
+            }
+        }
+        result.sort(Comparator.comparing(AnchorCandidate::getCoverage).reversed());
+        return result;
+    }
+
+    /**
+     * Tries to explain a construction's instance using a cached anchor
+     *
+     * @param anchorConstruction the construction readied for the instance
+     * @return the result for the construction's instance or null, if no cached anchor applies or could be verified
+     */
+    public AnchorResult<T> explain(final AnchorConstruction<T> anchorConstruction) {
+        final T instance = anchorConstruction.getExplainedInstance();
+        final int label = anchorConstruction.getExplainedInstanceLabel();
+        for (final AnchorResult<T> anchor : findCoveringAnchors(instance, label)) {
+            final AnchorResult<T> result = (verifyPrecision) ? anchorConstruction.verifyAnchor(anchor)
+                    : anchorConstruction.adoptAnchor(anchor);
+            if (result != null) {
+                LOGGER.debug("Reusing anchor {} for instance {}", anchor.getCanonicalFeatures(), instance);
+                return result;
+            }
+        }
+        return null;
+    }
+}
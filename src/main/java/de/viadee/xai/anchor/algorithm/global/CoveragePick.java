@@ -2,8 +2,11 @@ package de.viadee.xai.anchor.algorithm.global;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
 import org.slf4j.Logger;
@@ -61,40 +64,66 @@ public class CoveragePick<T extends DataInstance<?>> extends AbstractGlobalExpla
         this.includeTargetValue = includeTargetValue;
     }
 
+    /**
+     * Creates the key of an explanation's feature value. Two explanations conflict if they share a key
+     *
+     * @param explanation        the explanation
+     * @param feature            the explanation's feature
+     * @param includeTargetValue if true, explanations only conflict if they share the label as well
+     * @return the key
+     */
+    static Object conflictKey(final AnchorResult<?> explanation, final int feature, final boolean includeTargetValue) {
+        final FeatureValue featureValue = new FeatureValue(feature, explanation.getInstance().getValue(feature));
+        return (includeTargetValue) ? Arrays.asList(explanation.getLabel(), featureValue) : featureValue;
+    }
+
     @Override
     List<AnchorResult<T>> pickExplanations(AnchorResult<T>[] explanations, int nrOfExplanationsDesired) {
-        final List<AnchorResult<T>> survivors = new ArrayList<>(Arrays.asList(explanations));
-        final List<AnchorResult<T>> result = new ArrayList<>();
-
-        for (int i = 0; i < nrOfExplanationsDesired; i++) {
-            // Find element with best coverage
-            ListIterator<AnchorResult<T>> iter = survivors.listIterator();
-            double bestCoverage = -1;
-            int bestIndex = -1;
-            while (iter.hasNext()) {
-                final AnchorResult<T> current = iter.next();
-                if (current.getCoverage() > bestCoverage) {
-                    bestCoverage = current.getCoverage();
-                    bestIndex = iter.previousIndex();
-                }
+        // Inverted index of each feature value to the explanations containing it. Thus, eliminating the explanations
+        // conflicting with a pick only touches these instead of rescanning all survivors
+        final Map<Object, List<Integer>> explanationsByKey = new HashMap<>();
+        final Object[][] keys = new Object[explanations.length][];
+        for (int i = 0; i < explanations.length; i++) {
+            final Set<Integer> features = explanations[i].getCanonicalFeatures();
+            keys[i] = new Object[features.size()];
+            int j = 0;
+            for (final int feature : features) {
+                keys[i][j] = conflictKey(explanations[i], feature, includeTargetValue);
+                explanationsByKey.computeIfAbsent(keys[i][j], key -> new ArrayList<>()).add(i);
+                j++;
             }
-            if (bestIndex < 0)
+        }
+
+        // Best coverage first, ties resolved by the explanations' order. Eliminated ones are skipped when polled
+        final PriorityQueue<Integer> survivors = new PriorityQueue<>(Math.max(1, explanations.length),
+                (first, second) -> {
+                    final int result = Double.compare(explanations[second].getCoverage(),
+                            explanations[first].getCoverage());
+                    return (result != 0) ? result : Integer.compare(first, second);
+                });
+        for (int i = 0; i < explanations.length; i++) {
+            if (!explanations[i].getCoverage().isNaN())
+                survivors.add(i);
+        }
+        final boolean[] eliminated = new boolean[explanations.length];
+
+        final List<AnchorResult<T>> result = new ArrayList<>();
+        while (result.size() < nrOfExplanationsDesired) {
+            Integer bestIndex = survivors.poll();
+            while (bestIndex != null && eliminated[bestIndex])
+                bestIndex = survivors.poll();
+            if (bestIndex == null)
                 break;
 
-            final AnchorResult<T> bestExplanation = survivors.remove(bestIndex);
-            result.add(bestExplanation);
+            eliminated[bestIndex] = true;
+            result.add(explanations[bestIndex]);
 
-            // Now remove all other explanations from survivors that contain features of the best explanation
-            iter = survivors.listIterator();
-            while (iter.hasNext()) {
-                final AnchorResult<T> current = iter.next();
-                final boolean hasSameLabel = !includeTargetValue || bestExplanation.getLabel() == current.getLabel();
-                final boolean hasSameFeatureValue = current.getCanonicalFeatures().stream().anyMatch(feature ->
-                        bestExplanation.getCanonicalFeatures().contains(feature) && current.getInstance()
-                                .getValue(feature).equals(bestExplanation.getInstance().getValue(feature)));
-                if (hasSameLabel && hasSameFeatureValue) {
-                    iter.remove();
-                }
+            // Now remove all other explanations from survivors that contain feature values of the best explanation
+            for (final Object key : keys[bestIndex]) {
+                final List<Integer> conflicting = explanationsByKey.remove(key);
+                if (conflicting != null)
+                    for (final int index : conflicting)
+                        eliminated[index] = true;
             }
         }
 
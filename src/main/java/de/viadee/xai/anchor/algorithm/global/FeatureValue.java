@@ -0,0 +1,42 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.Objects;
+
+/**
+ * A feature's value, i.e. the predicate an anchor's feature poses on the instances it applies to
+ */
+final class FeatureValue {
+    private final int feature;
+    private final Object value;
+
+    /**
+     * Creates the instance
+     *
+     * @param feature the feature
+     * @param value   the feature's value
+     */
+    FeatureValue(final int feature, final Object value) {
+        this.feature = feature;
+        this.value = value;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        final FeatureValue that = (FeatureValue) o;
+        return feature == that.feature && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * feature + Objects.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return feature + "=" + value;
+    }
+}
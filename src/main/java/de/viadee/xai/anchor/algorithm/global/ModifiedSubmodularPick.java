@@ -67,6 +67,20 @@ public class ModifiedSubmodularPick<T extends DataInstance<?>> extends Submodula
         super(batchExplainer, constructionBuilder);
     }
 
+    /**
+     * Creates an instance of the {@link SubmodularPick}.
+     *
+     * @param lazyGreedy          if set true, the greedy selection lazily re-evaluates explanations based on their
+     *                            previous marginal gain
+     * @param batchExplainer      the {@link BatchExplainer} to be used to obtain multiple explanations
+     * @param constructionBuilder the builder used to create instances of the {@link AnchorConstruction}
+     *                            when running the algorithm.
+     */
+    public ModifiedSubmodularPick(boolean lazyGreedy, BatchExplainer<T> batchExplainer,
+                                  AnchorConstructionBuilder<T> constructionBuilder) {
+        super(lazyGreedy, batchExplainer, constructionBuilder);
+    }
+
     @Override
     protected CreateFeatureToColumnMapResult createFeatureToColumnMap(AnchorResult<T>[] anchorResults) {
         final AtomicInteger uniqueIndex = new AtomicInteger();
@@ -0,0 +1,148 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.viadee.xai.anchor.algorithm.util.ParameterValidation;
+
+/**
+ * Sieve-streaming maximization of a monotone submodular coverage objective under a cardinality constraint, as
+ * proposed by Badanidiyuru et al. (2014).
+ * <p>
+ * Elements are seen once and in arbitrary order. For each guess v = (1 + epsilon)^i of the optimal value between the
+ * largest singleton value m and 2 * k * m, a sieve keeps at most k elements. An element is added to a sieve if its
+ * marginal gain is at least (v / 2 - f(S)) / (k - |S|). The best sieve achieves a (1/2 - epsilon) approximation while
+ * only keeping O(k * log(k) / epsilon) elements in memory.
+ * <p>
+ * The objective is defined by the elements' columns: a sieve tracks the columns covered by its elements and the
+ * {@link Objective} computes an element's marginal gain given these.
+ *
+ * @param <E> Type of the streamed elements
+ */
+final class SieveStreaming<E> {
+    private final Objective<E> objective;
+    private final int maxSize;
+    private final double logBase;
+    private final TreeMap<Integer, Sieve<E>> sieves = new TreeMap<>();
+    private double maxSingletonValue = 0;
+
+    /**
+     * Creates the instance
+     *
+     * @param objective the objective to maximize
+     * @param maxSize   the maximum amount of elements to select, i.e. k
+     * @param epsilon   the approximation parameter. Smaller values require more sieves
+     */
+    SieveStreaming(final Objective<E> objective, final int maxSize, final double epsilon) {
+        if (objective == null)
+            throw new IllegalArgumentException("Objective" + ParameterValidation.NULL_MESSAGE);
+        if (!ParameterValidation.isUnsigned(maxSize))
+            throw new IllegalArgumentException("Max size" + ParameterValidation.NEGATIVE_VALUE_MESSAGE);
+        this.objective = objective;
+        this.maxSize = maxSize;
+        this.logBase = Math.log(1 + checkEpsilon(epsilon));
+    }
+
+    /**
+     * Validates the approximation parameter. Lets explainers creating sieves lazily reject it early
+     *
+     * @param epsilon the approximation parameter
+     * @return the approximation parameter
+     * @throws IllegalArgumentException if epsilon is not within (0, 1]
+     */
+    static double checkEpsilon(final double epsilon) {
+        if (!ParameterValidation.isPercentage(epsilon) || epsilon == 0)
+            throw new IllegalArgumentException("Epsilon" + ParameterValidation.NOT_PERCENTAGE_MESSAGE);
+        return epsilon;
+    }
+
+    /**
+     * Offers an element to all sieves
+     *
+     * @param element the element
+     */
+    void offer(final E element) {
+        if (maxSize == 0)
+            return;
+        final double singletonValue = objective.marginalGain(element, new BitSet());
+        if (singletonValue > maxSingletonValue) {
+            maxSingletonValue = singletonValue;
+            updateThresholds();
+        }
+
+        for (final Map.Entry<Integer, Sieve<E>> entry : sieves.entrySet()) {
+            final Sieve<E> sieve = entry.getValue();
+            if (sieve.elements.size() >= maxSize)
+                continue;
+            final double threshold = (Math.exp(entry.getKey() * logBase) / 2 - sieve.value)
+                    / (maxSize - sieve.elements.size());
+            final double gain = objective.marginalGain(element, sieve.coveredColumns);
+            if (gain > 0 && gain >= threshold) {
+                sieve.elements.add(element);
+                for (final int column : objective.getColumns(element))
+                    sieve.coveredColumns.set(column);
+                sieve.value += gain;
+            }
+        }
+    }
+
+    /**
+     * Keeps one sieve per guess in [m, 2 * k * m]. Sieves whose guess fell below m are discarded, new ones start
+     * empty
+     */
+    private void updateThresholds() {
+        final int lowest = (int) Math.ceil(Math.log(maxSingletonValue) / logBase);
+        final int highest = (int) Math.floor(Math.log(2 * maxSize * maxSingletonValue) / logBase);
+        final Iterator<Integer> iterator = sieves.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() < lowest)
+                iterator.remove();
+        }
+        for (int i = lowest; i <= highest; i++)
+            sieves.computeIfAbsent(i, key -> new Sieve<>());
+    }
+
+    /**
+     * @return the elements of the sieve having the highest objective value in order of their selection
+     */
+    List<E> getBestSelection() {
+        Sieve<E> best = null;
+        for (final Sieve<E> sieve : sieves.values()) {
+            if (best == null || sieve.value > best.value)
+                best = sieve;
+        }
+        return (best == null) ? Collections.emptyList() : Collections.unmodifiableList(best.elements);
+    }
+
+    /**
+     * Defines the objective in terms of covered columns
+     *
+     * @param <E> Type of the streamed elements
+     */
+    interface Objective<E> {
+
+        /**
+         * @param element the element
+         * @return the columns covered by the element
+         */
+        int[] getColumns(E element);
+
+        /**
+         * @param element        the element
+         * @param coveredColumns the columns covered by a sieve's elements
+         * @return the value the element adds to the sieve. Values not greater than zero reject the element
+         */
+        double marginalGain(E element, BitSet coveredColumns);
+    }
+
+    private static final class Sieve<E> {
+        private final List<E> elements = new ArrayList<>();
+        private final BitSet coveredColumns = new BitSet();
+        private double value = 0;
+    }
+}
@@ -0,0 +1,129 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Importance matrix of the {@link SubmodularPick} stored in compressed sparse row (CSR) format.
+ * <p>
+ * Each explanation only has an importance for the few columns its anchor's features map to, whereas the amount of
+ * columns may reach hundreds of thousands when mapping feature values to columns. Hence, only nonzero cells are
+ * stored, and all aggregations run in O(nnz).
+ */
+final class SparseImportanceMatrix {
+    private final int columnCount;
+    private int rowCount;
+    private int[] rowOffsets;
+    private int[] columns;
+    private double[] values;
+
+    /**
+     * Creates an empty matrix
+     *
+     * @param columnCount  the amount of columns
+     * @param expectedRows the expected amount of rows, used to size the internal arrays
+     */
+    SparseImportanceMatrix(final int columnCount, final int expectedRows) {
+        if (columnCount < 0 || expectedRows < 0)
+            throw new IllegalArgumentException("Matrix dimensions must not be negative");
+        this.columnCount = columnCount;
+        this.rowOffsets = new int[expectedRows + 1];
+        this.columns = new int[Math.max(1, expectedRows)];
+        this.values = new double[columns.length];
+    }
+
+    /**
+     * Appends a row. Cells not greater than zero are not stored
+     *
+     * @param rowColumns the columns of the row's cells
+     * @param rowValues  the values of the row's cells
+     */
+    void addRow(final int[] rowColumns, final double[] rowValues) {
+        if (rowColumns.length != rowValues.length)
+            throw new IllegalArgumentException("Columns and values must be of same length");
+        if (rowCount + 2 > rowOffsets.length)
+            rowOffsets = Arrays.copyOf(rowOffsets, Math.max(rowCount + 2, rowOffsets.length * 2));
+        int nonZeroCount = rowOffsets[rowCount];
+        if (nonZeroCount + rowColumns.length > columns.length) {
+            final int capacity = Math.max(nonZeroCount + rowColumns.length, columns.length * 2);
+            columns = Arrays.copyOf(columns, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        for (int i = 0; i < rowColumns.length; i++) {
+            if (rowColumns[i] < 0 || rowColumns[i] >= columnCount)
+                throw new IllegalArgumentException("Column " + rowColumns[i] + " is out of bounds");
+            if (rowValues[i] <= 0)
+                continue;
+            columns[nonZeroCount] = rowColumns[i];
+            values[nonZeroCount] = rowValues[i];
+            nonZeroCount++;
+        }
+        rowCount++;
+        rowOffsets[rowCount] = nonZeroCount;
+    }
+
+    /**
+     * @return the amount of rows
+     */
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the amount of columns
+     */
+    int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * @return the amount of stored, i.e. nonzero, cells
+     */
+    int getNonZeroCount() {
+        return rowOffsets[rowCount];
+    }
+
+    /**
+     * Flattens the matrix to the average importance of each column
+     *
+     * @return the column importance
+     */
+    double[] columnMeans() {
+        final double[] columnImportance = new double[columnCount];
+        if (rowCount == 0)
+            return columnImportance;
+        for (int i = 0; i < getNonZeroCount(); i++)
+            columnImportance[columns[i]] += values[i];
+        for (int column = 0; column < columnCount; column++)
+            columnImportance[column] /= rowCount;
+        return columnImportance;
+    }
+
+    /**
+     * Calculates the importance a row would add to the already covered columns
+     *
+     * @param row              the row
+     * @param columnImportance the column importance
+     * @param coveredColumns   the columns covered by the already selected rows
+     * @return the marginal gain
+     */
+    double marginalGain(final int row, final double[] columnImportance, final BitSet coveredColumns) {
+        double gain = 0;
+        for (int i = rowOffsets[row]; i < rowOffsets[row + 1]; i++) {
+            if (!coveredColumns.get(columns[i]))
+                gain += columnImportance[columns[i]];
+        }
+        return gain;
+    }
+
+    /**
+     * Marks a row's nonzero columns as covered
+     *
+     * @param row            the row
+     * @param coveredColumns the covered columns to add the row's columns to
+     */
+    void cover(final int row, final BitSet coveredColumns) {
+        for (int i = rowOffsets[row]; i < rowOffsets[row + 1]; i++)
+            coveredColumns.set(columns[i]);
+    }
+}
@@ -0,0 +1,127 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.AnchorConstruction;
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBuilder;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+
+/**
+ * Streaming variant of the {@link CoveragePick}, selecting explanations by sieve-streaming.
+ * <p>
+ * Like the {@link CoveragePick}, only explanations not sharing any feature value are combined, so that their coverage
+ * is additive. Each feature value is mapped to a column and an explanation is only added to a sieve if none of its
+ * columns is covered yet. Only the explanations selected by any sieve are kept in memory.
+ *
+ * @param <T> Type of the explained instance
+ */
+public class StreamingCoveragePick<T extends DataInstance<?>> extends AbstractStreamingGlobalExplainer<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingCoveragePick.class);
+
+    private static final double DEFAULT_EPSILON = 0.1;
+
+    private final boolean includeTargetValue;
+
+    private final double epsilon;
+
+    /**
+     * Creates the instance.
+     *
+     * @param constructionBuilder the builder used to create instances of the {@link AnchorConstruction}
+     *                            when running the algorithm.
+     * @param maxThreads          the number of threads to obtain anchors in parallel.
+     * @param executorService     Executor to use. It gets shut down after finishing computations
+     */
+    public StreamingCoveragePick(AnchorConstructionBuilder<T> constructionBuilder, int maxThreads,
+                                 final ExecutorService executorService) {
+        this(false, DEFAULT_EPSILON, constructionBuilder, maxThreads, executorService);
+    }
+
+    /**
+     * Creates the instance.
+     *
+     * @param includeTargetValue  if set true, the algorithm will consider target value like feature values.
+     *                            However, this causes the coverage to be only addable within each target value class
+     * @param epsilon             the sieve-streaming approximation parameter. Smaller values result in more sieves
+     *                            being kept, each holding up to nrOfExplanationsDesired explanations
+     * @param constructionBuilder the builder used to create instances of the {@link AnchorConstruction}
+     *                            when running the algorithm.
+     * @param maxThreads          the number of threads to obtain anchors in parallel.
+     * @param executorService     Executor to use. It gets shut down after finishing computations
+     */
+    public StreamingCoveragePick(boolean includeTargetValue, double epsilon,
+                                 AnchorConstructionBuilder<T> constructionBuilder, int maxThreads,
+                                 final ExecutorService executorService) {
+        super(constructionBuilder, maxThreads, executorService);
+        this.includeTargetValue = includeTargetValue;
+        this.epsilon = SieveStreaming.checkEpsilon(epsilon);
+    }
+
+    @Override
+    ExplanationPicker<T> createPicker(final int nrOfExplanationsDesired) {
+        return new SievePicker(nrOfExplanationsDesired);
+    }
+
+    /**
+     * Maps feature values to columns and keeps the sieves
+     */
+    private final class SievePicker implements ExplanationPicker<T>, SieveStreaming.Objective<ColumnExplanation<T>> {
+        private final Map<Object, Integer> featureValueToColumnMap = new HashMap<>();
+        private final SieveStreaming<ColumnExplanation<T>> sieveStreaming;
+        private int explanationCount = 0;
+
+        private SievePicker(final int nrOfExplanationsDesired) {
+            this.sieveStreaming = new SieveStreaming<>(this, Math.max(0, nrOfExplanationsDesired), epsilon);
+        }
+
+        @Override
+        public void accept(final AnchorResult<T> explanation) {
+            final int[] explanationColumns = new int[explanation.getCanonicalFeatures().size()];
+            int i = 0;
+            for (final int feature : explanation.getCanonicalFeatures()) {
+                explanationColumns[i++] = featureValueToColumnMap.computeIfAbsent(
+                        CoveragePick.conflictKey(explanation, feature, includeTargetValue),
+                        k -> featureValueToColumnMap.size());
+            }
+            explanationCount++;
+            sieveStreaming.offer(new ColumnExplanation<>(explanation, explanationColumns));
+        }
+
+        @Override
+        public int[] getColumns(final ColumnExplanation<T> element) {
+            return element.columns;
+        }
+
+        @Override
+        public double marginalGain(final ColumnExplanation<T> element, final BitSet coveredColumns) {
+            for (final int column : element.columns) {
+                if (coveredColumns.get(column))
+                    return 0;
+            }
+            final Double coverage = element.result.getCoverage();
+            return (coverage == null || coverage.isNaN()) ? 0 : coverage;
+        }
+
+        @Override
+        public List<AnchorResult<T>> pick() {
+            final List<AnchorResult<T>> result = new ArrayList<>();
+            for (final ColumnExplanation<T> explanation : sieveStreaming.getBestSelection())
+                result.add(explanation.result);
+            result.sort(Comparator.comparing(AnchorCandidate::getCoverage).reversed());
+            final double resultCoverage = result.stream().mapToDouble(AnchorCandidate::getCoverage).sum();
+            LOGGER.info("The returned {} of {} streamed results exclusively cover a total of {}% of the model's input",
+                    result.size(), explanationCount, resultCoverage);
+            return result;
+        }
+    }
+}
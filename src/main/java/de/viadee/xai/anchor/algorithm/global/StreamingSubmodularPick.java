@@ -0,0 +1,215 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import de.viadee.xai.anchor.algorithm.AnchorConstruction;
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBuilder;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.util.ParameterValidation;
+
+/**
+ * Streaming variant of the {@link SubmodularPick} (and {@link ModifiedSubmodularPick}), selecting explanations by
+ * sieve-streaming instead of the greedy algorithm.
+ * <p>
+ * The greedy algorithm requires all explanations in order to compute the column importance upfront. Instead, this
+ * class estimates the column importance from a warm-up prefix of the stream. The estimate is frozen before any
+ * explanation is offered to the sieves, as sieve-streaming requires the objective not to change. Afterwards, only the
+ * explanations selected by any sieve are kept, along with their columns. Columns first seen after the warm-up do not
+ * add any importance.
+ * <p>
+ * The result approximates the optimum of the estimated objective by a factor of (1/2 - epsilon). If the stream is not
+ * longer than the warm-up, this is the objective of the {@link SubmodularPick}. Otherwise, the estimate is only as
+ * good as the prefix is representative, so instances should be streamed in random order.
+ *
+ * @param <T> Type of the explained instance
+ */
+public class StreamingSubmodularPick<T extends DataInstance<?>> extends AbstractStreamingGlobalExplainer<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingSubmodularPick.class);
+
+    private static final double DEFAULT_EPSILON = 0.1;
+
+    private static final int DEFAULT_WARM_UP_SIZE = 1000;
+
+    private final boolean includeFeatureValues;
+
+    private final double epsilon;
+
+    private final int warmUpSize;
+
+    /**
+     * Creates the instance.
+     *
+     * @param constructionBuilder the builder used to create instances of the {@link AnchorConstruction}
+     *                            when running the algorithm.
+     * @param maxThreads          the number of threads to obtain anchors in parallel.
+     * @param executorService     Executor to use. It gets shut down after finishing computations
+     */
+    public StreamingSubmodularPick(AnchorConstructionBuilder<T> constructionBuilder, int maxThreads,
+                                   final ExecutorService executorService) {
+        this(false, DEFAULT_EPSILON, constructionBuilder, maxThreads, executorService);
+    }
+
+    /**
+     * Creates the instance.
+     *
+     * @param includeFeatureValues if set true, each feature value gets its own column, like in the
+     *                             {@link ModifiedSubmodularPick}
+     * @param epsilon              the sieve-streaming approximation parameter. Smaller values result in more sieves
+     *                             being kept, each holding up to nrOfExplanationsDesired explanations
+     * @param constructionBuilder  the builder used to create instances of the {@link AnchorConstruction}
+     *                             when running the algorithm.
+     * @param maxThreads           the number of threads to obtain anchors in parallel.
+     * @param executorService      Executor to use. It gets shut down after finishing computations
+     */
+    public StreamingSubmodularPick(boolean includeFeatureValues, double epsilon,
+                                   AnchorConstructionBuilder<T> constructionBuilder, int maxThreads,
+                                   final ExecutorService executorService) {
+        this(includeFeatureValues, epsilon, DEFAULT_WARM_UP_SIZE, constructionBuilder, maxThreads, executorService);
+    }
+
+    /**
+     * Creates the instance.
+     *
+     * @param includeFeatureValues if set true, each feature value gets its own column, like in the
+     *                             {@link ModifiedSubmodularPick}
+     * @param epsilon              the sieve-streaming approximation parameter. Smaller values result in more sieves
+     *                             being kept, each holding up to nrOfExplanationsDesired explanations
+     * @param warmUpSize           the amount of explanations the column importance is estimated from. These are kept in
+     *                             memory until the estimate is frozen
+     * @param constructionBuilder  the builder used to create instances of the {@link AnchorConstruction}
+     *                             when running the algorithm.
+     * @param maxThreads           the number of threads to obtain anchors in parallel.
+     * @param executorService      Executor to use. It gets shut down after finishing computations
+     */
+    public StreamingSubmodularPick(boolean includeFeatureValues, double epsilon, int warmUpSize,
+                                   AnchorConstructionBuilder<T> constructionBuilder, int maxThreads,
+                                   final ExecutorService executorService) {
+        super(constructionBuilder, maxThreads, executorService);
+        if (!ParameterValidation.isPositive(warmUpSize))
+            throw new IllegalArgumentException("Warm-up size must be positive");
+        this.includeFeatureValues = includeFeatureValues;
+        this.epsilon = SieveStreaming.checkEpsilon(epsilon);
+        this.warmUpSize = warmUpSize;
+    }
+
+    @Override
+    ExplanationPicker<T> createPicker(final int nrOfExplanationsDesired) {
+        return new SievePicker(nrOfExplanationsDesired);
+    }
+
+    /**
+     * Estimates the column importance during the warm-up and keeps the sieves afterwards
+     */
+    private final class SievePicker implements ExplanationPicker<T>, SieveStreaming.Objective<ColumnExplanation<T>> {
+        private final Map<Object, Integer> featureToColumnMap = new HashMap<>();
+        private final SieveStreaming<ColumnExplanation<T>> sieveStreaming;
+        private List<ColumnExplanation<T>> warmUp = new ArrayList<>();
+        private double[] columnSums = new double[16];
+        private double[] columnImportance = null;
+        private int explanationCount = 0;
+
+        private SievePicker(final int nrOfExplanationsDesired) {
+            this.sieveStreaming = new SieveStreaming<>(this, Math.max(0, nrOfExplanationsDesired), epsilon);
+        }
+
+        @Override
+        public void accept(final AnchorResult<T> explanation) {
+            final List<Integer> features = explanation.getOrderedFeatures();
+            final int[] columns = new int[features.size()];
+            int columnCount = 0;
+            for (final int feature : features) {
+                final double importance = SubmodularPick.computeFeatureImportance(explanation, feature);
+                // Features without importance do not cover their column
+                if (importance <= 0)
+                    continue;
+                final Object key = (includeFeatureValues)
+                        ? new FeatureValue(feature, explanation.getInstance().getValue(feature))
+                        : feature;
+                if (columnImportance != null) {
+                    // Columns unknown to the frozen estimate have no importance
+                    final Integer column = featureToColumnMap.get(key);
+                    if (column != null)
+                        columns[columnCount++] = column;
+                    continue;
+                }
+                final int column = featureToColumnMap.computeIfAbsent(key, k -> featureToColumnMap.size());
+                if (column >= columnSums.length)
+                    columnSums = Arrays.copyOf(columnSums, Math.max(column + 1, columnSums.length * 2));
+                columnSums[column] += importance;
+                columns[columnCount++] = column;
+            }
+            explanationCount++;
+            final ColumnExplanation<T> columnExplanation = new ColumnExplanation<>(explanation,
+                    Arrays.copyOf(columns, columnCount));
+            if (columnImportance != null) {
+                sieveStreaming.offer(columnExplanation);
+                return;
+            }
+            warmUp.add(columnExplanation);
+            if (warmUp.size() >= warmUpSize)
+                freezeImportance();
+        }
+
+        /**
+         * Fixes the column importance estimated so far and offers the warm-up explanations to the sieves
+         */
+        private void freezeImportance() {
+            columnImportance = new double[featureToColumnMap.size()];
+            for (int column = 0; column < columnImportance.length; column++)
+                columnImportance[column] = columnSums[column] / warmUp.size();
+            LOGGER.debug("Estimated the importance of {} columns from {} explanations", columnImportance.length,
+                    warmUp.size());
+            for (final ColumnExplanation<T> explanation : warmUp)
+                sieveStreaming.offer(explanation);
+            warmUp = null;
+        }
+
+        @Override
+        public int[] getColumns(final ColumnExplanation<T> element) {
+            return element.columns;
+        }
+
+        @Override
+        public double marginalGain(final ColumnExplanation<T> element, final BitSet coveredColumns) {
+            double gain = 0;
+            for (final int column : element.columns) {
+                if (!coveredColumns.get(column))
+                    gain += columnImportance[column];
+            }
+            return gain;
+        }
+
+        @Override
+        public List<AnchorResult<T>> pick() {
+            if (columnImportance == null)
+                freezeImportance();
+            final List<ColumnExplanation<T>> bestSelection = sieveStreaming.getBestSelection();
+            final List<AnchorResult<T>> result = new ArrayList<>(bestSelection.size());
+            for (final ColumnExplanation<T> explanation : bestSelection)
+                result.add(explanation.result);
+            LOGGER.info("Picked {} of {} streamed explanations with an estimated coverage of {}", result.size(),
+                    explanationCount, coverage(bestSelection));
+            return result;
+        }
+
+        private double coverage(final List<ColumnExplanation<T>> selection) {
+            final BitSet coveredColumns = new BitSet();
+            double coverage = 0;
+            for (final ColumnExplanation<T> explanation : selection) {
+                coverage += marginalGain(explanation, coveredColumns);
+                for (final int column : explanation.columns)
+                    coveredColumns.set(column);
+            }
+            return coverage;
+        }
+    }
+}
@@ -1,13 +1,10 @@
 package de.viadee.xai.anchor.algorithm.global;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ExecutorService;
 
 import org.slf4j.Logger;
@@ -33,10 +30,15 @@ import de.viadee.xai.anchor.algorithm.execution.ExecutorServiceSupplier;
  * <li>Flatten this matrix to obtain feature importance of a whole feature</li>
  * <li>Now select explanations s.t. they optimize these values using a greedy algorithm</li>
  * </ol>
+ * <p>
+ * The greedy selection may optionally be evaluated lazily, which selects the same explanations but recomputes far
+ * fewer marginal gains on large amounts of explanations.
  */
 public class SubmodularPick<T extends DataInstance<?>> extends AbstractGlobalExplainer<T> {
     private static final Logger LOGGER = LoggerFactory.getLogger(SubmodularPick.class);
 
+    private final boolean lazyGreedy;
+
     /**
      * Creates the instance.
      *
@@ -53,6 +55,7 @@ public class SubmodularPick<T extends DataInstance<?>> extends AbstractGlobalExp
                           final ExecutorService executorService,
                           final ExecutorServiceSupplier executorServiceSupplier) {
         super(constructionBuilder, maxThreads, executorService, executorServiceSupplier);
+        this.lazyGreedy = false;
     }
 
     /**
@@ -72,6 +75,7 @@ public class SubmodularPick<T extends DataInstance<?>> extends AbstractGlobalExp
                           final ExecutorService executorService,
                           final ExecutorServiceFunction executorServiceFunction) {
         super(constructionBuilder, maxThreads, executorService, executorServiceFunction);
+        this.lazyGreedy = false;
     }
 
     /**
@@ -82,31 +86,23 @@ public class SubmodularPick<T extends DataInstance<?>> extends AbstractGlobalExp
      *                            when running the algorithm.
      */
     public SubmodularPick(BatchExplainer<T> batchExplainer, AnchorConstructionBuilder<T> constructionBuilder) {
-        super(batchExplainer, constructionBuilder);
+        this(false, batchExplainer, constructionBuilder);
     }
 
     /**
-     * Flatten matrix to see how important each column is. Results in importance matrix I
+     * Creates the instance.
      *
-     * @param importanceMatrix the importance matrix
-     * @return the column importance I
+     * @param lazyGreedy          if set true, the greedy selection lazily re-evaluates explanations based on their
+     *                            previous marginal gain. This yields the same result but is considerably faster for
+     *                            large amounts of explanations
+     * @param batchExplainer      the {@link BatchExplainer} to be used to obtain multiple explanations
+     * @param constructionBuilder the builder used to create instances of the {@link AnchorConstruction}
+     *                            when running the algorithm.
      */
-    private double[] createColumnImportance(double[][] importanceMatrix) {
-        final double[] columnImportances = new double[importanceMatrix[0].length];
-        // Loop columns
-        for (int columnIndex = 0; columnIndex < importanceMatrix[0].length; columnIndex++) {
-            double currentImportance = 0;
-            // Loop rows
-            for (final double[] row : importanceMatrix) {
-                // Only count, if feature has any importance in this row
-                final double cellValue = row[columnIndex];
-                currentImportance += cellValue;
-            }
-            // ColImportance = average over all rows
-            columnImportances[columnIndex] = currentImportance / importanceMatrix.length;
-        }
-
-        return columnImportances;
+    public SubmodularPick(boolean lazyGreedy, BatchExplainer<T> batchExplainer,
+                          AnchorConstructionBuilder<T> constructionBuilder) {
+        super(batchExplainer, constructionBuilder);
+        this.lazyGreedy = lazyGreedy;
     }
 
     /**
@@ -120,7 +116,7 @@ public class SubmodularPick<T extends DataInstance<?>> extends AbstractGlobalExp
      * @param feature      the feature being examined
      * @return an importance value
      */
-    private double computeFeatureImportance(AnchorResult<T> anchorResult, int feature) {
+    static double computeFeatureImportance(AnchorCandidate anchorResult, int feature) {
         // Searches for the parent in which the features has been added and extracts its added feature value
         AnchorCandidate current = anchorResult;
         do {
@@ -142,17 +138,23 @@ public class SubmodularPick<T extends DataInstance<?>> extends AbstractGlobalExp
         final CreateFeatureToColumnMapResult createFeatureToColumnMapResult = createFeatureToColumnMap(explanations);
         final Map<Integer, ?> featureToColumnMap = createFeatureToColumnMapResult.map;
 
-        // 3. Calculate cell importance matrix, which later gets transformed to importance matrix
-        final double[][] importanceMatrix = new double[explanations.length][createFeatureToColumnMapResult.columnCount];
-        for (int i = 0; i < explanations.length; i++) {
-            for (final int feature : explanations[i].getOrderedFeatures()) {
-                importanceMatrix[i][getCandidateFeatureIndex(featureToColumnMap, explanations[i], feature)] =
-                        computeFeatureImportance(explanations[i], feature);
+        // 3. Calculate cell importance matrix, which later gets transformed to importance matrix.
+        // Each explanation only covers the columns of its own features, so the matrix is stored sparsely
+        final SparseImportanceMatrix importanceMatrix = new SparseImportanceMatrix(
+                createFeatureToColumnMapResult.columnCount, explanations.length);
+        for (final AnchorResult<T> explanation : explanations) {
+            final List<Integer> features = explanation.getOrderedFeatures();
+            final int[] columns = new int[features.size()];
+            final double[] importances = new double[features.size()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = getCandidateFeatureIndex(featureToColumnMap, explanation, features.get(i));
+                importances[i] = computeFeatureImportance(explanation, features.get(i));
             }
+            importanceMatrix.addRow(columns, importances);
         }
 
         // 4. Flatten matrix to see how important each column is. Results in importance matrix I
-        final double[] columnImportance = createColumnImportance(importanceMatrix);
+        final double[] columnImportance = importanceMatrix.columnMeans();
 
         return greedyPick(nrOfExplanationsDesired, explanations, importanceMatrix, columnImportance);
     }
@@ -187,37 +189,23 @@ public class SubmodularPick<T extends DataInstance<?>> extends AbstractGlobalExp
     }
 
     private List<AnchorResult<T>> greedyPick(final int nrOfExplanationsDesired, final AnchorResult<T>[] anchorResults,
-                                             final double[][] importanceMatrix, final double[] columnImportance) {
+                                             final SparseImportanceMatrix importanceMatrix,
+                                             final double[] columnImportance) {
         // 5. Greedy SP algorithm
-        final Set<Integer> selectedIndices = new LinkedHashSet<>();
-        final Set<AnchorResult> remainingResults = new HashSet<>(Arrays.asList(anchorResults));
-        double previousBestCoverage = 0;
-        for (int i = 0; i < Math.min(nrOfExplanationsDesired, anchorResults.length); i++) {
-            double bestCoverage = 0;
-            Integer bestIndex = null;
-            for (AnchorResult anchorResult : remainingResults) {
-                final int anchorResultIndex = Arrays.asList(anchorResults).indexOf(anchorResult);
-                final double[] colSums = SubmodularPickUtils.colSum(importanceMatrix, selectedIndices, anchorResultIndex);
-                final double coverage = SubmodularPickUtils.multiply(colSums, columnImportance);
-                if (coverage > bestCoverage) {
-                    bestIndex = anchorResultIndex;
-                    bestCoverage = coverage;
-                }
-            }
-            if (bestIndex == null)
-                break;
-
-            LOGGER.info("Adding candidate {} adding coverage of {}, totalling to {}",
-                    anchorResults[bestIndex].getCanonicalFeatures(),
-                    (bestCoverage - previousBestCoverage), bestCoverage);
-            previousBestCoverage = bestCoverage;
-            selectedIndices.add(bestIndex);
-            remainingResults.remove(anchorResults[bestIndex]);
-        }
+        final int[] selectedIndices = SubmodularPickUtils.greedyCover(importanceMatrix, columnImportance,
+                nrOfExplanationsDesired, lazyGreedy);
 
+        final BitSet coveredColumns = new BitSet(columnImportance.length);
         final List<AnchorResult<T>> result = new ArrayList<>();
-        for (final Integer idx : selectedIndices)
+        double coverage = 0;
+        for (final int idx : selectedIndices) {
+            final double addedCoverage = importanceMatrix.marginalGain(idx, columnImportance, coveredColumns);
+            importanceMatrix.cover(idx, coveredColumns);
+            coverage += addedCoverage;
+            LOGGER.info("Adding candidate {} adding coverage of {}, totalling to {}",
+                    anchorResults[idx].getCanonicalFeatures(), addedCoverage, coverage);
             result.add(anchorResults[idx]);
+        }
         return result;
     }
 
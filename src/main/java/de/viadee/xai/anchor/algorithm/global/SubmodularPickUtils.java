@@ -24,40 +24,95 @@ final class SubmodularPickUtils {
     }
 
     /**
-     * Multiplied the column importance and the column sum
+     * Greedily selects rows maximizing the summed importance of the columns they cover.
+     * <p>
+     * A row covers each column it has a nonzero importance in. Instead of recomputing the column sums of all
+     * selected rows for every candidate, the covered columns are kept in a bitset and a row's marginal gain is derived
+     * from its own nonzero cells only. Ties are resolved in favour of the lower row index.
+     * <p>
+     * The lazy mode exploits submodularity: a row's gain can only decrease as more columns get covered. Hence, the
+     * rows are kept in a priority queue ordered by their last computed gain, which is an upper bound of their current
+     * gain. Only the top row's gain is recomputed until it stays on top. Both modes select the same rows.
      *
-     * @param colSums          the colSum obtains by {@link SubmodularPickUtils#colSum(double[][], Collection, int)}
+     * @param importanceMatrix the importance matrix
      * @param columnImportance the column importance
-     * @return the result
+     * @param count            the maximum amount of rows to select
+     * @param lazy             whether to use lazy evaluation
+     * @return the selected rows' indices in order of selection
      */
-    static double multiply(double[] colSums, double[] columnImportance) {
-        double result = 0;
-        for (int i = 0; i < colSums.length; i++) {
-            if (colSums[i] <= 0)
-                continue;
-            result += columnImportance[i];
+    static int[] greedyCover(final SparseImportanceMatrix importanceMatrix, final double[] columnImportance,
+                             final int count, final boolean lazy) {
+        final int maxCount = Math.max(0, Math.min(count, importanceMatrix.getRowCount()));
+        return (lazy)
+                ? lazyGreedyCover(importanceMatrix, columnImportance, maxCount)
+                : eagerGreedyCover(importanceMatrix, columnImportance, maxCount);
+    }
+
+    private static int[] eagerGreedyCover(final SparseImportanceMatrix importanceMatrix,
+                                          final double[] columnImportance, final int count) {
+        final BitSet coveredColumns = new BitSet(columnImportance.length);
+        final boolean[] selected = new boolean[importanceMatrix.getRowCount()];
+        final int[] result = new int[count];
+        double coverage = 0;
+        int selectedCount = 0;
+        while (selectedCount < count) {
+            int bestRow = -1;
+            double bestGain = -1;
+            for (int row = 0; row < importanceMatrix.getRowCount(); row++) {
+                if (selected[row])
+                    continue;
+                final double gain = importanceMatrix.marginalGain(row, columnImportance, coveredColumns);
+                if (gain > bestGain) {
+                    bestRow = row;
+                    bestGain = gain;
+                }
+            }
+            // Nothing is picked as long as no row covers any importance
+            if (bestRow < 0 || coverage + bestGain <= 0)
+                break;
+            selected[bestRow] = true;
+            importanceMatrix.cover(bestRow, coveredColumns);
+            coverage += bestGain;
+            result[selectedCount++] = bestRow;
         }
-        return result;
+        return Arrays.copyOf(result, selectedCount);
     }
 
-    /**
-     * Calculates the column sum
-     *
-     * @param matrix                 the explanation matrix
-     * @param previouslySelectedRows the already selected rows
-     * @param additionalIndex        the index to be considered adding
-     * @return the target array to be multiplied with the column importance
-     */
-    static double[] colSum(double[][] matrix, Collection<Integer> previouslySelectedRows, int additionalIndex) {
-        final Set<Integer> indices = new HashSet<>(previouslySelectedRows);
-        indices.add(additionalIndex);
+    private static int[] lazyGreedyCover(final SparseImportanceMatrix importanceMatrix,
+                                         final double[] columnImportance, final int count) {
+        final int rowCount = importanceMatrix.getRowCount();
+        final BitSet coveredColumns = new BitSet(columnImportance.length);
+        final double[] gainBounds = new double[rowCount];
+        final int[] evaluatedInRound = new int[rowCount];
+        final PriorityQueue<Integer> queue = new PriorityQueue<>(Math.max(1, rowCount), (first, second) -> {
+            final int result = Double.compare(gainBounds[second], gainBounds[first]);
+            return (result != 0) ? result : Integer.compare(first, second);
+        });
+        for (int row = 0; row < rowCount; row++) {
+            gainBounds[row] = importanceMatrix.marginalGain(row, columnImportance, coveredColumns);
+            queue.add(row);
+        }
 
-        double[] result = new double[matrix[0].length];
-        for (int col = 0; col < result.length; col++) {
-            for (final int row : indices) {
-                result[col] += matrix[row][col];
+        final int[] result = new int[count];
+        double coverage = 0;
+        int selectedCount = 0;
+        int round = 0;
+        while (selectedCount < count && !queue.isEmpty()) {
+            final int row = queue.poll();
+            if (evaluatedInRound[row] != round) {
+                // Stale bound: recompute and reinsert. The row is chosen once it remains on top
+                gainBounds[row] = importanceMatrix.marginalGain(row, columnImportance, coveredColumns);
+                evaluatedInRound[row] = round;
+                queue.add(row);
+                continue;
             }
+            if (coverage + gainBounds[row] <= 0)
+                break;
+            importanceMatrix.cover(row, coveredColumns);
+            coverage += gainBounds[row];
+            result[selectedCount++] = row;
+            round++;
         }
-        return result;
+        return Arrays.copyOf(result, selectedCount);
     }
 }
@@ -9,12 +9,12 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 
 /**
  * Default batch explainer using threads to obtain multiple results
@@ -34,6 +34,8 @@ public class ThreadedBatchExplainer<T extends DataInstance<?>> implements BatchE
 
     private final ExecutorServiceFunction executorServiceFunction;
 
+    private transient AnchorRuleCache<T> anchorRuleCache;
+
     /**
      * Creates an instance of the {@link ThreadedBatchExplainer}
      *
@@ -45,10 +47,28 @@ public class ThreadedBatchExplainer<T extends DataInstance<?>> implements BatchE
      */
     public ThreadedBatchExplainer(final int maxThreads, final ExecutorService executorService,
                                   final ExecutorServiceFunction executorServiceFunction) {
+        this(maxThreads, executorService, executorServiceFunction, null);
+    }
+
+    /**
+     * Creates an instance of the {@link ThreadedBatchExplainer}
+     *
+     * @param maxThreads              the max threads
+     * @param executorService         Executor to use - if this one is not clustered, this instance will be closed after
+     *                                finishing computations
+     * @param executorServiceFunction used when this class is serialized (e. g. clustering). maxThreads is used as
+     *                                parameter
+     * @param anchorRuleCache         the cache used to reuse anchors of previously explained instances. May be null.
+     *                                Not serialized
+     */
+    public ThreadedBatchExplainer(final int maxThreads, final ExecutorService executorService,
+                                  final ExecutorServiceFunction executorServiceFunction,
+                                  final AnchorRuleCache<T> anchorRuleCache) {
         this.maxThreads = maxThreads;
         this.executorService = executorService;
         this.executorServiceFunction = executorServiceFunction;
         this.executorServiceSupplier = null;
+        this.anchorRuleCache = anchorRuleCache;
     }
 
     /**
@@ -61,10 +81,27 @@ public class ThreadedBatchExplainer<T extends DataInstance<?>> implements BatchE
      */
     public ThreadedBatchExplainer(final int maxThreads, final ExecutorService executorService,
                                   final ExecutorServiceSupplier executorServiceSupplier) {
+        this(maxThreads, executorService, executorServiceSupplier, null);
+    }
+
+    /**
+     * Creates an instance of the {@link ThreadedBatchExplainer}
+     *
+     * @param maxThreads              the max threads
+     * @param executorService         Executor to use - if this one is not clustered, this instance will be closed after
+     *                                finishing computations
+     * @param executorServiceSupplier used when this class is serialized (e. g. clustering)
+     * @param anchorRuleCache         the cache used to reuse anchors of previously explained instances. May be null.
+     *                                Not serialized
+     */
+    public ThreadedBatchExplainer(final int maxThreads, final ExecutorService executorService,
+                                  final ExecutorServiceSupplier executorServiceSupplier,
+                                  final AnchorRuleCache<T> anchorRuleCache) {
         this.maxThreads = maxThreads;
         this.executorService = executorService;
         this.executorServiceFunction = null;
         this.executorServiceSupplier = executorServiceSupplier;
+        this.anchorRuleCache = anchorRuleCache;
     }
 
     /**
@@ -77,7 +114,7 @@ public class ThreadedBatchExplainer<T extends DataInstance<?>> implements BatchE
      * @param <T>                type of the explained instance
      * @return the explanation result
      */
-    private static <T extends DataInstance<?>> AnchorResult<T> obtainAnchor(final AnchorConstruction<T> anchorConstruction) {
+    static <T extends DataInstance<?>> AnchorResult<T> obtainAnchor(final AnchorConstruction<T> anchorConstruction) {
         try {
             final AnchorResult<T> anchorResult = anchorConstruction.constructAnchor(false);
             if (!anchorResult.isAnchor()) {
@@ -92,16 +129,21 @@ public class ThreadedBatchExplainer<T extends DataInstance<?>> implements BatchE
         }
     }
 
+    /**
+     * Explains each instance in a separate task.
+     * <p>
+     * As explanation costs vary strongly between instances, instances are not split statically among threads.
+     * Instead, at most twice as many tasks as threads are in flight and a new task is submitted whenever one
+     * completes. Thus, idle threads pick up the remaining instances. The results keep the instances' order.
+     * <p>
+     * If an {@link AnchorRuleCache} is set, instances covered by an anchor already found are not explained again.
+     * As the cached anchors depend on the order in which tasks complete, results may then differ between runs.
+     */
     @Override
     public AnchorResult<T>[] obtainAnchors(AnchorConstructionBuilder<T> anchorConstructionBuilder, List<T> instances) {
-        // TODO may re add changes of branche fix-parallelization
-        final List<List<T>> splitLists = SubmodularPickUtils.splitList(instances,
-                instances.size() / this.maxThreads);
-        final Collection<AnchorResult<T>> threadResults = new ArrayList<>();
-        List<Callable<List<AnchorResult<T>>>> callables = new ArrayList<>();
-        for (final List<T> list : splitLists) {
-            callables.add(new AnchorCallable(anchorConstructionBuilder, list));
-        }
+        @SuppressWarnings("unchecked")
+        final AnchorResult<T>[] results = (AnchorResult<T>[]) new AnchorResult[instances.size()];
+        final int maxInFlight = 2 * Math.max(1, this.maxThreads);
 
         ExecutorService executorService = null;
         try {
@@ -115,9 +157,18 @@ public class ThreadedBatchExplainer<T extends DataInstance<?>> implements BatchE
                 throw new NullPointerException("ExecutorService, Supplier and Function are null");
             }
 
-            List<Future<List<AnchorResult<T>>>> resultLists = executorService.invokeAll(callables);
-            for (Future<List<AnchorResult<T>>> future : resultLists) {
-                threadResults.addAll(future.get());
+            final CompletionService<Integer> completionService = new ExecutorCompletionService<>(executorService);
+            int submitted = 0;
+            int inFlight = 0;
+            while (submitted < instances.size() || inFlight > 0) {
+                while (submitted < instances.size() && inFlight < maxInFlight) {
+                    completionService.submit(new AnchorCallable(anchorConstructionBuilder, instances, submitted,
+                            results));
+                    submitted++;
+                    inFlight++;
+                }
+                completionService.take().get();
+                inFlight--;
             }
         } catch (InterruptedException | ExecutionException e) {
             LOGGER.error("Thread interrupted", e);
@@ -128,37 +179,52 @@ public class ThreadedBatchExplainer<T extends DataInstance<?>> implements BatchE
             }
         }
 
+        final List<AnchorResult<T>> threadResults = new ArrayList<>();
+        for (final AnchorResult<T> result : results) {
+            if (result != null) {
+                threadResults.add(result);
+            }
+        }
         //noinspection unchecked
         return threadResults.toArray((AnchorResult<T>[]) new AnchorResult[0]);
     }
 
-    private class AnchorCallable implements Callable<List<AnchorResult<T>>> {
-        private final List<T> list;
+    private class AnchorCallable implements Callable<Integer> {
         private final AnchorConstructionBuilder<T> anchorConstructionBuilder;
+        private final List<T> instances;
+        private final int index;
+        private final AnchorResult<T>[] results;
 
-        AnchorCallable(AnchorConstructionBuilder<T> anchorConstructionBuilder, List<T> list) {
-            this.list = list;
+        AnchorCallable(AnchorConstructionBuilder<T> anchorConstructionBuilder, List<T> instances, int index,
+                       AnchorResult<T>[] results) {
             this.anchorConstructionBuilder = anchorConstructionBuilder;
+            this.instances = instances;
+            this.index = index;
+            this.results = results;
         }
 
         @Override
-        public List<AnchorResult<T>> call() {
-            List<AnchorResult<T>> localResult = new ArrayList<>();
-            for (final T instance : this.list) {
-                // This section needs to be synchronized as to prevent racing conditions
-                AnchorConstruction<T> anchorConstruction = AnchorConstructionBuilder
-                        .buildForSP(this.anchorConstructionBuilder, instance);
-                final AnchorResult<T> result = obtainAnchor(anchorConstruction);
-                if (result != null) {
-                    localResult.add(result);
+        public Integer call() {
+            AnchorConstruction<T> anchorConstruction = AnchorConstructionBuilder
+                    .buildForSP(this.anchorConstructionBuilder, instances.get(index));
+            // Each task writes its own slot only. Completion is observed via the completion service
+            if (anchorRuleCache != null) {
+                final AnchorResult<T> cachedResult = anchorRuleCache.explain(anchorConstruction);
+                if (cachedResult != null) {
+                    results[index] = cachedResult;
+                    return index;
                 }
             }
-            return localResult;
+            results[index] = obtainAnchor(anchorConstruction);
+            if (anchorRuleCache != null)
+                anchorRuleCache.add(results[index]);
+            return index;
         }
     }
 
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
         this.executorService = null;
+        this.anchorRuleCache = null;
     }
 }
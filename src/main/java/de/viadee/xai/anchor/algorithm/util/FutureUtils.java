@@ -0,0 +1,32 @@
+package de.viadee.xai.anchor.algorithm.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Provides utilities for the asynchronous execution API
+ */
+public final class FutureUtils {
+
+    private FutureUtils() {
+    }
+
+    /**
+     * Runs a computation on the calling thread and wraps its outcome in an already completed future.
+     * <p>
+     * Used by default implementations of asynchronous methods that do not support asynchrony themselves.
+     *
+     * @param computation the computation
+     * @param <V>         the computation's result type
+     * @return a future completed with the computation's result or its {@link RuntimeException}
+     */
+    public static <V> CompletableFuture<V> completeSynchronously(final Supplier<V> computation) {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        try {
+            result.complete(computation.get());
+        } catch (final RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+}
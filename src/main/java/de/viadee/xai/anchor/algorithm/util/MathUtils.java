@@ -1,7 +1,6 @@
 package de.viadee.xai.anchor.algorithm.util;
 
 import java.util.Arrays;
-import java.util.stream.Stream;
 
 /**
  * Provides some basic math utils so we don't have to depend on third party libraries
@@ -27,18 +26,125 @@ public final class MathUtils {
      * Argsort function
      * <p>
      * "Which index would belong where if the array was sorted?"
+     * <p>
+     * The sort is stable, i.e. indices of equal values keep their ascending order in both directions.
      *
      * @param a         the array
      * @param ascending if true, ascending. Descending otherwise
      * @return the array sorted by its indices
      */
     public static int[] argSort(final double[] a, final boolean ascending) {
-        final Integer[] indexes = new Integer[a.length];
+        final int[] indexes = new int[a.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        mergeSort(a, ascending, indexes, indexes.clone(), 0, indexes.length);
+        return indexes;
+    }
+
+    /**
+     * Returns the indices of the k highest values, in the order {@link #argSort(double[], boolean)} would list them
+     * descending.
+     * <p>
+     * Selects the values in expected linear time and only sorts the selected ones.
+     *
+     * @param a the array
+     * @param k the amount of indices to return
+     * @return the indices of the k highest values, highest first
+     */
+    public static int[] argTopK(final double[] a, final int k) {
+        return argSelect(a, k, false);
+    }
+
+    /**
+     * Returns the indices of the k lowest values, in the order {@link #argSort(double[], boolean)} would list them
+     * ascending.
+     *
+     * @param a the array
+     * @param k the amount of indices to return
+     * @return the indices of the k lowest values, lowest first
+     * @see #argTopK(double[], int)
+     */
+    public static int[] argBottomK(final double[] a, final int k) {
+        return argSelect(a, k, true);
+    }
+
+    private static int[] argSelect(final double[] a, final int k, final boolean ascending) {
+        if (k < 0 || k > a.length)
+            throw new IllegalArgumentException("k must be between 0 and the array's length");
+        final int[] indexes = new int[a.length];
         for (int i = 0; i < indexes.length; i++) {
             indexes[i] = i;
         }
-        Arrays.sort(indexes, (i1, i2) -> (ascending ? 1 : -1) * Double.compare(a[i1], a[i2]));
-        return Stream.of(indexes).mapToInt(i -> i).toArray();
+        // Quickselect, moving the k first indexes of the sorted order to the front
+        int from = 0;
+        int to = indexes.length;
+        while (k > from && k < to && to - from > 1) {
+            final int pivot = indexes[medianOfThree(a, ascending, indexes, from, (from + to) >>> 1, to - 1)];
+            int lower = from;
+            int upper = to - 1;
+            while (lower <= upper) {
+                while (precedes(a, ascending, indexes[lower], pivot))
+                    lower++;
+                while (precedes(a, ascending, pivot, indexes[upper]))
+                    upper--;
+                if (lower <= upper)
+                    swap(indexes, lower++, upper--);
+            }
+            if (k <= upper + 1)
+                to = upper + 1;
+            else if (k >= lower)
+                from = lower;
+            else
+                break;
+        }
+        final int[] result = Arrays.copyOf(indexes, k);
+        mergeSort(a, ascending, result, result.clone(), 0, k);
+        return result;
+    }
+
+    /**
+     * Defines the total order of indexes. Equal values are ordered by their index
+     */
+    private static boolean precedes(final double[] a, final boolean ascending, final int first, final int second) {
+        final int result = (ascending) ? Double.compare(a[first], a[second]) : Double.compare(a[second], a[first]);
+        return result < 0 || (result == 0 && first < second);
+    }
+
+    private static int medianOfThree(final double[] a, final boolean ascending, final int[] indexes,
+                                     final int first, final int second, final int third) {
+        final int x = indexes[first];
+        final int y = indexes[second];
+        final int z = indexes[third];
+        if (precedes(a, ascending, x, y))
+            return precedes(a, ascending, y, z) ? second : (precedes(a, ascending, x, z) ? third : first);
+        return precedes(a, ascending, x, z) ? first : (precedes(a, ascending, y, z) ? third : second);
+    }
+
+    private static void swap(final int[] array, final int i, final int j) {
+        final int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    /**
+     * Stable merge sort of indexes by their values. The buffer needs to contain the same indexes as the target range
+     */
+    private static void mergeSort(final double[] a, final boolean ascending, final int[] target, final int[] buffer,
+                                  final int from, final int to) {
+        if (to - from < 2)
+            return;
+        final int middle = (from + to) >>> 1;
+        mergeSort(a, ascending, buffer, target, from, middle);
+        mergeSort(a, ascending, buffer, target, middle, to);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && !precedes(a, ascending, buffer[right], buffer[left])))
+                target[i] = buffer[left++];
+            else
+                target[i] = buffer[right++];
+        }
     }
 
     /**
@@ -62,9 +168,11 @@ public final class MathUtils {
     }
 
     private static int argExtreme(final double[] ar, final boolean max) {
-        double value = (max) ? Double.MIN_VALUE : Double.MAX_VALUE;
-        int index = -1;
-        for (int i = 0; i < ar.length; i++) {
+        if (ar.length == 0)
+            return -1;
+        double value = ar[0];
+        int index = 0;
+        for (int i = 1; i < ar.length; i++) {
             if ((max && ar[i] > value) || (!max && ar[i] < value)) {
                 value = ar[i];
                 index = i;
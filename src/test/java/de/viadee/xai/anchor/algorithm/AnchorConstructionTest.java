@@ -1,15 +1,20 @@
 package de.viadee.xai.anchor.algorithm;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AnchorConstructionTest {
 
@@ -17,9 +22,17 @@ class AnchorConstructionTest {
     private static List<AnchorCandidate> generateCandidateSet(final List<AnchorCandidate> previousBest,
                                                               final int featureCount,
                                                               final double minCoverage) throws Exception {
+        return generateCandidateSet(previousBest, featureCount, minCoverage, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<AnchorCandidate> generateCandidateSet(final List<AnchorCandidate> previousBest,
+                                                              final int featureCount,
+                                                              final double minCoverage,
+                                                              final boolean parallel) throws Exception {
         final AnchorConstruction constructor = new AnchorConstructionBuilder<>(t -> 0,
                 (s, t) -> new PerturbationFunction.PerturbationResultImpl(new Object[0], new boolean[0][0]),
-                new IntegerDataInstance()).build();
+                new IntegerDataInstance()).setParallelCandidateGeneration(parallel).build();
 
         Method method = AnchorConstruction.class.getDeclaredMethod("generateCandidateSet", List.class, int.class,
                 double.class);
@@ -27,6 +40,83 @@ class AnchorConstructionTest {
         return (List<AnchorCandidate>) method.invoke(constructor, previousBest, featureCount, minCoverage);
     }
 
+    @Test
+    public void testBudgetTruncatesConstruction() {
+        final int featureCount = 5;
+        final Random random = new Random(42);
+        final PerturbationFunction<IntegerDataInstance> perturbationFunction = (immutableFeatures, count) -> {
+            final IntegerDataInstance[] instances = new IntegerDataInstance[count];
+            final boolean[][] featureChanged = new boolean[count][featureCount];
+            for (int i = 0; i < count; i++) {
+                instances[i] = new IntegerDataInstance(new int[featureCount]);
+                for (int feature = 0; feature < featureCount; feature++)
+                    featureChanged[i][feature] = !immutableFeatures.contains(feature) && random.nextBoolean();
+            }
+            return new PerturbationFunction.PerturbationResultImpl<>(instances, featureChanged);
+        };
+        // A model predicting at random never lets any candidate's bounds settle
+        final AnchorResult<IntegerDataInstance> result = new AnchorConstructionBuilder<>(
+                instance -> random.nextInt(2), perturbationFunction, new IntegerDataInstance(new int[featureCount]), 0)
+                .setInitSampleCount(10)
+                .setTauDiscrepancy(0)
+                .setBudget(AnchorConstructionBudget.ofSamples(2000))
+                .build()
+                .constructAnchor();
+
+        assertTrue(result.isTruncated());
+        assertFalse(result.isAnchor());
+        assertTrue(result.getSampledSize() > 0);
+    }
+
+    @Test
+    public void testListenerCancelsConstruction() {
+        final int featureCount = 4;
+        final List<Integer> completedRounds = new ArrayList<>();
+        final List<AnchorCandidate> foundAnchors = new ArrayList<>();
+        final AnchorConstructionListener listener = new AnchorConstructionListener() {
+            @Override
+            public void onRoundCompleted(int anchorSize, List<AnchorCandidate> bestCandidates) {
+                completedRounds.add(anchorSize);
+            }
+
+            @Override
+            public void onAnchorFound(AnchorCandidate anchor) {
+                foundAnchors.add(anchor);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return !completedRounds.isEmpty();
+            }
+        };
+        // Features 0 and 1 both need to be fixed for a correct prediction
+        final PerturbationFunction<IntegerDataInstance> perturbationFunction = (immutableFeatures, count) -> {
+            final IntegerDataInstance[] instances = new IntegerDataInstance[count];
+            final boolean[][] featureChanged = new boolean[count][featureCount];
+            for (int i = 0; i < count; i++) {
+                final int[] values = new int[featureCount];
+                for (int feature = 0; feature < featureCount; feature++) {
+                    featureChanged[i][feature] = !immutableFeatures.contains(feature) && i % 2 == 0;
+                    values[feature] = featureChanged[i][feature] ? 1 : 0;
+                }
+                instances[i] = new IntegerDataInstance(values);
+            }
+            return new PerturbationFunction.PerturbationResultImpl<>(instances, featureChanged);
+        };
+        final AnchorResult<IntegerDataInstance> result = new AnchorConstructionBuilder<>(
+                instance -> instance.getInstance()[0] + instance.getInstance()[1], perturbationFunction,
+                new IntegerDataInstance(new int[featureCount]), 0)
+                .setInitSampleCount(100)
+                .setListener(listener)
+                .build()
+                .constructAnchor();
+
+        assertEquals(Collections.singletonList(1), completedRounds);
+        assertTrue(foundAnchors.isEmpty());
+        assertTrue(result.isTruncated());
+        assertEquals(1, result.getFeatureSet().size());
+    }
+
     private static AnchorCandidate candidate(int... features) {
         return new AnchorCandidate(IntStream.of(features).boxed().collect(Collectors.toSet()));
     }
@@ -43,6 +133,19 @@ class AnchorConstructionTest {
         assertEquals(generateCandidateSet(Arrays.asList(candidate(1, 2, 3), candidate(1, 2, 3, 4)), 10, 0).size(), 13);
     }
 
+    @Test
+    public void testGenerateCandidatesInParallel() throws Exception {
+        final List<AnchorCandidate> previousBest = Arrays.asList(candidate(1, 2, 3), candidate(1, 2, 4),
+                candidate(5), candidate(1, 2, 3, 4));
+        final List<AnchorCandidate> sequential = generateCandidateSet(previousBest, 50, 0, false);
+        final List<AnchorCandidate> parallel = generateCandidateSet(previousBest, 50, 0, true);
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getOrderedFeatures(), parallel.get(i).getOrderedFeatures());
+            assertSame(sequential.get(i).getParentCandidate(), parallel.get(i).getParentCandidate());
+        }
+    }
+
     private static class IntegerDataInstance implements DataInstance<int[]> {
         private static final long serialVersionUID = -8505052889913449802L;
 
@@ -0,0 +1,64 @@
+package de.viadee.xai.anchor.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the columnar representation of perturbations
+ */
+class ColumnarPerturbationResultTest {
+
+    @Test
+    void marksChangedAcrossWords() {
+        final ColumnarPerturbationResult result = new ColumnarPerturbationResult();
+        result.reset(2, 130);
+        result.setValue(1, 129, 4.5);
+        result.markChanged(1, 129);
+        result.markChanged(0, 63);
+        result.markChanged(0, 64);
+
+        assertEquals(2, result.getFeatureCount());
+        assertEquals(130, result.getRowCount());
+        assertEquals(4.5, result.getValue(1, 129));
+        assertEquals(4.5, result.getColumn(1)[129]);
+        assertTrue(result.isChanged(0, 63));
+        assertTrue(result.isChanged(0, 64));
+        assertFalse(result.isChanged(0, 65));
+        assertFalse(result.isChanged(1, 1));
+        assertTrue(result.isChanged(1, 129));
+
+        final boolean[][] featureChanged = result.toFeatureChanged();
+        assertEquals(130, featureChanged.length);
+        assertArrayEquals(new boolean[]{true, false}, featureChanged[64]);
+        assertArrayEquals(new boolean[]{false, true}, featureChanged[129]);
+    }
+
+    @Test
+    void clearsMarkersOnReset() {
+        final ColumnarPerturbationResult result = new ColumnarPerturbationResult();
+        result.reset(3, 100);
+        result.markChanged(2, 99);
+        result.reset(2, 70);
+        assertFalse(result.isChanged(1, 64));
+        result.markChanged(1, 64);
+
+        // Growing reallocates, starting without markers
+        result.reset(4, 200);
+        assertEquals(4, result.getFeatureCount());
+        for (int feature = 0; feature < 4; feature++)
+            for (int row = 0; row < 200; row++)
+                assertFalse(result.isChanged(feature, row));
+    }
+
+    @Test
+    void rejectsNegativeSizes() {
+        final ColumnarPerturbationResult result = new ColumnarPerturbationResult();
+        assertThrows(IllegalArgumentException.class, () -> result.reset(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> result.reset(1, -10));
+    }
+}
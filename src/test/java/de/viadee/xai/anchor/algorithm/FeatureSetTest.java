@@ -0,0 +1,65 @@
+package de.viadee.xai.anchor.algorithm;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ensures the primitive feature set behaves like the collections it replaces
+ */
+class FeatureSetTest {
+
+    @Test
+    void containsAndOrder() {
+        final FeatureSet features = FeatureSet.of(130, 3, 64, 3);
+        assertEquals(3, features.size());
+        assertTrue(features.contains(130));
+        assertTrue(features.contains(64));
+        assertFalse(features.contains(63));
+        assertFalse(features.contains(1000));
+        assertEquals(Arrays.asList(130, 3, 64), features.asOrderedList());
+        assertEquals(new TreeSet<>(Arrays.asList(3, 64, 130)), features.asSortedSet());
+        assertEquals(64, features.getLast());
+    }
+
+    @Test
+    void extend() {
+        final FeatureSet parent = FeatureSet.of(5, 1);
+        final FeatureSet extended = parent.extend(200);
+        assertFalse(parent.contains(200));
+        assertTrue(extended.contains(200));
+        assertEquals(Arrays.asList(5, 1, 200), extended.asOrderedList());
+        assertEquals(Arrays.asList(1, 5, 200), Arrays.asList(extended.asSortedSet().toArray()));
+        assertThrows(IllegalArgumentException.class, () -> extended.extend(5));
+    }
+
+    @Test
+    void equalityIgnoresOrder() {
+        final FeatureSet first = FeatureSet.of(1).extend(2).extend(3);
+        final FeatureSet second = FeatureSet.of(3, 1).extend(2);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, FeatureSet.of(1, 2));
+    }
+
+    @Test
+    void negativeFeatures() {
+        final FeatureSet features = FeatureSet.of(-1).extend(4);
+        assertTrue(features.contains(-1));
+        assertTrue(features.contains(4));
+        assertFalse(features.contains(-2));
+        assertEquals(-1, (int) features.asSortedSet().first());
+    }
+
+    @Test
+    void sortedSetViews() {
+        final FeatureSet features = FeatureSet.of(9, 2, 7, 4);
+        assertEquals(Arrays.asList(4, 7), Arrays.asList(features.asSortedSet().subSet(3, 9).toArray()));
+        assertEquals(Arrays.asList(2, 4), Arrays.asList(features.asSortedSet().headSet(7).toArray()));
+        assertEquals(Arrays.asList(7, 9), Arrays.asList(features.asSortedSet().tailSet(7).toArray()));
+        assertFalse(features.asSortedSet().headSet(7).contains(9));
+    }
+}
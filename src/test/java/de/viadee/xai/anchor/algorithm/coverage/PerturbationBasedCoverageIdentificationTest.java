@@ -0,0 +1,96 @@
+package de.viadee.xai.anchor.algorithm.coverage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the indexed {@link PerturbationBasedCoverageIdentification} to match a plain scan of the coverage data
+ */
+class PerturbationBasedCoverageIdentificationTest {
+    private static final int ROWS = 1000;
+    private static final int FEATURES = 10;
+
+    private static boolean[][] randomCoverageData() {
+        final Random random = new Random(42);
+        final boolean[][] coverageData = new boolean[ROWS][FEATURES];
+        for (final boolean[] row : coverageData)
+            for (int feature = 0; feature < FEATURES; feature++)
+                row[feature] = random.nextDouble() < 0.3;
+        return coverageData;
+    }
+
+    private static double bruteForceCoverage(final boolean[][] coverageData, final Set<Integer> features) {
+        int matchingRows = 0;
+        for (final boolean[] row : coverageData) {
+            if (features.stream().noneMatch(feature -> row[feature]))
+                matchingRows++;
+        }
+        return matchingRows / (double) coverageData.length;
+    }
+
+    @Test
+    void matchesBruteForce() {
+        final boolean[][] coverageData = randomCoverageData();
+        final PerturbationBasedCoverageIdentification coverageIdentification =
+                new PerturbationBasedCoverageIdentification(coverageData);
+
+        AnchorCandidate candidate = new AnchorCandidate(Collections.singletonList(3), null);
+        for (final int addedFeature : new int[]{7, 0, 9, 4}) {
+            final Set<Integer> expected = new HashSet<>(candidate.getCanonicalFeatures());
+            assertEquals(bruteForceCoverage(coverageData, expected), coverageIdentification.calculateCoverage(candidate));
+            assertEquals(bruteForceCoverage(coverageData, expected), coverageIdentification.calculateCoverage(expected));
+            candidate = new AnchorCandidate(candidate.getFeatureSet().extend(addedFeature), candidate);
+        }
+    }
+
+    @Test
+    void matchesBruteForceWithoutCache() {
+        final boolean[][] coverageData = randomCoverageData();
+        final PerturbationBasedCoverageIdentification coverageIdentification =
+                new PerturbationBasedCoverageIdentification(coverageData, 0);
+
+        final AnchorCandidate candidate = new AnchorCandidate(Arrays.asList(1, 2, 5));
+        assertEquals(bruteForceCoverage(coverageData, candidate.getCanonicalFeatures()),
+                coverageIdentification.calculateCoverage(candidate));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        final boolean[][] coverageData = randomCoverageData();
+        final PerturbationBasedCoverageIdentification coverageIdentification =
+                new PerturbationBasedCoverageIdentification(coverageData, 2);
+
+        final AnchorCandidate root = new AnchorCandidate(Collections.singletonList(0), null);
+        final AnchorCandidate parent = new AnchorCandidate(root.getFeatureSet().extend(1), root);
+        coverageIdentification.calculateCoverage(parent);
+        // Each child derives its coverage from the parent, which thus stays recently used while siblings get evicted
+        for (int feature = 2; feature < FEATURES; feature++) {
+            final AnchorCandidate child = new AnchorCandidate(parent.getFeatureSet().extend(feature), parent);
+            assertEquals(bruteForceCoverage(coverageData, child.getCanonicalFeatures()),
+                    coverageIdentification.calculateCoverage(child));
+            assertTrue(coverageIdentification.isCached(parent));
+            assertTrue(coverageIdentification.isCached(child));
+        }
+        assertFalse(coverageIdentification.isCached(new AnchorCandidate(parent.getFeatureSet().extend(2), parent)));
+    }
+
+    @Test
+    void emptyCoverageData() {
+        final PerturbationBasedCoverageIdentification coverageIdentification =
+                new PerturbationBasedCoverageIdentification(new boolean[0][0]);
+        assertTrue(Double.isNaN(coverageIdentification.calculateCoverage(Collections.singleton(1))));
+        assertTrue(Double.isNaN(coverageIdentification.calculateCoverage(
+                new AnchorCandidate(Collections.singletonList(1), null))));
+    }
+}
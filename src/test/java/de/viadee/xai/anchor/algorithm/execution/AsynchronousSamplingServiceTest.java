@@ -0,0 +1,96 @@
+package de.viadee.xai.anchor.algorithm.execution;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBuilder;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.AsyncClassificationFunction;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures.IntegerInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the asynchronous execution of sampling sessions
+ */
+class AsynchronousSamplingServiceTest {
+
+    private static void assertRunsAsync(final SamplingService samplingService) {
+        final AnchorCandidate first = new AnchorCandidate(Arrays.asList(0, 1));
+        final AnchorCandidate second = new AnchorCandidate(Arrays.asList(2));
+        samplingService.createSession(SamplingFixtures.EXPLAINED_LABEL)
+                .registerCandidateEvaluation(first, 100)
+                .registerCandidateEvaluation(second, 50)
+                .runAsync().join();
+
+        assertEquals(100, first.getSampledSize());
+        assertEquals(1, first.getPrecision());
+        assertEquals(50, second.getSampledSize());
+        assertEquals(150, samplingService.getSamplesTakenCount());
+    }
+
+    @Test
+    void buildsConstructionFromAsyncClassificationFunction() {
+        final AsyncModel model = new AsyncModel();
+        final AnchorResult<IntegerInstance> result = new AnchorConstructionBuilder<>(model,
+                SamplingFixtures.perturbationFunction(1), SamplingFixtures.explainedInstance())
+                .setSamplingService(new AsynchronousSamplingService<>(model, SamplingFixtures.perturbationFunction(2)))
+                .build()
+                .constructAnchor();
+
+        assertEquals(SamplingFixtures.EXPLAINED_LABEL, result.getLabel());
+        assertTrue(result.isAnchor());
+        assertTrue(result.getCanonicalFeatures().containsAll(Arrays.asList(0, 1)));
+    }
+
+    @Test
+    void runsSessionsAsync() {
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            assertRunsAsync(new AsynchronousSamplingService<>(new AsyncModel(),
+                    SamplingFixtures.perturbationFunction(3)));
+            assertRunsAsync(new ParallelSamplingService<>(SamplingFixtures.classificationFunction(),
+                    SamplingFixtures.perturbationFunction(3), executorService, null));
+            // Inherits the asynchronous execution of the ParallelSamplingService
+            assertRunsAsync(new BalancedParallelSamplingService<>(SamplingFixtures.classificationFunction(),
+                    SamplingFixtures.perturbationFunction(3), executorService, (ExecutorServiceSupplier) null, 3));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void completesExceptionally() {
+        final SamplingService samplingService = new LinearSamplingService<>(instance -> {
+            throw new IllegalStateException("Model unavailable");
+        }, SamplingFixtures.perturbationFunction(4));
+        final CompletableFuture<Void> future = samplingService.createSession(SamplingFixtures.EXPLAINED_LABEL)
+                .registerCandidateEvaluation(new AnchorCandidate(Arrays.asList(0)), 10)
+                .runAsync();
+
+        assertTrue(future.isCompletedExceptionally());
+        final CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    /**
+     * Model with a concrete instance type, as user implementations have
+     */
+    private static class AsyncModel implements AsyncClassificationFunction<IntegerInstance> {
+        private static final long serialVersionUID = 1811826451457925227L;
+
+        @Override
+        public CompletableFuture<int[]> predictAsync(final IntegerInstance[] instances) {
+            return CompletableFuture.supplyAsync(() -> Arrays.stream(instances)
+                    .mapToInt(SamplingFixtures::predictLabel).toArray());
+        }
+    }
+}
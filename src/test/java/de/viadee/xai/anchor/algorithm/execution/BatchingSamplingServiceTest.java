@@ -0,0 +1,95 @@
+package de.viadee.xai.anchor.algorithm.execution;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures.IntegerInstance;
+import de.viadee.xai.anchor.algorithm.execution.sampling.SampleReusingSamplingFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests batching model calls across candidates
+ */
+class BatchingSamplingServiceTest {
+
+    private static List<AnchorCandidate> createCandidates() {
+        return Arrays.asList(
+                new AnchorCandidate(Arrays.asList(0, 1)),
+                new AnchorCandidate(Arrays.asList(0)),
+                new AnchorCandidate(Arrays.asList(2)),
+                new AnchorCandidate(Arrays.asList(1, 3)));
+    }
+
+    private static void evaluate(final SamplingService samplingService, final List<AnchorCandidate> candidates) {
+        final SamplingSession session = samplingService.createSession(SamplingFixtures.EXPLAINED_LABEL);
+        for (int i = 0; i < candidates.size(); i++)
+            session.registerCandidateEvaluation(candidates.get(i), 10 * (i + 1));
+        session.run();
+    }
+
+    @Test
+    void takesSameSamplesAsLinearSamplingService() {
+        final CountingModel model = new CountingModel();
+        final SamplingService batching = new BatchingSamplingService<>(model,
+                SamplingFixtures.perturbationFunction(1), 30);
+        final SamplingService linear = new LinearSamplingService<>(SamplingFixtures.classificationFunction(),
+                SamplingFixtures.perturbationFunction(1));
+        final List<AnchorCandidate> batched = createCandidates();
+        final List<AnchorCandidate> expected = createCandidates();
+        evaluate(batching, batched);
+        evaluate(linear, expected);
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getSampledSize(), batched.get(i).getSampledSize());
+            assertEquals(expected.get(i).getPositiveSamples(), batched.get(i).getPositiveSamples());
+        }
+        assertEquals(1, batched.get(0).getPrecision());
+        assertEquals(linear.getSamplesTakenCount(), batching.getSamplesTakenCount());
+        // 100 samples in batches of at most 30
+        assertEquals(4, model.batchCalls.get());
+    }
+
+    @Test
+    void evaluatesReusingSamplingFunctionSeparately() {
+        final SampleReusingSamplingFunction<IntegerInstance> samplingFunction = new SampleReusingSamplingFunction<>(
+                SamplingFixtures.classificationFunction(), SamplingFixtures.perturbationFunction(2));
+        assertFalse(samplingFunction.getBatchingPerturbationFunction().isPresent());
+
+        final SamplingService samplingService = new BatchingSamplingService<>(samplingFunction, 30);
+        evaluate(samplingService, Arrays.asList(new AnchorCandidate(Arrays.asList(0))));
+        final AnchorCandidate candidate = new AnchorCandidate(Arrays.asList(0, 1));
+        evaluate(samplingService, Arrays.asList(candidate));
+
+        assertEquals(10, candidate.getSampledSize());
+        assertTrue(samplingFunction.getReusedSampleCount() > 0);
+        assertEquals(20, samplingService.getSamplesTakenCount());
+    }
+
+    /**
+     * Model counting its batch prediction calls
+     */
+    private static class CountingModel implements ClassificationFunction<IntegerInstance> {
+        private static final long serialVersionUID = -2458104163226905713L;
+
+        private final AtomicInteger batchCalls = new AtomicInteger();
+
+        @Override
+        public int predict(final IntegerInstance instance) {
+            return SamplingFixtures.predictLabel(instance);
+        }
+
+        @Override
+        public int[] predict(final IntegerInstance[] instances) {
+            batchCalls.incrementAndGet();
+            return ClassificationFunction.super.predict(instances);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package de.viadee.xai.anchor.algorithm.execution;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures.IntegerInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests distributing samples by work-stealing
+ */
+class ForkJoinSamplingServiceTest {
+
+    private static void assertEvaluates(final ForkJoinSamplingService<IntegerInstance> samplingService,
+                                        final boolean async) {
+        final AnchorCandidate first = new AnchorCandidate(Arrays.asList(0, 1));
+        final AnchorCandidate second = new AnchorCandidate(Arrays.asList(2));
+        final AnchorCandidate skipped = new AnchorCandidate(Arrays.asList(3));
+        final SamplingSession session = samplingService.createSession(SamplingFixtures.EXPLAINED_LABEL)
+                .registerCandidateEvaluation(first, 100)
+                .registerCandidateEvaluation(second, 35)
+                .registerCandidateEvaluation(skipped, 0);
+        if (async)
+            session.runAsync().join();
+        else
+            session.run();
+
+        assertEquals(100, first.getSampledSize());
+        assertEquals(1, first.getPrecision());
+        assertEquals(35, second.getSampledSize());
+        assertEquals(0, skipped.getSampledSize());
+    }
+
+    @Test
+    void executesInDedicatedPool() {
+        final PoolRecordingModel model = new PoolRecordingModel();
+        final ForkJoinSamplingService<IntegerInstance> samplingService = new ForkJoinSamplingService<>(model,
+                SamplingFixtures.perturbationFunction(1), null, 10);
+        try {
+            assertEvaluates(samplingService, false);
+            assertEvaluates(samplingService, true);
+            assertEquals(270, samplingService.getSamplesTakenCount());
+        } finally {
+            samplingService.close();
+        }
+
+        assertFalse(model.pools.isEmpty());
+        assertFalse(model.pools.contains(ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    void executesInPassedPool() {
+        final ForkJoinPool forkJoinPool = new ForkJoinPool(2);
+        final PoolRecordingModel model = new PoolRecordingModel();
+        final ForkJoinSamplingService<IntegerInstance> samplingService = new ForkJoinSamplingService<>(model,
+                SamplingFixtures.perturbationFunction(2), forkJoinPool, 10);
+        assertEquals(2, samplingService.getParallelism());
+        assertEvaluates(samplingService, true);
+        assertEquals(Collections.singleton(forkJoinPool), model.pools);
+
+        samplingService.close();
+        assertTrue(forkJoinPool.isShutdown());
+    }
+
+    @Test
+    void rejectsInvalidChunkSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ForkJoinSamplingService<>(
+                SamplingFixtures.classificationFunction(), SamplingFixtures.perturbationFunction(3), null, 0));
+    }
+
+    /**
+     * Model recording the pools its predictions are executed in
+     */
+    private static class PoolRecordingModel implements ClassificationFunction<IntegerInstance> {
+        private static final long serialVersionUID = -1209316357651832104L;
+
+        private final Set<ForkJoinPool> pools = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public int predict(final IntegerInstance instance) {
+            if (Thread.currentThread() instanceof ForkJoinWorkerThread)
+                pools.add(((ForkJoinWorkerThread) Thread.currentThread()).getPool());
+            return SamplingFixtures.predictLabel(instance);
+        }
+    }
+}
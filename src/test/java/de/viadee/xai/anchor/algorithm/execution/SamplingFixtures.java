@@ -0,0 +1,179 @@
+package de.viadee.xai.anchor.algorithm.execution;
+
+import java.util.Random;
+import java.util.Set;
+
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.ColumnarPerturbationResult;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.FeatureSet;
+import de.viadee.xai.anchor.algorithm.NumericClassificationFunction;
+import de.viadee.xai.anchor.algorithm.NumericPerturbationFunction;
+import de.viadee.xai.anchor.algorithm.PerturbationFunction;
+
+/**
+ * Synthetic model and perturbation function shared by the sampling tests.
+ * <p>
+ * The explained instance consists of zeros only. Perturbations set each non-fixed feature to one with a probability
+ * of 0.5. The model predicts label 1 if and only if the first two features are zero, so {0, 1} is a perfect anchor.
+ * <p>
+ * The numeric variants additionally serve as reference implementations of the columnar evaluation. For the same seed,
+ * they produce the same perturbations in both representations.
+ */
+public final class SamplingFixtures {
+    public static final int FEATURE_COUNT = 4;
+    public static final int EXPLAINED_LABEL = 1;
+
+    private SamplingFixtures() {
+    }
+
+    /**
+     * @return the explained instance
+     */
+    public static IntegerInstance explainedInstance() {
+        return new IntegerInstance(new int[FEATURE_COUNT]);
+    }
+
+    /**
+     * @return the synthetic model
+     */
+    public static ClassificationFunction<IntegerInstance> classificationFunction() {
+        return new SyntheticModel();
+    }
+
+    /**
+     * @param seed the perturbations' seed
+     * @return a perturbation function producing the same perturbations for the same seed and call sequence
+     */
+    public static PerturbationFunction<IntegerInstance> perturbationFunction(final long seed) {
+        return new SyntheticPerturbationFunction(seed);
+    }
+
+    /**
+     * @return the synthetic model, additionally able to predict columnar perturbations
+     */
+    public static NumericClassificationFunction<IntegerInstance> numericClassificationFunction() {
+        return new NumericSyntheticModel();
+    }
+
+    /**
+     * @param seed the perturbations' seed
+     * @return a perturbation function additionally able to create columnar perturbations. Both representations
+     * are drawn from the same sequence of random values
+     */
+    public static NumericPerturbationFunction<IntegerInstance> numericPerturbationFunction(final long seed) {
+        return new NumericSyntheticPerturbationFunction(seed);
+    }
+
+    /**
+     * Instance of integer features
+     */
+    public static class IntegerInstance implements DataInstance<int[]> {
+        private static final long serialVersionUID = 6195718637624926349L;
+
+        private final int[] values;
+
+        public IntegerInstance(final int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int[] getInstance() {
+            return values;
+        }
+
+        @Override
+        public Object getValue(final int featureId) {
+            return values[featureId];
+        }
+
+        @Override
+        public int getFeatureCount() {
+            return values.length;
+        }
+    }
+
+    private static class SyntheticModel implements ClassificationFunction<IntegerInstance> {
+        private static final long serialVersionUID = -5371624399126271406L;
+
+        @Override
+        public int predict(final IntegerInstance instance) {
+            return predictLabel(instance);
+        }
+    }
+
+    /**
+     * @param instance the instance
+     * @return the synthetic model's label for the instance
+     */
+    public static int predictLabel(final IntegerInstance instance) {
+        return (instance.getInstance()[0] == 0 && instance.getInstance()[1] == 0) ? EXPLAINED_LABEL : 0;
+    }
+
+    private static class NumericSyntheticModel extends SyntheticModel
+            implements NumericClassificationFunction<IntegerInstance> {
+        private static final long serialVersionUID = 4921077632904617213L;
+
+        @Override
+        public void predict(final ColumnarPerturbationResult perturbations, final int[] predictions) {
+            final double[] first = perturbations.getColumn(0);
+            final double[] second = perturbations.getColumn(1);
+            for (int row = 0; row < perturbations.getRowCount(); row++)
+                predictions[row] = (first[row] == 0 && second[row] == 0) ? EXPLAINED_LABEL : 0;
+        }
+    }
+
+    private static class SyntheticPerturbationFunction implements PerturbationFunction<IntegerInstance> {
+        private static final long serialVersionUID = 2283526153590427787L;
+
+        final Random random;
+
+        private SyntheticPerturbationFunction(final long seed) {
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public synchronized PerturbationResult<IntegerInstance> perturb(final Set<Integer> immutableFeaturesIdx,
+                                                                        final int nrPerturbations) {
+            final IntegerInstance[] rawResult = new IntegerInstance[nrPerturbations];
+            final boolean[][] featureChanged = new boolean[nrPerturbations][FEATURE_COUNT];
+            for (int i = 0; i < nrPerturbations; i++) {
+                final int[] values = new int[FEATURE_COUNT];
+                for (int feature = 0; feature < FEATURE_COUNT; feature++) {
+                    if (!immutableFeaturesIdx.contains(feature) && random.nextBoolean()) {
+                        values[feature] = 1;
+                        featureChanged[i][feature] = true;
+                    }
+                }
+                rawResult[i] = new IntegerInstance(values);
+            }
+            return new PerturbationResultImpl<>(rawResult, featureChanged);
+        }
+    }
+
+    private static class NumericSyntheticPerturbationFunction extends SyntheticPerturbationFunction
+            implements NumericPerturbationFunction<IntegerInstance> {
+        private static final long serialVersionUID = -3340291846226417395L;
+
+        private NumericSyntheticPerturbationFunction(final long seed) {
+            super(seed);
+        }
+
+        @Override
+        public synchronized void perturb(final FeatureSet immutableFeatures, final int nrPerturbations,
+                                         final ColumnarPerturbationResult result) {
+            result.reset(FEATURE_COUNT, nrPerturbations);
+            // Rows are drawn in the same order as by the object representation
+            for (int row = 0; row < nrPerturbations; row++) {
+                for (int feature = 0; feature < FEATURE_COUNT; feature++) {
+                    if (!immutableFeatures.contains(feature) && random.nextBoolean()) {
+                        result.setValue(feature, row, 1);
+                        result.markChanged(feature, row);
+                    } else {
+                        result.setValue(feature, row, 0);
+                    }
+                }
+            }
+        }
+    }
+}
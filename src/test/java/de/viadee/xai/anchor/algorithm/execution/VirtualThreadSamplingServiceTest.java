@@ -0,0 +1,96 @@
+package de.viadee.xai.anchor.algorithm.execution;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures.IntegerInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadSamplingServiceTest {
+    private static final int MAX_CONCURRENT_PREDICTIONS = 3;
+
+    @Test
+    void evaluatesChunksWithLimitedConcurrency() {
+        final ConcurrencyTrackingModel model = new ConcurrencyTrackingModel();
+        final VirtualThreadSamplingService<IntegerInstance> samplingService = new VirtualThreadSamplingService<>(
+                model, SamplingFixtures.perturbationFunction(1), MAX_CONCURRENT_PREDICTIONS, 10);
+        try {
+            final AnchorCandidate first = new AnchorCandidate(Arrays.asList(0, 1));
+            final AnchorCandidate second = new AnchorCandidate(Arrays.asList(3));
+            samplingService.createSession(SamplingFixtures.EXPLAINED_LABEL)
+                    .registerCandidateEvaluation(first, 105)
+                    .registerCandidateEvaluation(second, 37)
+                    .run();
+
+            assertEquals(105, first.getSampledSize());
+            assertEquals(1, first.getPrecision());
+            assertEquals(37, second.getSampledSize());
+            assertTrue(model.maxConcurrentCalls.get() <= MAX_CONCURRENT_PREDICTIONS);
+        } finally {
+            samplingService.close();
+        }
+    }
+
+    @Test
+    void fallsBackToDaemonThreadPool() throws Exception {
+        final ExecutorService executorService = VirtualThreadSamplingService.createExecutorService(
+                MAX_CONCURRENT_PREDICTIONS);
+        try {
+            // Executors created internally are never shut down, so their threads must not keep the JVM alive
+            assertTrue(executorService.submit(() -> Thread.currentThread().isDaemon()).get());
+            if (!VirtualThreadSamplingService.isVirtualThreadSupported()) {
+                assertTrue(executorService instanceof ThreadPoolExecutor);
+                assertEquals(MAX_CONCURRENT_PREDICTIONS, ((ThreadPoolExecutor) executorService).getMaximumPoolSize());
+                assertTrue(((ThreadPoolExecutor) executorService).allowsCoreThreadTimeOut());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new VirtualThreadSamplingService<>(
+                SamplingFixtures.classificationFunction(), SamplingFixtures.perturbationFunction(1), 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new VirtualThreadSamplingService<>(
+                SamplingFixtures.classificationFunction(), SamplingFixtures.perturbationFunction(1), 2, 0));
+    }
+
+    /**
+     * Records the maximum amount of concurrent prediction calls
+     */
+    private static class ConcurrencyTrackingModel implements ClassificationFunction<IntegerInstance> {
+        private static final long serialVersionUID = -1083712408117208012L;
+
+        private final AtomicInteger currentCalls = new AtomicInteger();
+        private final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+
+        @Override
+        public int predict(final IntegerInstance instance) {
+            return SamplingFixtures.predictLabel(instance);
+        }
+
+        @Override
+        public int[] predict(final IntegerInstance[] instances) {
+            maxConcurrentCalls.accumulateAndGet(currentCalls.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(2);
+                return ClassificationFunction.super.predict(instances);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                currentCalls.decrementAndGet();
+            }
+        }
+    }
+}
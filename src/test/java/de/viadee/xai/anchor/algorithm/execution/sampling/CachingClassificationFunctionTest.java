@@ -0,0 +1,134 @@
+package de.viadee.xai.anchor.algorithm.execution.sampling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.ClassificationFunction;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures.IntegerInstance;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the caching of predictions
+ */
+class CachingClassificationFunctionTest {
+
+    private static IntegerInstance instance(final int... values) {
+        return new IntegerInstance(values);
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        final CountingModel model = new CountingModel();
+        final CachingClassificationFunction<IntegerInstance> cache = new CachingClassificationFunction<>(model, 10);
+
+        assertEquals(1, cache.predict(instance(0, 0)));
+        assertEquals(1, cache.predict(instance(0, 0)));
+        assertEquals(0, cache.predict(instance(1, 0)));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1 / 3D, cache.getHitRate(), 1e-9);
+        assertEquals(2, model.predictedInstances);
+        assertEquals(2, cache.getSize());
+
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void predictsDuplicatesWithinBatchOnce() {
+        final CountingModel model = new CountingModel();
+        final CachingClassificationFunction<IntegerInstance> cache = new CachingClassificationFunction<>(model, 10);
+
+        assertArrayEquals(new int[]{1, 1, 0},
+                cache.predict(new IntegerInstance[]{instance(0, 0), instance(0, 0), instance(1, 0)}));
+        // Duplicates are not served by the cache
+        assertEquals(0, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(2, model.predictedInstances);
+
+        assertArrayEquals(new int[]{1, 0, 0},
+                cache.predict(new IntegerInstance[]{instance(0, 0), instance(0, 1), instance(1, 0)}));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+        assertEquals(3, model.predictedInstances);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        final CountingModel model = new CountingModel();
+        final CachingClassificationFunction<IntegerInstance> cache = new CachingClassificationFunction<>(model, 2);
+
+        cache.predict(instance(0, 0));
+        cache.predict(instance(1, 0));
+        // Accessing the first instance makes the second one the least recently used
+        cache.predict(instance(0, 0));
+        cache.predict(instance(0, 1));
+        assertEquals(2, cache.getSize());
+        assertEquals(3, model.predictedInstances);
+
+        cache.predict(instance(0, 0));
+        assertEquals(3, model.predictedInstances);
+        cache.predict(instance(1, 0));
+        assertEquals(4, model.predictedInstances);
+    }
+
+    @Test
+    void boundsSegmentedCache() throws Exception {
+        final int maxSize = 256;
+        final CachingClassificationFunction<IntegerInstance> cache = new CachingClassificationFunction<>(
+                new CountingModel(), maxSize);
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                final int offset = thread * 1000;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < 1000; i++)
+                        assertEquals(0, cache.predict(instance(1, offset + i)));
+                }));
+            }
+            for (final Future<?> future : futures)
+                future.get();
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertEquals(maxSize, cache.getSize());
+        assertEquals(4000, cache.getMissCount());
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new CachingClassificationFunction<>(
+                SamplingFixtures.classificationFunction(), 0));
+        assertThrows(IllegalArgumentException.class, () -> new CachingClassificationFunction<IntegerInstance>(
+                null, 10));
+    }
+
+    /**
+     * Model counting the instances it predicted
+     */
+    private static class CountingModel implements ClassificationFunction<IntegerInstance> {
+        private static final long serialVersionUID = 3378513937316398021L;
+
+        private int predictedInstances;
+
+        @Override
+        public synchronized int predict(final IntegerInstance instance) {
+            predictedInstances++;
+            return SamplingFixtures.predictLabel(instance);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package de.viadee.xai.anchor.algorithm.execution.sampling;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBuilder;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures.IntegerInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests evaluating candidates by the default sampling function
+ */
+class DefaultSamplingFunctionTest {
+    private static final long SEED = 42;
+
+    private static DefaultSamplingFunction<IntegerInstance> createColumnar() {
+        return new DefaultSamplingFunction<>(SamplingFixtures.numericClassificationFunction(),
+                SamplingFixtures.numericPerturbationFunction(SEED));
+    }
+
+    private static DefaultSamplingFunction<IntegerInstance> createObjectBased() {
+        // Without a numeric classification function, the object representation is evaluated
+        return new DefaultSamplingFunction<>(SamplingFixtures.classificationFunction(),
+                SamplingFixtures.numericPerturbationFunction(SEED));
+    }
+
+    private static List<AnchorCandidate> createCandidates() {
+        return Arrays.asList(
+                new AnchorCandidate(Arrays.asList(0, 1)),
+                new AnchorCandidate(Arrays.asList(0)),
+                new AnchorCandidate(Arrays.asList(3)),
+                new AnchorCandidate(Arrays.asList(1, 2, 3)));
+    }
+
+    @Test
+    void evaluatesColumnarAsObjectBased() {
+        final DefaultSamplingFunction<IntegerInstance> columnar = createColumnar();
+        final DefaultSamplingFunction<IntegerInstance> objectBased = createObjectBased();
+        final List<AnchorCandidate> columnarCandidates = createCandidates();
+        final List<AnchorCandidate> objectCandidates = createCandidates();
+        // Differing sizes let the buffers grow and get reused
+        final int[] sampleCounts = {100, 7, 300, 64};
+
+        for (final int sampleCount : sampleCounts) {
+            for (int i = 0; i < columnarCandidates.size(); i++) {
+                assertEquals(
+                        objectBased.evaluate(objectCandidates.get(i), sampleCount, SamplingFixtures.EXPLAINED_LABEL),
+                        columnar.evaluate(columnarCandidates.get(i), sampleCount, SamplingFixtures.EXPLAINED_LABEL));
+            }
+        }
+
+        for (int i = 0; i < columnarCandidates.size(); i++) {
+            assertEquals(objectCandidates.get(i).getSampledSize(), columnarCandidates.get(i).getSampledSize());
+            assertEquals(objectCandidates.get(i).getPositiveSamples(),
+                    columnarCandidates.get(i).getPositiveSamples());
+        }
+        assertEquals(1, columnarCandidates.get(0).getPrecision());
+        assertTrue(columnarCandidates.get(2).getPrecision() < 1);
+    }
+
+    @Test
+    void constructsSameAnchorColumnar() {
+        final AnchorResult<IntegerInstance> columnar = constructAnchor(createColumnar());
+        final AnchorResult<IntegerInstance> objectBased = constructAnchor(createObjectBased());
+
+        assertTrue(columnar.isAnchor());
+        assertEquals(objectBased.getOrderedFeatures(), columnar.getOrderedFeatures());
+        assertEquals(objectBased.getPrecision(), columnar.getPrecision());
+        assertEquals(objectBased.getSampledSize(), columnar.getSampledSize());
+        assertEquals(objectBased.getPositiveSamples(), columnar.getPositiveSamples());
+    }
+
+    @Test
+    void doesNotBatchColumnar() {
+        assertFalse(createColumnar().getBatchingPerturbationFunction().isPresent());
+        assertTrue(createObjectBased().getBatchingPerturbationFunction().isPresent());
+    }
+
+    private static AnchorResult<IntegerInstance> constructAnchor(
+            final DefaultSamplingFunction<IntegerInstance> samplingFunction) {
+        return new AnchorConstructionBuilder<>(samplingFunction, SamplingFixtures.explainedInstance(),
+                SamplingFixtures.EXPLAINED_LABEL)
+                .build()
+                .constructAnchor();
+    }
+}
@@ -0,0 +1,78 @@
+package de.viadee.xai.anchor.algorithm.execution.sampling;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures.IntegerInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests estimating candidates' precision from a pool of perturbations
+ */
+class PerturbationPoolSamplingFunctionTest {
+
+    private static PerturbationPoolSamplingFunction<IntegerInstance> create(final int poolSize) {
+        return new PerturbationPoolSamplingFunction<>(SamplingFixtures.classificationFunction(),
+                SamplingFixtures.perturbationFunction(1), poolSize);
+    }
+
+    @Test
+    void creditsPoolRows() {
+        final PerturbationPoolSamplingFunction<IntegerInstance> samplingFunction = create(1000);
+        final AnchorCandidate candidate = new AnchorCandidate(Arrays.asList(0, 1));
+
+        assertEquals(1, samplingFunction.evaluate(candidate, 100, SamplingFixtures.EXPLAINED_LABEL));
+        assertEquals(100, candidate.getSampledSize());
+        assertEquals(100, samplingFunction.getReusedSampleCount());
+        // The pool's predictions are drawn samples as well
+        assertEquals(1000, samplingFunction.getDrawnSampleCount());
+        assertEquals(100 / 1100D, samplingFunction.getReuseRatio(), 1e-9);
+    }
+
+    @Test
+    void drawsWhenPoolRowsDoNotSuffice() {
+        final PerturbationPoolSamplingFunction<IntegerInstance> samplingFunction = create(40);
+        final AnchorCandidate candidate = new AnchorCandidate(Arrays.asList(0, 1));
+
+        // About a quarter of the pool leaves both features unchanged
+        samplingFunction.evaluate(candidate, 30, SamplingFixtures.EXPLAINED_LABEL);
+        final long reused = samplingFunction.getReusedSampleCount();
+        assertTrue(reused > 0 && reused < 30);
+        assertEquals(40 + 30 - reused, samplingFunction.getDrawnSampleCount());
+        assertEquals(30, candidate.getSampledSize());
+        assertEquals(1, candidate.getPrecision());
+
+        // Rows are credited only once
+        samplingFunction.evaluate(candidate, 30, SamplingFixtures.EXPLAINED_LABEL);
+        assertEquals(reused, samplingFunction.getReusedSampleCount());
+        assertEquals(40 + 60 - reused, samplingFunction.getDrawnSampleCount());
+        assertEquals(60, candidate.getSampledSize());
+    }
+
+    @Test
+    void evaluatesSynchronouslyWithoutBatching() {
+        final PerturbationPoolSamplingFunction<IntegerInstance> samplingFunction = create(100);
+        final AnchorCandidate candidate = new AnchorCandidate(Arrays.asList(2));
+        final CompletableFuture<Double> future = samplingFunction.evaluateAsync(candidate, 10,
+                SamplingFixtures.EXPLAINED_LABEL);
+
+        assertTrue(future.isDone());
+        assertEquals(10, candidate.getSampledSize());
+        assertFalse(samplingFunction.getBatchingPerturbationFunction().isPresent());
+    }
+
+    @Test
+    void requiresReconfigurablePerturbationFunction() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> create(10).notifyOriginChange(SamplingFixtures.explainedInstance()));
+        assertThrows(IllegalArgumentException.class, () -> create(0));
+    }
+}
@@ -0,0 +1,66 @@
+package de.viadee.xai.anchor.algorithm.execution.sampling;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBuilder;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures.IntegerInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests reusing perturbations across candidates
+ */
+class SampleReusingSamplingFunctionTest {
+
+    private static SampleReusingSamplingFunction<IntegerInstance> create() {
+        return new SampleReusingSamplingFunction<>(SamplingFixtures.classificationFunction(),
+                SamplingFixtures.perturbationFunction(1));
+    }
+
+    @Test
+    void reusesSamplesOfSubsets() {
+        final SampleReusingSamplingFunction<IntegerInstance> samplingFunction = create();
+        final AnchorCandidate parent = new AnchorCandidate(Arrays.asList(0));
+        samplingFunction.evaluate(parent, 100, SamplingFixtures.EXPLAINED_LABEL);
+        assertEquals(0, samplingFunction.getReusedSampleCount());
+        assertEquals(100, samplingFunction.getDrawnSampleCount());
+
+        // The parent's own perturbations are not credited again
+        samplingFunction.evaluate(parent, 10, SamplingFixtures.EXPLAINED_LABEL);
+        assertEquals(0, samplingFunction.getReusedSampleCount());
+
+        // About half of the parent's perturbations leave feature 1 unchanged
+        final AnchorCandidate child = new AnchorCandidate(Arrays.asList(0, 1));
+        assertEquals(1, samplingFunction.evaluate(child, 100, SamplingFixtures.EXPLAINED_LABEL));
+        final long reused = samplingFunction.getReusedSampleCount();
+        assertTrue(reused > 0 && reused < 100);
+        assertEquals(210 - reused, samplingFunction.getDrawnSampleCount());
+        assertEquals(100, child.getSampledSize());
+    }
+
+    @Test
+    void constructsAnchor() {
+        final SampleReusingSamplingFunction<IntegerInstance> samplingFunction = create();
+        final AnchorResult<IntegerInstance> result = new AnchorConstructionBuilder<>(samplingFunction,
+                SamplingFixtures.explainedInstance(), SamplingFixtures.EXPLAINED_LABEL)
+                .build()
+                .constructAnchor();
+
+        assertTrue(result.isAnchor());
+        assertTrue(result.getCanonicalFeatures().containsAll(Arrays.asList(0, 1)));
+        assertTrue(samplingFunction.getReuseRatio() > 0);
+    }
+
+    @Test
+    void requiresReconfigurablePerturbationFunction() {
+        assertThrows(UnsupportedOperationException.class,
+                () -> create().notifyOriginChange(SamplingFixtures.explainedInstance()));
+    }
+}
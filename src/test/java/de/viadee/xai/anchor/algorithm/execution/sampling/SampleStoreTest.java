@@ -0,0 +1,125 @@
+package de.viadee.xai.anchor.algorithm.execution.sampling;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests crediting stored perturbations to candidates
+ */
+class SampleStoreTest {
+    private static final int LABEL = 1;
+
+    /*
+     * Perturbations of two features drawn for the candidate {0}. Feature 1 is unchanged in rows 0, 2 and 3
+     */
+    private static final boolean[][] FEATURE_CHANGED = {
+            {false, false},
+            {false, true},
+            {false, false},
+            {false, false}};
+    private static final int[] PREDICTIONS = {1, 0, 0, 1};
+
+    private static AnchorCandidate candidate(final Integer... features) {
+        return new AnchorCandidate(Arrays.asList(features));
+    }
+
+    @Test
+    void skipsOwner() {
+        final SampleStore store = new SampleStore(100);
+        final AnchorCandidate owner = candidate(0);
+        store.add(owner, FEATURE_CHANGED, PREDICTIONS);
+
+        assertEquals(0, store.credit(owner, LABEL, 10));
+        assertEquals(0, owner.getSampledSize());
+        // An equal candidate is credited, as it has not drawn the perturbations
+        assertEquals(4, store.credit(candidate(0), LABEL, 10));
+    }
+
+    @Test
+    void creditsSupersetsOnly() {
+        final SampleStore store = new SampleStore(100);
+        store.add(candidate(0), FEATURE_CHANGED, PREDICTIONS);
+
+        final AnchorCandidate superset = candidate(0, 1);
+        assertEquals(3, store.credit(superset, LABEL, 10));
+        assertEquals(3, superset.getSampledSize());
+        assertEquals(2, superset.getPositiveSamples());
+        // The perturbations' fixed feature 0 would bias the candidate's precision
+        assertEquals(0, store.credit(candidate(1), LABEL, 10));
+    }
+
+    @Test
+    void creditsUnconditionedToAll() {
+        final SampleStore store = new SampleStore(100);
+        store.addUnconditioned(FEATURE_CHANGED, PREDICTIONS);
+
+        assertEquals(4, store.credit(candidate(0), LABEL, 10));
+        assertEquals(3, store.credit(candidate(1), LABEL, 10));
+    }
+
+    @Test
+    void creditsPerturbationsOnce() {
+        final SampleStore store = new SampleStore(100);
+        final AnchorCandidate candidate = candidate(0, 1);
+        store.add(candidate(0), FEATURE_CHANGED, PREDICTIONS);
+        assertEquals(3, store.credit(candidate, LABEL, 10));
+        assertEquals(0, store.credit(candidate, LABEL, 10));
+
+        store.add(candidate(0), FEATURE_CHANGED, PREDICTIONS);
+        assertEquals(3, store.credit(candidate, LABEL, 10));
+        assertEquals(6, candidate.getSampledSize());
+        assertEquals(4, candidate.getPositiveSamples());
+        assertEquals(1, store.getTrackedCandidates());
+    }
+
+    @Test
+    void limitsCreditedSamples() {
+        final SampleStore store = new SampleStore(100);
+        final AnchorCandidate candidate = candidate(0, 1);
+        store.add(candidate(0), FEATURE_CHANGED, PREDICTIONS);
+        store.add(candidate(0), FEATURE_CHANGED, PREDICTIONS);
+
+        assertEquals(0, store.credit(candidate, LABEL, 0));
+        assertEquals(2, store.credit(candidate, LABEL, 2));
+        // Continues with the first uncredited perturbation, spanning both batches
+        assertEquals(2, store.credit(candidate, LABEL, 2));
+        assertEquals(2, store.credit(candidate, LABEL, 10));
+        assertEquals(0, store.credit(candidate, LABEL, 10));
+        assertEquals(6, candidate.getSampledSize());
+        assertEquals(4, candidate.getPositiveSamples());
+    }
+
+    @Test
+    void creditsAcrossWords() {
+        final int rowCount = 150;
+        final boolean[][] featureChanged = new boolean[rowCount][2];
+        final int[] predictions = new int[rowCount];
+        Arrays.fill(predictions, LABEL);
+        final SampleStore store = new SampleStore(1000);
+        store.addUnconditioned(featureChanged, predictions);
+
+        final AnchorCandidate candidate = candidate(0);
+        assertEquals(70, store.credit(candidate, LABEL, 70));
+        assertEquals(60, store.credit(candidate, LABEL, 60));
+        assertEquals(20, store.credit(candidate, LABEL, 60));
+        assertEquals(rowCount, candidate.getPositiveSamples());
+    }
+
+    @Test
+    void discardsOldestPerturbations() {
+        final SampleStore store = new SampleStore(6);
+        store.add(candidate(0), FEATURE_CHANGED, PREDICTIONS);
+        store.add(candidate(0), FEATURE_CHANGED, PREDICTIONS);
+        assertEquals(4, store.getStoredSamples());
+
+        assertEquals(3, store.credit(candidate(0, 1), LABEL, 10));
+        // Batches exceeding the capacity are not stored at all
+        store.add(candidate(0), new boolean[7][2], new int[7]);
+        assertEquals(4, store.getStoredSamples());
+    }
+}
@@ -204,4 +204,66 @@ public class KL_LUCBTest {
         assertEquals(result.size(), 1);
         assertEquals(result.get(0), candidates.get(0));
     }
+
+    @Test
+    void testMultipleArmsPerRound() {
+        final double[] precisions = {0.5, 0.6, 0.7, 0.98, 0.75, 0.8, 0.85, 0.9};
+        final List<AnchorCandidate> candidates = new ArrayList<>();
+        for (int i = 0; i < precisions.length; i++)
+            candidates.add(new AnchorCandidate(Collections.singletonList(i), null));
+        final AtomicInteger maxCandidatesPerRound = new AtomicInteger();
+
+        final SamplingService samplingService = new SamplingService() {
+            private static final long serialVersionUID = 1163528932707327357L;
+
+            @Override
+            public SamplingSession createSession(int explainedInstanceLabel) {
+                final List<AnchorCandidate> registered = new ArrayList<>();
+                return new SamplingSession() {
+                    private static final long serialVersionUID = 6096101962960434364L;
+
+                    @Override
+                    public SamplingSession registerCandidateEvaluation(AnchorCandidate candidate, int count) {
+                        registered.add(candidate);
+                        candidate.registerSamples(count,
+                                (int) Math.round(count * precisions[candidates.indexOf(candidate)]));
+                        return this;
+                    }
+
+                    @Override
+                    public void run() {
+                        maxCandidatesPerRound.accumulateAndGet(registered.size(), Math::max);
+                    }
+                };
+            }
+
+            @Override
+            public SamplingService notifySamplingFunctionChange(SamplingFunction samplingFunction) {
+                return null;
+            }
+
+            @Override
+            public double getTimeSpentSampling() {
+                return 0;
+            }
+
+            @Override
+            public int getSamplesTakenCount() {
+                return 0;
+            }
+
+            @Override
+            public int getParallelism() {
+                return 4;
+            }
+        };
+
+        for (final AnchorCandidate candidate : candidates)
+            samplingService.createSession(0).registerCandidateEvaluation(candidate, 10).run();
+        final List<AnchorCandidate> result = new KL_LUCB(100, 0)
+                .identify(candidates, samplingService, 0, 0.1, 0.05, 1);
+        assertEquals(1, result.size());
+        assertEquals(candidates.get(3), result.get(0));
+        assertEquals(4, maxCandidatesPerRound.get());
+    }
 }
@@ -0,0 +1,78 @@
+package de.viadee.xai.anchor.algorithm.exploration;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Ensures the incrementally maintained top arms equal those of a stable argsort after each update
+ */
+class MeanRankingTest {
+
+    private static int[] argsortTopArms(final double[] means, final int topN) {
+        // Sorting objects is stable, so ties keep ascending arm order
+        final Integer[] arms = IntStream.range(0, means.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(arms, Comparator.comparingDouble(arm -> means[arm]));
+        return Arrays.stream(arms, means.length - topN, means.length).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double randomMean(final Random random) {
+        // Few distinct means cause many ties
+        return (random.nextBoolean()) ? random.nextInt(5) / 4D : random.nextDouble();
+    }
+
+    private static void assertMatchesArgsort(final MeanRanking ranking, final double[] means, final int topN) {
+        final int[] expected = argsortTopArms(means, topN);
+        assertArrayEquals(expected, ranking.getTopArms());
+        for (int arm = 0; arm < means.length; arm++) {
+            final int current = arm;
+            assertEquals(IntStream.of(expected).anyMatch(topArm -> topArm == current), ranking.isTop(arm));
+            assertEquals(means[arm], ranking.getMean(arm));
+        }
+    }
+
+    @Test
+    void matchesArgsortAfterRandomUpdates() {
+        final Random random = new Random(17);
+        for (int run = 0; run < 200; run++) {
+            final int armCount = 1 + random.nextInt(30);
+            final int topN = random.nextInt(armCount + 1);
+            final double[] means = new double[armCount];
+            for (int arm = 0; arm < armCount; arm++)
+                means[arm] = randomMean(random);
+            final MeanRanking ranking = new MeanRanking(means, topN);
+            assertEquals(armCount, ranking.size());
+            assertMatchesArgsort(ranking, means, topN);
+
+            for (int update = 0; update < 100; update++) {
+                final int arm = random.nextInt(armCount);
+                means[arm] = randomMean(random);
+                ranking.update(arm, means[arm]);
+                assertMatchesArgsort(ranking, means, topN);
+            }
+        }
+    }
+
+    @Test
+    void copiesMeans() {
+        final double[] means = {0.5, 0.1, 0.9};
+        final MeanRanking ranking = new MeanRanking(means, 2);
+        means[1] = 1;
+
+        assertArrayEquals(new int[]{0, 2}, ranking.getTopArms());
+        assertEquals(0.1, ranking.getMean(1));
+    }
+
+    @Test
+    void rejectsInvalidTopN() {
+        assertThrows(IllegalArgumentException.class, () -> new MeanRanking(new double[3], 4));
+        assertThrows(IllegalArgumentException.class, () -> new MeanRanking(new double[3], -1));
+    }
+}
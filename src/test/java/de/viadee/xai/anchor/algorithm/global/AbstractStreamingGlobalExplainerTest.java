@@ -0,0 +1,123 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBuilder;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures.IntegerInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ensures streamed instances are only pulled while fewer explanations than the bound are in flight
+ */
+class AbstractStreamingGlobalExplainerTest {
+    private static final int MAX_THREADS = 2;
+
+    @Test
+    void boundsExplanationsInFlight() {
+        final List<IntegerInstance> instances = GlobalFixtures.instances(20, 4);
+        final ExecutorService executorService = Executors.newFixedThreadPool(MAX_THREADS);
+        final CollectingExplainer explainer = new CollectingExplainer(GlobalFixtures.builder(instances.get(0)),
+                executorService);
+        final CountingIterator iterator = new CountingIterator(instances.iterator(), explainer.accepted);
+
+        final List<AnchorResult<IntegerInstance>> results = explainer.run(iterator, 5);
+
+        assertEquals(instances.size(), iterator.pulled);
+        assertEquals(instances.size(), explainer.accepted.size());
+        assertEquals(5, results.size());
+        // The first instances are pulled until the bound is reached, all further ones once an explanation completed
+        assertEquals(2 * MAX_THREADS - 1, iterator.maxInFlight);
+        assertTrue(executorService.isShutdown());
+        for (final AnchorResult<IntegerInstance> result : explainer.accepted)
+            assertEquals(result.getInstance().getInstance()[0], result.getLabel());
+    }
+
+    @Test
+    void runsSpliterator() {
+        final List<IntegerInstance> instances = GlobalFixtures.instances(3, 3);
+        final CollectingExplainer explainer = new CollectingExplainer(GlobalFixtures.builder(instances.get(0)),
+                Executors.newFixedThreadPool(MAX_THREADS));
+
+        assertEquals(2, explainer.run(instances.spliterator(), 2).size());
+        assertEquals(3, explainer.accepted.size());
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        final AnchorConstructionBuilder<IntegerInstance> builder = GlobalFixtures.builder(
+                GlobalFixtures.instances(1, 1).get(0));
+        assertThrows(IllegalArgumentException.class, () -> new CollectingExplainer(null,
+                Executors.newSingleThreadExecutor()));
+        assertThrows(IllegalArgumentException.class, () -> new CollectingExplainer(builder, null));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingCoveragePick<>(false, 0, builder, 1,
+                Executors.newSingleThreadExecutor()));
+        assertThrows(IllegalArgumentException.class, () -> new StreamingSubmodularPick<>(false, 1.5, builder, 1,
+                Executors.newSingleThreadExecutor()));
+    }
+
+    /**
+     * Collects all explanations and picks the first ones
+     */
+    private static class CollectingExplainer extends AbstractStreamingGlobalExplainer<IntegerInstance> {
+        private final List<AnchorResult<IntegerInstance>> accepted = new ArrayList<>();
+
+        CollectingExplainer(final AnchorConstructionBuilder<IntegerInstance> constructionBuilder,
+                            final ExecutorService executorService) {
+            super(constructionBuilder, MAX_THREADS, executorService);
+        }
+
+        @Override
+        ExplanationPicker<IntegerInstance> createPicker(final int nrOfExplanationsDesired) {
+            return new ExplanationPicker<IntegerInstance>() {
+                @Override
+                public void accept(final AnchorResult<IntegerInstance> explanation) {
+                    accepted.add(explanation);
+                }
+
+                @Override
+                public List<AnchorResult<IntegerInstance>> pick() {
+                    return new ArrayList<>(accepted.subList(0, Math.min(nrOfExplanationsDesired, accepted.size())));
+                }
+            };
+        }
+    }
+
+    /**
+     * Records how many pulled instances have not been explained yet whenever the next one is pulled.
+     * <p>
+     * Pulling and accepting both happen in the thread running the explainer.
+     */
+    private static class CountingIterator implements Iterator<IntegerInstance> {
+        private final Iterator<IntegerInstance> delegate;
+        private final List<?> accepted;
+        private int pulled = 0;
+        private int maxInFlight = 0;
+
+        CountingIterator(final Iterator<IntegerInstance> delegate, final List<?> accepted) {
+            this.delegate = delegate;
+            this.accepted = accepted;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public IntegerInstance next() {
+            maxInFlight = Math.max(maxInFlight, pulled - accepted.size());
+            pulled++;
+            return delegate.next();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ensures the indexed {@link CoveragePick} picks the same explanations as rescanning all survivors
+ */
+class CoveragePickTest {
+    private static final int EXPLANATIONS = 400;
+    private static final int FEATURES = 8;
+
+    @SuppressWarnings("unchecked")
+    static AnchorResult<ValueInstance>[] randomExplanations(final Random random) {
+        final AnchorResult<ValueInstance>[] explanations = new AnchorResult[EXPLANATIONS];
+        for (int i = 0; i < EXPLANATIONS; i++) {
+            final Integer[] values = new Integer[FEATURES];
+            for (int feature = 0; feature < FEATURES; feature++)
+                values[feature] = random.nextInt(6);
+            final int[] features = random.ints(0, FEATURES).distinct().limit(1 + random.nextInt(3)).toArray();
+            final AnchorCandidate candidate = new AnchorCandidate(Arrays.asList(Arrays.stream(features).boxed()
+                    .toArray(Integer[]::new)));
+            candidate.setCoverage(random.nextInt(50) / 50D);
+            explanations[i] = new AnchorResult<>(candidate, new ValueInstance(values), random.nextInt(2), true, 0, 0);
+        }
+        return explanations;
+    }
+
+    private static List<AnchorResult<ValueInstance>> rescanningPick(final AnchorResult<ValueInstance>[] explanations,
+                                                                    final int nrOfExplanationsDesired,
+                                                                    final boolean includeTargetValue) {
+        final List<AnchorResult<ValueInstance>> survivors = new ArrayList<>(Arrays.asList(explanations));
+        final List<AnchorResult<ValueInstance>> result = new ArrayList<>();
+        for (int i = 0; i < nrOfExplanationsDesired; i++) {
+            ListIterator<AnchorResult<ValueInstance>> iter = survivors.listIterator();
+            double bestCoverage = -1;
+            int bestIndex = -1;
+            while (iter.hasNext()) {
+                final AnchorResult<ValueInstance> current = iter.next();
+                if (current.getCoverage() > bestCoverage) {
+                    bestCoverage = current.getCoverage();
+                    bestIndex = iter.previousIndex();
+                }
+            }
+            if (bestIndex < 0)
+                break;
+            final AnchorResult<ValueInstance> best = survivors.remove(bestIndex);
+            result.add(best);
+            survivors.removeIf(current -> (!includeTargetValue || best.getLabel() == current.getLabel())
+                    && current.getCanonicalFeatures().stream().anyMatch(feature ->
+                    best.getCanonicalFeatures().contains(feature) && current.getInstance().getValue(feature)
+                            .equals(best.getInstance().getValue(feature))));
+        }
+        return result;
+    }
+
+    @Test
+    void matchesRescanningSurvivors() {
+        final Random random = new Random(11);
+        for (final boolean includeTargetValue : new boolean[]{false, true}) {
+            final AnchorResult<ValueInstance>[] explanations = randomExplanations(random);
+            final CoveragePick<ValueInstance> coveragePick = new CoveragePick<>(includeTargetValue, null, null);
+            assertEquals(rescanningPick(explanations, 20, includeTargetValue),
+                    coveragePick.pickExplanations(explanations, 20));
+        }
+    }
+
+    static class ValueInstance implements DataInstance<Integer[]> {
+        private static final long serialVersionUID = -3059377434574585178L;
+
+        private final Integer[] values;
+
+        ValueInstance(Integer[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Integer[] getInstance() {
+            return values;
+        }
+
+        @Override
+        public int getFeatureCount() {
+            return values.length;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBuilder;
+import de.viadee.xai.anchor.algorithm.PerturbationFunction;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures.IntegerInstance;
+
+/**
+ * Synthetic instances and functions shared by the global explainer tests.
+ * <p>
+ * The model predicts an instance's first feature, so each instance's anchor is {0}. Perturbations change each
+ * non-fixed feature with a probability of 0.5, so the anchors cover about half of the perturbation space.
+ */
+final class GlobalFixtures {
+
+    private GlobalFixtures() {
+    }
+
+    /**
+     * @param count          the amount of instances
+     * @param distinctLabels the amount of distinct values of the first feature, i.e. labels
+     * @return the instances
+     */
+    static List<IntegerInstance> instances(final int count, final int distinctLabels) {
+        final List<IntegerInstance> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            result.add(new IntegerInstance(new int[]{i % distinctLabels, i, 2 * i}));
+        return result;
+    }
+
+    /**
+     * @param instance the first explained instance
+     * @return a builder explaining the synthetic model
+     */
+    static AnchorConstructionBuilder<IntegerInstance> builder(final IntegerInstance instance) {
+        return new AnchorConstructionBuilder<>(explained -> explained.getInstance()[0],
+                new RandomPerturbationFunction(instance), instance);
+    }
+
+    /**
+     * Changes each feature that is not fixed with a probability of 0.5. Seeded by the perturbed instance
+     */
+    private static class RandomPerturbationFunction implements ReconfigurablePerturbationFunction<IntegerInstance> {
+        private static final long serialVersionUID = 4472014585094381740L;
+
+        private final IntegerInstance instance;
+        private final Random random;
+
+        private RandomPerturbationFunction(final IntegerInstance instance) {
+            this.instance = instance;
+            this.random = new Random(Arrays.hashCode(instance.getInstance()));
+        }
+
+        @Override
+        public PerturbationFunction<IntegerInstance> createForInstance(final IntegerInstance instance) {
+            return new RandomPerturbationFunction(instance);
+        }
+
+        @Override
+        public synchronized PerturbationResult<IntegerInstance> perturb(final Set<Integer> immutableFeaturesIdx,
+                                                                        final int nrPerturbations) {
+            final IntegerInstance[] rawResult = new IntegerInstance[nrPerturbations];
+            final boolean[][] featureChanged = new boolean[nrPerturbations][instance.getFeatureCount()];
+            for (int i = 0; i < nrPerturbations; i++) {
+                final int[] values = instance.getInstance().clone();
+                for (int feature = 0; feature < values.length; feature++) {
+                    if (!immutableFeaturesIdx.contains(feature) && random.nextBoolean()) {
+                        values[feature] += 1;
+                        featureChanged[i][feature] = true;
+                    }
+                }
+                rawResult[i] = new IntegerInstance(values);
+            }
+            return new PerturbationResultImpl<>(rawResult, featureChanged);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ensures sieve-streaming keeps its approximation guarantee compared to the greedy selection
+ */
+class SieveStreamingTest {
+    private static final int ROWS = 500;
+    private static final int COLUMNS = 60;
+    private static final int MAX_SIZE = 5;
+    private static final double EPSILON = 0.1;
+
+    private static double value(final List<int[]> selection, final double[] columnImportance) {
+        final BitSet coveredColumns = new BitSet();
+        for (final int[] columns : selection)
+            for (final int column : columns)
+                coveredColumns.set(column);
+        return coveredColumns.stream().mapToDouble(column -> columnImportance[column]).sum();
+    }
+
+    @Test
+    void approximatesGreedy() {
+        final Random random = new Random(3);
+        final double[] columnImportance = new double[COLUMNS];
+        for (int column = 0; column < COLUMNS; column++)
+            columnImportance[column] = random.nextDouble();
+
+        final SparseImportanceMatrix importanceMatrix = new SparseImportanceMatrix(COLUMNS, ROWS);
+        final SieveStreaming<int[]> sieveStreaming = new SieveStreaming<>(new SieveStreaming.Objective<int[]>() {
+            @Override
+            public int[] getColumns(final int[] element) {
+                return element;
+            }
+
+            @Override
+            public double marginalGain(final int[] element, final BitSet coveredColumns) {
+                double gain = 0;
+                for (final int column : element)
+                    if (!coveredColumns.get(column))
+                        gain += columnImportance[column];
+                return gain;
+            }
+        }, MAX_SIZE, EPSILON);
+
+        final List<int[]> rows = new ArrayList<>();
+        for (int row = 0; row < ROWS; row++) {
+            final int[] columns = random.ints(0, COLUMNS).distinct().limit(1 + random.nextInt(4)).toArray();
+            final double[] importances = new double[columns.length];
+            Arrays.fill(importances, 1);
+            importanceMatrix.addRow(columns, importances);
+            rows.add(columns);
+            sieveStreaming.offer(columns);
+        }
+
+        final List<int[]> greedySelection = new ArrayList<>();
+        for (final int row : SubmodularPickUtils.greedyCover(importanceMatrix, columnImportance, MAX_SIZE, false))
+            greedySelection.add(rows.get(row));
+        final List<int[]> sieveSelection = sieveStreaming.getBestSelection();
+
+        assertTrue(sieveSelection.size() <= MAX_SIZE);
+        assertTrue(value(sieveSelection, columnImportance)
+                >= (0.5 - EPSILON) * value(greedySelection, columnImportance));
+    }
+
+    @Test
+    void selectsNothingWithoutCapacity() {
+        final SieveStreaming<int[]> sieveStreaming = new SieveStreaming<>(new SieveStreaming.Objective<int[]>() {
+            @Override
+            public int[] getColumns(final int[] element) {
+                return element;
+            }
+
+            @Override
+            public double marginalGain(final int[] element, final BitSet coveredColumns) {
+                return element.length;
+            }
+        }, 0, EPSILON);
+        sieveStreaming.offer(new int[]{1});
+        assertEquals(0, sieveStreaming.getBestSelection().size());
+    }
+}
@@ -0,0 +1,69 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBuilder;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures.IntegerInstance;
+import de.viadee.xai.anchor.algorithm.global.CoveragePickTest.ValueInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests picking non-conflicting explanations by sieve-streaming
+ */
+class StreamingCoveragePickTest {
+
+    @Test
+    void picksOneAnchorPerFeatureValue() {
+        final List<IntegerInstance> instances = GlobalFixtures.instances(12, 4);
+        final StreamingCoveragePick<IntegerInstance> coveragePick = new StreamingCoveragePick<>(
+                GlobalFixtures.builder(instances.get(0)), 2, Executors.newFixedThreadPool(2));
+
+        final List<AnchorResult<IntegerInstance>> results = coveragePick.run(instances, 6);
+
+        // All anchors are {0}, so explanations conflict if their instances share the first feature's value
+        assertEquals(4, results.size());
+        final Set<Integer> values = new HashSet<>();
+        for (final AnchorResult<IntegerInstance> result : results) {
+            assertEquals(Collections.singletonList(0), result.getOrderedFeatures());
+            assertTrue(result.getCoverage() > 0);
+            values.add(result.getInstance().getInstance()[0]);
+        }
+        assertEquals(4, values.size());
+    }
+
+    @Test
+    void picksNonConflictingExplanations() {
+        final Random random = new Random(5);
+        for (final boolean includeTargetValue : new boolean[]{false, true}) {
+            final AnchorResult<ValueInstance>[] explanations = CoveragePickTest.randomExplanations(random);
+            final StreamingCoveragePick<ValueInstance> coveragePick = new StreamingCoveragePick<>(includeTargetValue,
+                    0.1, new AnchorConstructionBuilder<>(instance -> 0, (features, count) -> null,
+                    explanations[0].getInstance()), 1, Executors.newSingleThreadExecutor());
+            final AbstractStreamingGlobalExplainer.ExplanationPicker<ValueInstance> picker =
+                    coveragePick.createPicker(20);
+            for (final AnchorResult<ValueInstance> explanation : explanations)
+                picker.accept(explanation);
+
+            final List<AnchorResult<ValueInstance>> result = picker.pick();
+            assertTrue(!result.isEmpty() && result.size() <= 20);
+            final Set<Object> conflictKeys = new HashSet<>();
+            for (int i = 0; i < result.size(); i++) {
+                if (i > 0)
+                    assertTrue(result.get(i - 1).getCoverage() >= result.get(i).getCoverage());
+                for (final int feature : result.get(i).getCanonicalFeatures())
+                    assertTrue(conflictKeys.add(CoveragePick.conflictKey(result.get(i), feature,
+                            includeTargetValue)));
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBuilder;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.execution.SamplingFixtures.IntegerInstance;
+import de.viadee.xai.anchor.algorithm.global.CoveragePickTest.ValueInstance;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests picking explanations of important features by sieve-streaming
+ */
+class StreamingSubmodularPickTest {
+    private static final int FEATURES = 50;
+    private static final int FREQUENT_FEATURES = 5;
+
+    private static StreamingSubmodularPick<IntegerInstance> featureValuePick(final List<IntegerInstance> instances) {
+        return new StreamingSubmodularPick<>(true, 0.1, GlobalFixtures.builder(instances.get(0)), 2,
+                Executors.newFixedThreadPool(2));
+    }
+
+    @Test
+    void picksOneExplanationPerFeature() {
+        final List<IntegerInstance> instances = GlobalFixtures.instances(12, 4);
+        final StreamingSubmodularPick<IntegerInstance> submodularPick = new StreamingSubmodularPick<>(
+                GlobalFixtures.builder(instances.get(0)), 2, Executors.newFixedThreadPool(2));
+
+        final List<AnchorResult<IntegerInstance>> results = submodularPick.run(instances, 6);
+
+        // All anchors are {0}, so further explanations do not cover any additional feature
+        assertEquals(1, results.size());
+        assertEquals(Collections.singletonList(0), results.get(0).getOrderedFeatures());
+    }
+
+    @Test
+    void picksOneExplanationPerFeatureValue() {
+        final List<IntegerInstance> instances = GlobalFixtures.instances(12, 4);
+        assertEquals(3, featureValuePick(instances).run(instances, 3).size());
+        final List<AnchorResult<IntegerInstance>> results = featureValuePick(instances).run(instances, 6);
+
+        assertEquals(4, results.size());
+        final Set<Integer> values = new HashSet<>();
+        for (final AnchorResult<IntegerInstance> result : results)
+            values.add(result.getInstance().getInstance()[0]);
+        assertEquals(4, values.size());
+    }
+
+    /*
+     * Single feature explanations of full precision: each rare feature is explained once, the frequent ones are
+     * explained by all other explanations. Streamed with the rare explanations first
+     */
+    private static List<AnchorResult<ValueInstance>> rareFirstExplanations() {
+        final ValueInstance instance = new ValueInstance(new Integer[FEATURES]);
+        final List<AnchorResult<ValueInstance>> result = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            final int feature = (i < FEATURES - FREQUENT_FEATURES) ? FREQUENT_FEATURES + i : i % FREQUENT_FEATURES;
+            final AnchorCandidate candidate = new AnchorCandidate(Collections.singletonList(feature));
+            candidate.registerSamples(10, 10);
+            candidate.setCoverage(0.5);
+            result.add(new AnchorResult<>(candidate, instance, 1, true, 0, 0));
+        }
+        return result;
+    }
+
+    private static double submodularValue(final List<AnchorResult<ValueInstance>> explanations,
+                                          final List<AnchorResult<ValueInstance>> picked) {
+        final Set<Integer> coveredFeatures = new HashSet<>();
+        for (final AnchorResult<ValueInstance> explanation : picked)
+            coveredFeatures.addAll(explanation.getCanonicalFeatures());
+        return explanations.stream().filter(explanation -> coveredFeatures.containsAll(
+                explanation.getCanonicalFeatures())).count() / (double) explanations.size();
+    }
+
+    private static List<AnchorResult<ValueInstance>> streamingPick(final List<AnchorResult<ValueInstance>> explanations,
+                                                                   final int warmUpSize) {
+        final StreamingSubmodularPick<ValueInstance> submodularPick = new StreamingSubmodularPick<>(false, 0.1,
+                warmUpSize, new AnchorConstructionBuilder<>(instance -> 1, (features, count) -> null,
+                explanations.get(0).getInstance()), 1, Executors.newSingleThreadExecutor());
+        final AbstractStreamingGlobalExplainer.ExplanationPicker<ValueInstance> picker =
+                submodularPick.createPicker(FREQUENT_FEATURES);
+        for (final AnchorResult<ValueInstance> explanation : explanations)
+            picker.accept(explanation);
+        return picker.pick();
+    }
+
+    @Test
+    void approximatesGreedyPickRegardlessOfOrder() {
+        final List<AnchorResult<ValueInstance>> explanations = rareFirstExplanations();
+        @SuppressWarnings("unchecked")
+        final List<AnchorResult<ValueInstance>> greedy = new SubmodularPick<ValueInstance>(null, null)
+                .pickExplanations(explanations.toArray(new AnchorResult[0]), FREQUENT_FEATURES);
+        final double greedyValue = submodularValue(explanations, greedy);
+        assertEquals(0.955, greedyValue, 1e-9);
+
+        final List<AnchorResult<ValueInstance>> reversed = new ArrayList<>(explanations);
+        Collections.reverse(reversed);
+        for (final List<AnchorResult<ValueInstance>> stream : Arrays.asList(explanations, reversed)) {
+            // The warm-up is shorter than the stream, but already covers the frequent features
+            for (final int warmUpSize : new int[]{100, 1000}) {
+                final List<AnchorResult<ValueInstance>> picked = streamingPick(stream, warmUpSize);
+                assertTrue(submodularValue(explanations, picked) >= (0.5 - 0.1) * greedyValue);
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidWarmUpSize() {
+        final IntegerInstance instance = GlobalFixtures.instances(1, 1).get(0);
+        assertThrows(IllegalArgumentException.class, () -> new StreamingSubmodularPick<>(false, 0.1, 0,
+                GlobalFixtures.builder(instance), 1, Executors.newSingleThreadExecutor()));
+    }
+}
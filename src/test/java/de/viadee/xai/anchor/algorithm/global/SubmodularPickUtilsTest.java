@@ -0,0 +1,106 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ensures the incremental greedy selection matches recomputing the column sums for every candidate
+ */
+class SubmodularPickUtilsTest {
+    private static final int ROWS = 300;
+    private static final int COLUMNS = 40;
+
+    private static int[][] randomRowColumns(final Random random) {
+        final int[][] rowColumns = new int[ROWS][];
+        for (int row = 0; row < ROWS; row++) {
+            final List<Integer> columns = new ArrayList<>();
+            for (int column = 0; column < COLUMNS; column++)
+                if (random.nextDouble() < 0.1)
+                    columns.add(column);
+            rowColumns[row] = columns.stream().mapToInt(Integer::intValue).toArray();
+        }
+        return rowColumns;
+    }
+
+    private static int[] bruteForceCover(final int[][] rowColumns, final double[] columnImportance,
+                                         final int count) {
+        final List<Integer> selected = new ArrayList<>();
+        for (int i = 0; i < Math.min(count, rowColumns.length); i++) {
+            double bestCoverage = 0;
+            int bestRow = -1;
+            for (int row = 0; row < rowColumns.length; row++) {
+                if (selected.contains(row))
+                    continue;
+                final boolean[] covered = new boolean[columnImportance.length];
+                for (final int selectedRow : selected)
+                    for (final int column : rowColumns[selectedRow])
+                        covered[column] = true;
+                for (final int column : rowColumns[row])
+                    covered[column] = true;
+                double coverage = 0;
+                for (int column = 0; column < covered.length; column++)
+                    if (covered[column])
+                        coverage += columnImportance[column];
+                if (coverage > bestCoverage + 1e-12) {
+                    bestCoverage = coverage;
+                    bestRow = row;
+                }
+            }
+            if (bestRow < 0)
+                break;
+            selected.add(bestRow);
+        }
+        return selected.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void lazyAndEagerMatchBruteForce() {
+        final Random random = new Random(7);
+        for (int run = 0; run < 5; run++) {
+            final int[][] rowColumns = randomRowColumns(random);
+            final double[] columnImportance = new double[COLUMNS];
+            for (int column = 0; column < COLUMNS; column++)
+                columnImportance[column] = random.nextDouble();
+
+            final SparseImportanceMatrix importanceMatrix = new SparseImportanceMatrix(COLUMNS, 0);
+            for (final int[] columns : rowColumns) {
+                final double[] importances = new double[columns.length];
+                Arrays.fill(importances, 1);
+                importanceMatrix.addRow(columns, importances);
+            }
+
+            final int[] expected = bruteForceCover(rowColumns, columnImportance, 15);
+            assertArrayEquals(expected, SubmodularPickUtils.greedyCover(importanceMatrix, columnImportance, 15, false));
+            assertArrayEquals(expected, SubmodularPickUtils.greedyCover(importanceMatrix, columnImportance, 15, true));
+        }
+    }
+
+    @Test
+    void stopsWithoutAnyImportance() {
+        final SparseImportanceMatrix importanceMatrix = new SparseImportanceMatrix(1, 3);
+        for (int row = 0; row < 3; row++)
+            importanceMatrix.addRow(new int[]{0}, new double[]{0});
+        final double[] columnImportance = importanceMatrix.columnMeans();
+        assertEquals(0, importanceMatrix.getNonZeroCount());
+        assertEquals(0, SubmodularPickUtils.greedyCover(importanceMatrix, columnImportance, 2, false).length);
+        assertEquals(0, SubmodularPickUtils.greedyCover(importanceMatrix, columnImportance, 2, true).length);
+    }
+
+    @Test
+    void sparseColumnMeans() {
+        final SparseImportanceMatrix importanceMatrix = new SparseImportanceMatrix(4, 1);
+        importanceMatrix.addRow(new int[]{3, 0}, new double[]{0.5, 1});
+        importanceMatrix.addRow(new int[]{}, new double[]{});
+        importanceMatrix.addRow(new int[]{3}, new double[]{0.25});
+        assertEquals(3, importanceMatrix.getRowCount());
+        assertEquals(3, importanceMatrix.getNonZeroCount());
+        assertArrayEquals(new double[]{1 / 3D, 0, 0, 0.25}, importanceMatrix.columnMeans(), 1e-12);
+    }
+}
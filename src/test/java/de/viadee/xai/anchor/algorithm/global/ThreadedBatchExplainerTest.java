@@ -0,0 +1,200 @@
+package de.viadee.xai.anchor.algorithm.global;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+
+import de.viadee.xai.anchor.algorithm.AnchorCandidate;
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBudget;
+import de.viadee.xai.anchor.algorithm.AnchorConstructionBuilder;
+import de.viadee.xai.anchor.algorithm.AnchorResult;
+import de.viadee.xai.anchor.algorithm.DataInstance;
+import de.viadee.xai.anchor.algorithm.PerturbationFunction;
+import de.viadee.xai.anchor.algorithm.execution.ExecutorServiceSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ensures results are returned in instance order, also when there are fewer instances than threads, and that cached
+ * anchors get reused without their original instance's precision
+ */
+class ThreadedBatchExplainerTest {
+
+    @Test
+    void preservesOrderWithFewerInstancesThanThreads() {
+        final List<IntegerInstance> instances = Arrays.asList(
+                new IntegerInstance(2, 0), new IntegerInstance(0, 0), new IntegerInstance(1, 0));
+        final AnchorConstructionBuilder<IntegerInstance> builder = new AnchorConstructionBuilder<>(
+                instance -> instance.getInstance()[0], new ChangingPerturbationFunction(instances.get(0)),
+                instances.get(0));
+
+        final AnchorResult<IntegerInstance>[] results = new ThreadedBatchExplainer<IntegerInstance>(8,
+                Executors.newFixedThreadPool(8), (ExecutorServiceSupplier) null).obtainAnchors(builder, instances);
+
+        assertEquals(instances.size(), results.length);
+        for (int i = 0; i < results.length; i++) {
+            assertEquals(instances.get(i), results[i].getInstance());
+            assertEquals(instances.get(i).getInstance()[0], results[i].getLabel());
+        }
+    }
+
+    @Test
+    void reusesCachedAnchors() {
+        final List<IntegerInstance> instances = Arrays.asList(
+                new IntegerInstance(1, 0), new IntegerInstance(1, 5), new IntegerInstance(2, 0));
+        final AnchorConstructionBuilder<IntegerInstance> builder = new AnchorConstructionBuilder<>(
+                instance -> instance.getInstance()[0], new ChangingPerturbationFunction(instances.get(0)),
+                instances.get(0));
+        final AnchorRuleCache<IntegerInstance> anchorRuleCache = new AnchorRuleCache<>(true);
+
+        final AnchorResult<IntegerInstance>[] results = new ThreadedBatchExplainer<>(1,
+                Executors.newSingleThreadExecutor(), (ExecutorServiceSupplier) null, anchorRuleCache)
+                .obtainAnchors(builder, instances);
+
+        assertEquals(instances.size(), results.length);
+        assertEquals(instances.get(1), results[1].getInstance());
+        assertEquals(results[0].getCanonicalFeatures(), results[1].getCanonicalFeatures());
+        // Only constructed anchors are cached, the reused one is not added again
+        assertEquals(1, anchorRuleCache.findCoveringAnchors(new IntegerInstance(1, 9), 1).size());
+        assertEquals(0, anchorRuleCache.findCoveringAnchors(new IntegerInstance(3, 0), 3).size());
+    }
+
+    private static AnchorResult<IntegerInstance> cachedAnchor(final IntegerInstance instance) {
+        // The rule {0, 1} found for another instance, where adding feature 1 appeared to add most precision
+        final AnchorCandidate parent = new AnchorCandidate(Collections.singletonList(0));
+        parent.registerSamples(1000, 200);
+        final AnchorCandidate anchor = new AnchorCandidate(Arrays.asList(0, 1), parent);
+        anchor.registerSamples(1000, 1000);
+        anchor.setCoverage(0.5);
+        return new AnchorResult<>(anchor, instance, instance.getInstance()[0], true, 0, 0);
+    }
+
+    @Test
+    void verifiesReusedAnchorsForOwnInstance() {
+        final IntegerInstance cachedInstance = new IntegerInstance(1, 0, 0);
+        final IntegerInstance instance = new IntegerInstance(1, 0, 7);
+        final AnchorResult<IntegerInstance> cachedAnchor = cachedAnchor(cachedInstance);
+        final AnchorRuleCache<IntegerInstance> anchorRuleCache = new AnchorRuleCache<>(true);
+        anchorRuleCache.add(cachedAnchor);
+
+        final AnchorResult<IntegerInstance> result = anchorRuleCache.explain(AnchorConstructionBuilder.buildForSP(
+                new AnchorConstructionBuilder<>(explained -> explained.getInstance()[0],
+                        new ChangingPerturbationFunction(cachedInstance), cachedInstance), instance));
+
+        assertEquals(instance, result.getInstance());
+        assertEquals(Arrays.asList(0, 1), result.getOrderedFeatures());
+        assertNotSame(cachedAnchor.getParentCandidate(), result.getParentCandidate());
+        // The parent chain is sampled for the instance, so that the fixed first feature determines the precision
+        assertTrue(result.getSampledSize() < 1000);
+        assertEquals(1, result.getParentCandidate().getPrecision());
+        assertEquals(0, result.getAddedPrecision());
+        assertEquals(1, SubmodularPick.computeFeatureImportance(result, 0));
+        assertEquals(0, SubmodularPick.computeFeatureImportance(result, 1));
+    }
+
+    @Test
+    void adoptsReusedAnchorsWithoutForeignPrecision() {
+        final IntegerInstance cachedInstance = new IntegerInstance(1, 0, 0);
+        final IntegerInstance instance = new IntegerInstance(1, 0, 7);
+        final AnchorResult<IntegerInstance> cachedAnchor = cachedAnchor(cachedInstance);
+        final AnchorRuleCache<IntegerInstance> anchorRuleCache = new AnchorRuleCache<>(false);
+        anchorRuleCache.add(cachedAnchor);
+
+        final AnchorResult<IntegerInstance> result = anchorRuleCache.explain(AnchorConstructionBuilder.buildForSP(
+                new AnchorConstructionBuilder<>(explained -> explained.getInstance()[0],
+                        new ChangingPerturbationFunction(cachedInstance), cachedInstance), instance));
+
+        assertEquals(instance, result.getInstance());
+        assertEquals(Arrays.asList(0, 1), result.getOrderedFeatures());
+        assertNotSame(cachedAnchor.getParentCandidate(), result.getParentCandidate());
+        assertEquals(0, result.getSampledSize());
+        assertEquals(0, result.getParentCandidate().getSampledSize());
+        assertNotNull(result.getCoverage());
+        // The rule's precision has not been verified for the instance
+        assertFalse(result.isAnchor());
+    }
+
+    @Test
+    void limitsVerificationByBudget() {
+        final IntegerInstance cachedInstance = new IntegerInstance(1, 0, 0);
+        final AnchorRuleCache<IntegerInstance> anchorRuleCache = new AnchorRuleCache<>(true);
+        anchorRuleCache.add(cachedAnchor(cachedInstance));
+        // Without any tolerance, the lower bound of a rule that always holds never confirms a tau of 1
+        final AnchorConstructionBuilder<IntegerInstance> builder = new AnchorConstructionBuilder<>(
+                explained -> 1, new ChangingPerturbationFunction(cachedInstance), cachedInstance)
+                .setTauDiscrepancy(0)
+                .setBudget(AnchorConstructionBudget.ofSamples(500));
+
+        assertNull(anchorRuleCache.explain(AnchorConstructionBuilder.buildForSP(builder,
+                new IntegerInstance(1, 0, 7))));
+    }
+
+    private static class IntegerInstance implements DataInstance<int[]> {
+        private static final long serialVersionUID = 2317596108329556045L;
+
+        private final int[] values;
+
+        IntegerInstance(int... values) {
+            this.values = values;
+        }
+
+        @Override
+        public int[] getInstance() {
+            return values;
+        }
+
+        @Override
+        public Object getValue(int featureId) {
+            return values[featureId];
+        }
+
+        @Override
+        public int getFeatureCount() {
+            return values.length;
+        }
+    }
+
+    /**
+     * Changes every feature that is not fixed
+     */
+    private static class ChangingPerturbationFunction implements ReconfigurablePerturbationFunction<IntegerInstance> {
+        private static final long serialVersionUID = -1286617316370046207L;
+
+        private final IntegerInstance instance;
+
+        ChangingPerturbationFunction(IntegerInstance instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public PerturbationFunction<IntegerInstance> createForInstance(IntegerInstance instance) {
+            return new ChangingPerturbationFunction(instance);
+        }
+
+        @Override
+        public PerturbationResult<IntegerInstance> perturb(Set<Integer> immutableFeaturesIdx, int nrPerturbations) {
+            final IntegerInstance[] rawResult = new IntegerInstance[nrPerturbations];
+            final boolean[][] featureChanged = new boolean[nrPerturbations][instance.getFeatureCount()];
+            for (int i = 0; i < nrPerturbations; i++) {
+                final int[] values = instance.getInstance().clone();
+                for (int feature = 0; feature < values.length; feature++) {
+                    if (!immutableFeaturesIdx.contains(feature)) {
+                        values[feature] += 1;
+                        featureChanged[i][feature] = true;
+                    }
+                }
+                rawResult[i] = new IntegerInstance(values);
+            }
+            return new PerturbationResultImpl<>(rawResult, featureChanged);
+        }
+    }
+}
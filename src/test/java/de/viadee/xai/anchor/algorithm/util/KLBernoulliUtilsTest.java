@@ -3,7 +3,10 @@ package de.viadee.xai.anchor.algorithm.util;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Some basic tests to ensure correct Bernoulli functioning
@@ -46,4 +49,44 @@ class KLBernoulliUtilsTest {
         assertEquals(KLBernoulliUtils.computeBeta(12, 5, 0.05), 15.84060245509722);
     }
 
+    @Test
+    void newton_matches_bisection() {
+        for (int i = 0; i <= 100; i++) {
+            final double p = i / 100D;
+            for (final double level : new double[]{1e-6, 1e-4, 0.01, 0.05, 0.2, 0.6, 1.4, 3, 10, 50}) {
+                // The bisection's result deviates from the exact bound by at most its final interval width
+                final double tolerance = Math.sqrt(level / 2) / (1 << 16) + 1e-9;
+                assertEquals(KLBernoulliUtils.dupBernoulli(p, level), KLBernoulliUtils.dupBernoulliNewton(p, level),
+                        tolerance, "dup(" + p + ", " + level + ")");
+                assertEquals(KLBernoulliUtils.dlowBernoulli(p, level), KLBernoulliUtils.dlowBernoulliNewton(p, level),
+                        tolerance, "dlow(" + p + ", " + level + ")");
+            }
+        }
+    }
+
+    @Test
+    void guided_equals_bisection() {
+        final Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            final int sampledSize = 1 + random.nextInt(2000);
+            final double p = (i % 10 == 0) ? (i / 10) % 2 : random.nextInt(sampledSize + 1) / (double) sampledSize;
+            final double level = (i % 7 == 0) ? 0 : 60 * random.nextDouble() / sampledSize;
+            assertEquals(KLBernoulliUtils.dupBernoulli(p, level), KLBernoulliUtils.dupBernoulliGuided(p, level),
+                    "dup(" + p + ", " + level + ")");
+            assertEquals(KLBernoulliUtils.dlowBernoulli(p, level), KLBernoulliUtils.dlowBernoulliGuided(p, level),
+                    "dlow(" + p + ", " + level + ")");
+        }
+    }
+
+    @Test
+    void newton_solves_divergence() {
+        final double ub = KLBernoulliUtils.dupBernoulliNewton(0.4, 0.2458933742375515);
+        final double lb = KLBernoulliUtils.dlowBernoulliNewton(0.4, 0.2458933742375515);
+        assertEquals(0.2458933742375515, KLBernoulliUtils.klBernoulli(0.4, ub), 1e-9);
+        assertEquals(0.2458933742375515, KLBernoulliUtils.klBernoulli(0.4, lb), 1e-9);
+        assertTrue(lb < 0.4 && ub > 0.4);
+        assertEquals(0.4, KLBernoulliUtils.dupBernoulliNewton(0.4, 0));
+        assertEquals(1, KLBernoulliUtils.dupBernoulliNewton(1, 0.5));
+        assertEquals(0, KLBernoulliUtils.dlowBernoulliNewton(0, 0.5));
+    }
 }
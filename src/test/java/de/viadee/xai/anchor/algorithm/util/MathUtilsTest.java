@@ -0,0 +1,49 @@
+package de.viadee.xai.anchor.algorithm.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ensures the primitive index sorts match a stable sort of boxed indexes
+ */
+class MathUtilsTest {
+
+    private static int[] boxedArgSort(final double[] a, final boolean ascending) {
+        final Comparator<Integer> comparator = (i1, i2) -> Double.compare(a[i1], a[i2]);
+        return IntStream.range(0, a.length).boxed()
+                .sorted((ascending) ? comparator : comparator.reversed())
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    void argSortIsStable() {
+        final Random random = new Random(42);
+        for (int length = 0; length < 100; length++) {
+            // Few distinct values to provoke ties
+            final double[] a = random.ints(length, 0, 5).asDoubleStream().toArray();
+            assertArrayEquals(boxedArgSort(a, true), MathUtils.argSort(a));
+            assertArrayEquals(boxedArgSort(a, false), MathUtils.argSort(a, false));
+            for (final int k : new int[]{0, 1, length / 2, length}) {
+                if (k > length)
+                    continue;
+                assertArrayEquals(Arrays.copyOf(boxedArgSort(a, false), k), MathUtils.argTopK(a, k));
+                assertArrayEquals(Arrays.copyOf(boxedArgSort(a, true), k), MathUtils.argBottomK(a, k));
+            }
+        }
+    }
+
+    @Test
+    void argExtreme() {
+        assertEquals(0, MathUtils.argMax(new double[]{0, 0, 0}));
+        assertEquals(2, MathUtils.argMax(new double[]{-3, -2, -1}));
+        assertEquals(1, MathUtils.argMin(new double[]{2, 1, 1}));
+        assertEquals(-1, MathUtils.argMax(new double[0]));
+    }
+}